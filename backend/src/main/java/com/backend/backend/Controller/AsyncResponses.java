@@ -0,0 +1,26 @@
+package com.backend.backend.Controller;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+// Helpers for controllers that hand Spring MVC a CompletableFuture instead of blocking
+final class AsyncResponses {
+
+    private AsyncResponses() {
+    }
+
+    // The exception that actually failed the future, without CompletionException wrappers
+    static Throwable cause(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    // Rethrow from a handle() stage so Spring MVC resolves the error as for a blocking handler
+    static RuntimeException rethrow(Throwable error) {
+        Throwable cause = cause(error);
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+    }
+}
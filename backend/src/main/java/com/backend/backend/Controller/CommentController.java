@@ -1,8 +1,14 @@
 package com.backend.backend.Controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,12 +17,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.backend.backend.Model.Comment;
 import com.backend.backend.Model.CommentDto;
+import com.backend.backend.Repository.CostAccount;
+import com.backend.backend.Repository.CostContext;
+import com.backend.backend.Service.ChangeStreamService;
 import com.backend.backend.Service.CommentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+// Handlers return CompletableFuture so the servlet thread is released while Firestore works
 @RestController
 @RequestMapping("/api/v1/comments")
 public class CommentController {
@@ -24,47 +38,119 @@ public class CommentController {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Create new comment
     @PostMapping("/add")
-    public ResponseEntity<?> createComment(@RequestBody Comment comment) {
-        try {
-            Comment savedComment = commentService.addNewComment(comment);
+    public CompletableFuture<ResponseEntity<?>> createComment(@RequestBody Comment comment) {
+        return commentService.addNewCommentAsync(comment).handle((savedComment, error) -> {
+            if (error != null) {
+                return ResponseEntity.status(500).body("Error creating comment: " + AsyncResponses.cause(error).getMessage());
+            }
             return ResponseEntity.ok(savedComment);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error creating comment: " + e.getMessage());
-        }
+        });
     }
 
-    // Get comments by post ID
+    // Create many comments, one result per item
+    @PostMapping("/add/bulk")
+    public CompletableFuture<ResponseEntity<?>> createComments(@RequestBody List<Comment> comments) {
+        return commentService.addNewCommentsAsync(comments).handle((results, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(results);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
+    }
+
+    // Get comments by post ID, or a single page when limit/cursor are given
     @GetMapping("/getAllComments/{postId}")
-    public ResponseEntity<?> getCommentsByPostId(@PathVariable String postId) {
-        try {
-            List<Comment> comments = commentService.getAllComments(postId);
-            return ResponseEntity.ok(comments);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error retrieving comments: " + e.getMessage());
+    public CompletableFuture<ResponseEntity<?>> getCommentsByPostId(@PathVariable String postId,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String cursor) {
+        if (limit != null || cursor != null) {
+            return commentService.getCommentsPageAsync(postId, limit, cursor).handle((page, error) -> {
+                if (error == null) {
+                    return ResponseEntity.ok(page);
+                }
+                Throwable cause = AsyncResponses.cause(error);
+                if (cause instanceof IllegalArgumentException) {
+                    return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+                }
+                return ResponseEntity.status(500).body("Error retrieving comments: " + cause.getMessage());
+            });
         }
+        return commentService.getAllCommentsAsync(postId).handle((comments, error) -> {
+            if (error != null) {
+                return ResponseEntity.status(500).body("Error retrieving comments: " + AsyncResponses.cause(error).getMessage());
+            }
+            return ResponseEntity.ok(comments);
+        });
+    }
+
+    // Stream every comment on a post as NDJSON, one comment per line, newest first.
+    // Comments are written as they are read, so the full list is never held in memory.
+    @GetMapping(value = "/stream/{postId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamCommentsByPostId(@PathVariable String postId) {
+        // The body is written on another thread, which charges its reads to this request too
+        CostAccount account = CostContext.current();
+        return output -> {
+            try {
+                CostContext.callWith(account,
+                        () -> commentService.streamCommentsAsync(postId, comment -> writeLine(output, comment))).join();
+            } catch (CompletionException e) {
+                throw AsyncResponses.rethrow(e);
+            }
+        };
+    }
+
+    // Server-sent events for comments added to, edited on or deleted from a post
+    @GetMapping(value = "/changes/{postId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCommentChanges(@PathVariable String postId) {
+        return changeStreamService.subscribeToComments(postId);
     }
 
     // Update comment
     @PutMapping("/update")
-    public ResponseEntity<?> updateComment(@RequestBody CommentDto commentDto) {
-        try {
-            commentService.updateComment(commentDto);
+    public CompletableFuture<ResponseEntity<?>> updateComment(@RequestBody CommentDto commentDto) {
+        return commentService.updateCommentAsync(commentDto).handle((updated, error) -> {
+            if (error != null) {
+                return ResponseEntity.status(500).body("Error updating comment: " + AsyncResponses.cause(error).getMessage());
+            }
+            if (!updated) {
+                return ResponseEntity.notFound().build();
+            }
             return ResponseEntity.ok("Comment updated successfully");
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error updating comment: " + e.getMessage());
-        }
+        });
     }
 
     // Delete comment
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<?> deleteComment(@PathVariable String id) {
-        try {
-            commentService.deleteComment(id);
+    public CompletableFuture<ResponseEntity<?>> deleteComment(@PathVariable String id) {
+        return commentService.deleteCommentAsync(id).handle((deleted, error) -> {
+            if (error != null) {
+                return ResponseEntity.status(500).body("Error deleting comment: " + AsyncResponses.cause(error).getMessage());
+            }
+            if (!deleted) {
+                return ResponseEntity.notFound().build();
+            }
             return ResponseEntity.ok("Comment deleted successfully");
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error deleting comment: " + e.getMessage());
+        });
+    }
+
+    private void writeLine(OutputStream output, Comment comment) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(comment));
+            output.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,14 @@
 package com.backend.backend.Controller;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +17,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.backend.backend.Model.Page;
 import com.backend.backend.Model.Post;
+import com.backend.backend.Service.ChangeStreamService;
+import com.backend.backend.Service.FeedService;
+import com.backend.backend.Service.LikeService;
 import com.backend.backend.Service.PostService;
 
+// Handlers return CompletableFuture so the servlet thread is released while Firestore works
 @RestController
 @RequestMapping("/posts")
 public class PostController {
@@ -25,73 +36,197 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
     // Create a new post
     @PostMapping
-    public ResponseEntity<?> createPost(@RequestBody Post post) {
+    public CompletableFuture<ResponseEntity<?>> createPost(@RequestBody Post post) {
         System.out.println("Creating post: " + post);
-        try {
-            if (post.getCreatedAt() == null) {
-                post.setCreatedAt(LocalDateTime.now());
-            }
-            return ResponseEntity.ok(postService.createPost(post));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        if (post.getCreatedAt() == null) {
+            post.setCreatedAt(LocalDateTime.now());
         }
+        return postService.createPostAsync(post).handle((created, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(created);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
+    }
+
+    // Get the hottest posts in a trending window (?window=day|week), best first
+    @GetMapping("/trending")
+    public CompletableFuture<ResponseEntity<?>> getTrendingPosts(@RequestParam(required = false) String window,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) String viewerId) {
+        return postService.getTrendingPostsAsync(window, limit)
+                .thenCompose(posts -> likeService.decorateAsync(posts, viewerId))
+                .handle((posts, error) -> {
+                    if (error == null) {
+                        return ResponseEntity.ok(posts);
+                    }
+                    Throwable cause = AsyncResponses.cause(error);
+                    if (cause instanceof IllegalArgumentException) {
+                        return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+                    }
+                    throw AsyncResponses.rethrow(cause);
+                });
     }
 
     // Get a post by ID
     @GetMapping("/{postId}")
-    public ResponseEntity<?> getPostById(@PathVariable String postId) {
-        Post post = postService.getPostById(postId);
-        if (post != null) {
-            return ResponseEntity.ok(post);
-        }
-        return ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<?>> getPostById(@PathVariable String postId,
+                                                            @RequestParam(required = false) String viewerId) {
+        return postService.getPostByIdAsync(postId).thenCompose(post -> {
+            if (post == null) {
+                return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+            }
+            return likeService.decorateAsync(List.of(post), viewerId)
+                    .thenApply(decorated -> ResponseEntity.ok(decorated.get(0)));
+        });
+    }
+
+    // Get many posts by id in one call; the body is an array of up to 300 ids
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<?>> getPostsByIds(@RequestBody List<String> ids,
+                                                              @RequestParam(required = false) String viewerId) {
+        return postService.getPostsByIdsAsync(ids)
+                .thenCompose(result -> likeService.decorateAsync(new ArrayList<>(result.getItems().values()), viewerId)
+                        .thenApply(posts -> {
+                            Map<String, Post> items = new LinkedHashMap<>();
+                            for (Post post : posts) {
+                                items.put(post.getPostId(), post);
+                            }
+                            result.setItems(items);
+                            return result;
+                        }))
+                .handle((result, error) -> {
+                    if (error == null) {
+                        return ResponseEntity.ok(result);
+                    }
+                    Throwable cause = AsyncResponses.cause(error);
+                    if (cause instanceof IllegalArgumentException) {
+                        return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+                    }
+                    throw AsyncResponses.rethrow(cause);
+                });
     }
 
     // Update a post by ID
     @PutMapping("/{postId}")
-    public ResponseEntity<?> updatePost(@PathVariable String postId, @RequestBody Post post) {
-        Post updated = postService.updatePost(postId, post);
-        if (updated != null) {
-            return ResponseEntity.ok(updated);
-        }
-        return ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<?>> updatePost(@PathVariable String postId, @RequestBody Post post) {
+        return postService.updatePostAsync(postId, post).handle((updated, error) -> {
+            if (error == null) {
+                return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
     // Delete a post by ID
     @DeleteMapping("/{postId}")
-    public ResponseEntity<?> deletePost(@PathVariable String postId) {
-        boolean isDeleted = postService.deletePost(postId);
-        if (isDeleted) {
-            return ResponseEntity.ok("Post deleted successfully");
-        }
-        return ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<?>> deletePost(@PathVariable String postId) {
+        return postService.deletePostAsync(postId).thenApply(isDeleted -> {
+            if (isDeleted) {
+                return ResponseEntity.ok("Post deleted successfully");
+            }
+            return ResponseEntity.notFound().build();
+        });
     }
 
-    // Get all posts
+    // Get all posts, or a single page when limit/cursor are given. With ?skills=java,spring
+    // it is always a page, of the posts tagged with any of those skills.
     @GetMapping
-    public ResponseEntity<List<Post>> getAllPosts() {
-        return ResponseEntity.ok(postService.getAllPosts());
+    public CompletableFuture<ResponseEntity<?>> getAllPosts(@RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) String skills,
+                                                            @RequestParam(required = false) String viewerId) {
+        if (skills != null) {
+            return pageResponse(postService.getPostsBySkillsPageAsync(skills, limit, cursor), viewerId);
+        }
+        if (limit == null && cursor == null) {
+            return postService.getAllPostsAsync()
+                    .thenCompose(posts -> likeService.decorateAsync(posts, viewerId))
+                    .thenApply(ResponseEntity::ok);
+        }
+        return pageResponse(postService.getPostsPageAsync(limit, cursor), viewerId);
     }
 
-    // Get posts by user ID
+    // Get posts by user ID, or a single page when limit/cursor are given
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Post>> getPostsByUser(@PathVariable String userId) {
-        return ResponseEntity.ok(postService.getPostsByUser(userId));
+    public CompletableFuture<ResponseEntity<?>> getPostsByUser(@PathVariable String userId,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) String viewerId) {
+        if (limit == null && cursor == null) {
+            return postService.getPostsByUserAsync(userId)
+                    .thenCompose(posts -> likeService.decorateAsync(posts, viewerId))
+                    .thenApply(ResponseEntity::ok);
+        }
+        return pageResponse(postService.getPostsByUserPageAsync(userId, limit, cursor), viewerId);
     }
 
-    // Like a post
+    // Get a page of the user's home feed: their posts and those of people they follow or are connected to
+    @GetMapping("/feed/{userId}")
+    public CompletableFuture<ResponseEntity<?>> getHomeFeed(@PathVariable String userId,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String cursor) {
+        return pageResponse(feedService.getHomeFeedAsync(userId, limit, cursor), userId);
+    }
+
+    // Server-sent events for posts added to, changed in or leaving the newest-posts window
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPostChanges() {
+        return changeStreamService.subscribeToPosts();
+    }
+
+    // Like a post. Toggles unless the body carries an explicit "liked" flag.
     @PostMapping("/{postId}/like")
-    public ResponseEntity<?> likePost(@PathVariable String postId, @RequestBody Map<String, String> body) {
-        String userId = body.get("userId");
-        if (userId == null) {
-            return ResponseEntity.badRequest().body("userId is required");
+    public CompletableFuture<ResponseEntity<?>> likePost(@PathVariable String postId,
+                                                         @RequestBody Map<String, Object> body) {
+        Object userId = body.get("userId");
+        if (!(userId instanceof String)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("userId is required"));
         }
-        Post post = postService.likePost(postId, userId);
-        if (post != null) {
-            return ResponseEntity.ok(post);
-        }
-        return ResponseEntity.notFound().build();
+        Object liked = body.get("liked");
+        return postService.likePostAsync(postId, (String) userId, liked instanceof Boolean ? (Boolean) liked : null)
+                .thenApply(result -> {
+                    if (result != null) {
+                        return ResponseEntity.ok(result);
+                    }
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+    // Decorate a page for the viewer; an invalid cursor is a 400
+    private CompletableFuture<ResponseEntity<?>> pageResponse(CompletableFuture<Page<Post>> pageFuture, String viewerId) {
+        return pageFuture
+                // The page may be shared with concurrent requests, so decorate into a new one
+                .thenCompose(page -> likeService.decorateAsync(page.getItems(), viewerId)
+                        .thenApply(items -> new Page<>(items, page.getNextCursor())))
+                .handle((page, error) -> {
+                    if (error == null) {
+                        return ResponseEntity.ok(page);
+                    }
+                    Throwable cause = AsyncResponses.cause(error);
+                    if (cause instanceof IllegalArgumentException) {
+                        return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+                    }
+                    throw AsyncResponses.rethrow(cause);
+                });
     }
-}
\ No newline at end of file
+}
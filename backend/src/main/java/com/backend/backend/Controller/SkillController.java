@@ -0,0 +1,29 @@
+package com.backend.backend.Controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.backend.Model.SkillCount;
+import com.backend.backend.Service.SkillService;
+
+// Handlers return CompletableFuture so the servlet thread is released while Firestore works
+@RestController
+@RequestMapping("/skills")
+public class SkillController {
+
+    @Autowired
+    private SkillService skillService;
+
+    // Most used skills across posts and topics - GET /skills/trending?limit=
+    @GetMapping("/trending")
+    public CompletableFuture<ResponseEntity<List<SkillCount>>> getTrendingSkills(@RequestParam(required = false) Integer limit) {
+        return skillService.getTrendingSkillsAsync(limit).thenApply(ResponseEntity::ok);
+    }
+}
@@ -1,7 +1,7 @@
 package com.backend.backend.Controller;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -14,11 +14,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.backend.backend.Model.Subtopic;
 import com.backend.backend.Model.Topic;
 import com.backend.backend.Service.TopicService;
 
+// Handlers return CompletableFuture so the servlet thread is released while Firestore works
 @RestController
 @RequestMapping("/api/v1/topics")
 public class TopicController {
@@ -28,60 +31,168 @@ public class TopicController {
 
     // Create - POST /api/v1/topics/add
     @PostMapping("/add")
-    public ResponseEntity<Topic> createTopic(@RequestBody Topic topic) {
-        Topic newTopic = topicService.createTopic(topic);
-        return new ResponseEntity<>(newTopic, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<?>> createTopic(@RequestBody Topic topic) {
+        return topicService.createTopicAsync(topic).handle((newTopic, error) -> {
+            if (error == null) {
+                return new ResponseEntity<>(newTopic, HttpStatus.CREATED);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return new ResponseEntity<>("Error: " + cause.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
+    }
+
+    // Create (bulk) - POST /api/v1/topics/add/bulk, one result per item
+    @PostMapping("/add/bulk")
+    public CompletableFuture<ResponseEntity<?>> createTopics(@RequestBody List<Topic> topics) {
+        return topicService.createTopicsAsync(topics).handle((results, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(results);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
-    // Read (all) - GET /api/v1/topics/all
+    // Read (all) - GET /api/v1/topics/all, or a single page with ?limit=&cursor=
     @GetMapping("/all")
-    public ResponseEntity<List<Topic>> getAllTopics() {
-        List<Topic> topics = topicService.getAllTopics();
-        return new ResponseEntity<>(topics, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<?>> getAllTopics(@RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return topicService.getAllTopicsAsync().thenApply(topics -> new ResponseEntity<>(topics, HttpStatus.OK));
+        }
+        return topicService.getTopicsPageAsync(limit, cursor).handle((page, error) -> {
+            if (error == null) {
+                return new ResponseEntity<>(page, HttpStatus.OK);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return new ResponseEntity<>("Error: " + cause.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
     // Read (by id) - GET /api/v1/topics/{id}
     @GetMapping("/{id}")
-    public ResponseEntity<Topic> getTopicById(@PathVariable String id) {
-        Optional<Topic> topic = topicService.getTopicById(id);
-        return topic.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public CompletableFuture<ResponseEntity<Topic>> getTopicById(@PathVariable String id) {
+        return topicService.getTopicByIdAsync(id).thenApply(topic -> topic != null
+                ? new ResponseEntity<>(topic, HttpStatus.OK)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Read (many by id) - POST /api/v1/topics/batch with an array of up to 300 ids
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<?>> getTopicsByIds(@RequestBody List<String> ids) {
+        return topicService.getTopicsByIdsAsync(ids).handle((result, error) -> {
+            if (error == null) {
+                return new ResponseEntity<>(result, HttpStatus.OK);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return new ResponseEntity<>("Error: " + cause.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
     // Get topics by user ID - GET /api/v1/topics/user/{userId}
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Topic>> getTopicsByUser(@PathVariable String userId) {
-        List<Topic> topics = topicService.getTopicsByUser(userId);
-        return new ResponseEntity<>(topics, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<List<Topic>>> getTopicsByUser(@PathVariable String userId) {
+        return topicService.getTopicsByUserAsync(userId).thenApply(topics -> new ResponseEntity<>(topics, HttpStatus.OK));
     }
 
     // Update - PUT /api/v1/topics/update/{id}
     @PutMapping("/update/{id}")
-    public ResponseEntity<Topic> updateTopic(@PathVariable String id, @RequestBody Topic topic) {
-        Topic updatedTopic = topicService.updateTopic(id, topic);
-        if (updatedTopic != null) {
-            return new ResponseEntity<>(updatedTopic, HttpStatus.OK);
-        }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public CompletableFuture<ResponseEntity<?>> updateTopic(@PathVariable String id, @RequestBody Topic topic) {
+        return topicService.updateTopicAsync(id, topic).handle((updatedTopic, error) -> {
+            if (error == null) {
+                return updatedTopic != null
+                        ? new ResponseEntity<>(updatedTopic, HttpStatus.OK)
+                        : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return new ResponseEntity<>("Error: " + cause.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
     // Update progress - PATCH /api/v1/topics/{id}/progress
     @PatchMapping("/{id}/progress")
-    public ResponseEntity<Topic> updateProgress(@PathVariable String id, @RequestBody java.util.Map<String, Integer> progressMap) {
+    public CompletableFuture<ResponseEntity<Topic>> updateProgress(@PathVariable String id, @RequestBody java.util.Map<String, Integer> progressMap) {
         Integer progress = progressMap.get("progress");
-        if (progress != null) {
-            Topic updatedTopic = topicService.updateProgress(id, progress);
-            if (updatedTopic != null) {
-                return new ResponseEntity<>(updatedTopic, HttpStatus.OK);
-            }
+        if (progress == null) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_FOUND));
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return topicService.updateProgressAsync(id, progress).thenApply(updatedTopic -> updatedTopic != null
+                ? new ResponseEntity<>(updatedTopic, HttpStatus.OK)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Add a subtopic - POST /api/v1/topics/{id}/subtopics, appended with the next id
+    @PostMapping("/{id}/subtopics")
+    public CompletableFuture<ResponseEntity<?>> addSubtopic(@PathVariable String id, @RequestBody Subtopic subtopic) {
+        return topicService.addSubtopicAsync(id, subtopic).handle((added, error) -> {
+            if (error == null) {
+                return added != null
+                        ? new ResponseEntity<>(added, HttpStatus.CREATED)
+                        : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return new ResponseEntity<>("Error: " + cause.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
+    }
+
+    // Update a subtopic - PATCH /api/v1/topics/{id}/subtopics/{subtopicId}, writing only the fields sent
+    @PatchMapping("/{id}/subtopics/{subtopicId}")
+    public CompletableFuture<ResponseEntity<?>> updateSubtopic(@PathVariable String id, @PathVariable String subtopicId,
+                                                               @RequestBody Subtopic changes) {
+        return topicService.updateSubtopicAsync(id, subtopicId, changes).handle((updated, error) -> {
+            if (error == null) {
+                return updated != null
+                        ? new ResponseEntity<>(updated, HttpStatus.OK)
+                        : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return new ResponseEntity<>("Error: " + cause.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
+    }
+
+    // Remove a subtopic - DELETE /api/v1/topics/{id}/subtopics/{subtopicId}
+    @DeleteMapping("/{id}/subtopics/{subtopicId}")
+    public CompletableFuture<ResponseEntity<?>> removeSubtopic(@PathVariable String id, @PathVariable String subtopicId) {
+        return topicService.removeSubtopicAsync(id, subtopicId).handle((removed, error) -> {
+            if (error == null) {
+                return removed
+                        ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                        : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return new ResponseEntity<>("Error: " + cause.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
     // Delete - DELETE /api/v1/topics/delete/{id}
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<Void> deleteTopic(@PathVariable String id) {
-        topicService.deleteTopic(id);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    public CompletableFuture<ResponseEntity<Void>> deleteTopic(@PathVariable String id) {
+        return topicService.deleteTopicAsync(id).thenApply(deleted -> deleted
+                ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.backend.backend.Controller;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -12,11 +12,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.backend.Model.UserStatus;
 import com.backend.backend.Service.UserStatusService;
 
+// Handlers return CompletableFuture so the servlet thread is released while Firestore works
 @RestController
 @RequestMapping("/api/v1/user-status")
 public class UserStatusController {
@@ -24,49 +26,97 @@ public class UserStatusController {
     @Autowired
     private UserStatusService userStatusService;
 
-    // Get all user statuses
+    // Get all user statuses, or a single page when limit/cursor are given
     @GetMapping("/all")
-    public ResponseEntity<List<UserStatus>> getAllUserStatuses() {
-        return ResponseEntity.ok(userStatusService.getAllUserStatuses());
+    public CompletableFuture<ResponseEntity<?>> getAllUserStatuses(@RequestParam(required = false) Integer limit,
+                                                                   @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return userStatusService.getAllUserStatusesAsync().thenApply(ResponseEntity::ok);
+        }
+        return userStatusService.getUserStatusesPageAsync(limit, cursor).handle((page, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(page);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
     // Get a specific user status by ID
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserStatusById(@PathVariable String id) {
-        Optional<UserStatus> status = userStatusService.getUserStatusById(id);
-        if (status.isPresent()) {
-            return ResponseEntity.ok(status.get());
-        }
-        return ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<?>> getUserStatusById(@PathVariable String id) {
+        return userStatusService.getUserStatusByIdAsync(id).thenApply(status -> {
+            if (status != null) {
+                return ResponseEntity.ok(status);
+            }
+            return ResponseEntity.notFound().build();
+        });
+    }
+
+    // Get many user statuses by id in one call; the body is an array of up to 300 ids
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<?>> getUserStatusesByIds(@RequestBody List<String> ids) {
+        return userStatusService.getUserStatusesByIdsAsync(ids).handle((result, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(result);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
     // Get statuses by user ID
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<UserStatus>> getStatusesByUser(@PathVariable String userId) {
-        return ResponseEntity.ok(userStatusService.getStatusesByUser(userId));
+    public CompletableFuture<ResponseEntity<List<UserStatus>>> getStatusesByUser(@PathVariable String userId) {
+        return userStatusService.getStatusesByUserAsync(userId).thenApply(ResponseEntity::ok);
     }
 
     // Create a new user status
     @PostMapping("/add")
-    public ResponseEntity<UserStatus> createUserStatus(@RequestBody UserStatus userStatus) {
-        return ResponseEntity.ok(userStatusService.createUserStatus(userStatus));
+    public CompletableFuture<ResponseEntity<UserStatus>> createUserStatus(@RequestBody UserStatus userStatus) {
+        return userStatusService.createUserStatusAsync(userStatus).thenApply(ResponseEntity::ok);
+    }
+
+    // Create many user statuses, one result per item
+    @PostMapping("/add/bulk")
+    public CompletableFuture<ResponseEntity<?>> createUserStatuses(@RequestBody List<UserStatus> userStatuses) {
+        return userStatusService.createUserStatusesAsync(userStatuses).handle((results, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(results);
+            }
+            Throwable cause = AsyncResponses.cause(error);
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body("Error: " + cause.getMessage());
+            }
+            throw AsyncResponses.rethrow(cause);
+        });
     }
 
     // Update an existing user status by ID
     @PutMapping("/update/{id}")
-    public ResponseEntity<?> updateUserStatus(@PathVariable String id, @RequestBody UserStatus userStatus) {
-        try {
-            UserStatus updated = userStatusService.updateUserStatus(id, userStatus);
-            return ResponseEntity.ok(updated);
-        } catch (RuntimeException e) {
+    public CompletableFuture<ResponseEntity<?>> updateUserStatus(@PathVariable String id, @RequestBody UserStatus userStatus) {
+        return userStatusService.updateUserStatusAsync(id, userStatus).thenApply(updated -> {
+            if (updated != null) {
+                return ResponseEntity.ok(updated);
+            }
             return ResponseEntity.notFound().build();
-        }
+        });
     }
 
     // Delete a user status by ID
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<?> deleteUserStatus(@PathVariable String id) {
-        userStatusService.deleteUserStatus(id);
-        return ResponseEntity.ok().build();
+    public CompletableFuture<ResponseEntity<?>> deleteUserStatus(@PathVariable String id) {
+        return userStatusService.deleteUserStatusAsync(id).thenApply(deleted -> {
+            if (deleted) {
+                return ResponseEntity.ok().build();
+            }
+            return ResponseEntity.notFound().build();
+        });
     }
 }
@@ -0,0 +1,26 @@
+package com.backend.backend.Model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private int index;          // Position of the item in the request array
+    private boolean success;
+    private String id;          // Id of the created document
+    private String error;       // Why the item wasn't written
+
+    public static BulkItemResult created(int index, String id) {
+        return new BulkItemResult(index, true, id, null);
+    }
+
+    public static BulkItemResult failed(int index, String error) {
+        return new BulkItemResult(index, false, null, error);
+    }
+}
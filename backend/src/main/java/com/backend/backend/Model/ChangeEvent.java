@@ -0,0 +1,17 @@
+package com.backend.backend.Model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEvent<T> {
+    private String type;    // "added", "modified" or "removed" (deleted or no longer in the watched window)
+    private String id;      // Id of the changed document
+    private T data;         // The document after the change, absent when removed
+}
@@ -32,6 +32,13 @@ public class Comment {
         return map;
     }
 
+    // Entry in a post's latestComments preview, which needs the id since it isn't a document
+    public Map<String, Object> toPreviewMap() {
+        Map<String, Object> map = toMap();
+        map.put("id", id);
+        return map;
+    }
+
     // Create from Firestore document
     public static Comment fromMap(String id, Map<String, Object> map) {
         Comment comment = new Comment();
@@ -0,0 +1,15 @@
+package com.backend.backend.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeResult {
+    private String postId;
+    private boolean liked;      // Whether the user likes the post after the operation
+    private long likeCount;     // Total likes on the post after the operation
+    private boolean changed;    // False when the post was already liked or unliked as asked
+}
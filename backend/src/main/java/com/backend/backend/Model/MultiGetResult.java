@@ -0,0 +1,16 @@
+package com.backend.backend.Model;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResult<T> {
+    private Map<String, T> items;   // Found documents keyed by id, in request order
+    private List<String> missing;   // Requested ids with no document
+}
@@ -1,11 +1,16 @@
 package com.backend.backend.Model;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.google.cloud.Timestamp;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,7 +25,13 @@ public class Post {
     private String description;
     private String userImage;
     private LocalDateTime createdAt;
+    private List<String> skills;  // Skill tags, normalized and counted in skillTags; null on a PUT keeps them
     private List<String> likes = new ArrayList<>();  // List of userIds who liked the post
+    private long likeCount;  // Maintained alongside likes so readers don't need the full list
+    private long commentCount;  // Kept in step with the comments collection by comment writes
+    private List<Comment> latestComments = new ArrayList<>();  // Newest few comments, newest first
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean likedByMe;  // Per-viewer flag filled in on reads, never stored
 
     // Constructor to set the timestamp automatically
     public Post(String userId, String username, String description, String userImage) {
@@ -32,6 +43,22 @@ public class Post {
         this.likes = new ArrayList<>();
     }
 
+    // Copy constructor, used when a shared (cached) post gets per-viewer fields
+    public Post(Post other) {
+        this.postId = other.postId;
+        this.userId = other.userId;
+        this.username = other.username;
+        this.description = other.description;
+        this.userImage = other.userImage;
+        this.createdAt = other.createdAt;
+        this.skills = other.skills != null ? new ArrayList<>(other.skills) : null;
+        this.likes = other.likes != null ? new ArrayList<>(other.likes) : null;
+        this.likeCount = other.likeCount;
+        this.commentCount = other.commentCount;
+        this.latestComments = other.latestComments != null ? new ArrayList<>(other.latestComments) : null;
+        this.likedByMe = other.likedByMe;
+    }
+
     // Convert to Firestore map
     public Map<String, Object> toMap() {
         Map<String, Object> map = new HashMap<>();
@@ -40,8 +67,30 @@ public class Post {
         map.put("username", username);
         map.put("description", description);
         map.put("userImage", userImage);
-        map.put("createdAt", createdAt != null ? createdAt.toString() : LocalDateTime.now().toString());
+        map.put("createdAt", toTimestamp(createdAt != null ? createdAt : LocalDateTime.now()));
+        map.put("skills", skills != null ? skills : new ArrayList<>());
         map.put("likes", likes != null ? likes : new ArrayList<>());
+        map.put("likeCount", likeCount);
+        map.put("commentCount", commentCount);
+        List<Map<String, Object>> previews = new ArrayList<>();
+        if (latestComments != null) {
+            for (Comment comment : latestComments) {
+                previews.add(comment.toPreviewMap());
+            }
+        }
+        map.put("latestComments", previews);
+        return map;
+    }
+
+    // Fields a PUT may change, written with a field mask so likes and counters are untouched.
+    // Skills are only replaced when the PUT names them.
+    public Map<String, Object> toUpdateMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("description", description);
+        map.put("userImage", userImage);
+        if (skills != null) {
+            map.put("skills", skills);
+        }
         return map;
     }
 
@@ -54,16 +103,73 @@ public class Post {
         post.setUsername((String) map.get("username"));
         post.setDescription((String) map.get("description"));
         post.setUserImage((String) map.get("userImage"));
-        String createdAtStr = (String) map.get("createdAt");
-        if (createdAtStr != null) {
-            post.setCreatedAt(LocalDateTime.parse(createdAtStr));
-        }
+        post.setCreatedAt(readCreatedAt(map.get("createdAt")));
+        post.setSkills(readSkills(map.get("skills")));
         Object likesObj = map.get("likes");
         if (likesObj instanceof List) {
             post.setLikes((List<String>) likesObj);
         } else {
             post.setLikes(new ArrayList<>());
         }
+        Object likeCountObj = map.get("likeCount");
+        if (likeCountObj instanceof Number) {
+            post.setLikeCount(((Number) likeCountObj).longValue());
+        } else {
+            // Documents written before likeCount existed
+            post.setLikeCount(post.getLikes().size());
+        }
+        Object commentCountObj = map.get("commentCount");
+        if (commentCountObj instanceof Number) {
+            post.setCommentCount(((Number) commentCountObj).longValue());
+        }
+        List<Comment> latestComments = new ArrayList<>();
+        Object previewsObj = map.get("latestComments");
+        if (previewsObj instanceof List) {
+            for (Object preview : (List<Object>) previewsObj) {
+                if (preview instanceof Map) {
+                    Map<String, Object> previewMap = (Map<String, Object>) preview;
+                    latestComments.add(Comment.fromMap((String) previewMap.get("id"), previewMap));
+                }
+            }
+        }
+        post.setLatestComments(latestComments);
         return post;
     }
-}
\ No newline at end of file
+
+    // Documents written before skills existed have none
+    public static List<String> readSkills(Object value) {
+        List<String> skills = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object skill : (List<?>) value) {
+                if (skill instanceof String) {
+                    skills.add((String) skill);
+                }
+            }
+        }
+        return skills;
+    }
+
+    // createdAt is stored as a native Timestamp, so it orders by instant alongside the posts
+    // the web client writes with serverTimestamp(). The LocalDateTime is in the server's zone.
+    public static Timestamp toTimestamp(LocalDateTime createdAt) {
+        Instant instant = createdAt.atZone(ZoneId.systemDefault()).toInstant();
+        return Timestamp.ofTimeSecondsAndNanos(instant.getEpochSecond(), instant.getNano());
+    }
+
+    // Accepts every encoding found in the posts collection: Timestamp, epoch millis,
+    // and the ISO LocalDateTime string older documents were written with
+    public static LocalDateTime readCreatedAt(Object value) {
+        Instant instant;
+        if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            instant = Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+        } else if (value instanceof Number) {
+            instant = Instant.ofEpochMilli(((Number) value).longValue());
+        } else if (value instanceof String) {
+            return LocalDateTime.parse((String) value);
+        } else {
+            return null;
+        }
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,57 @@
+package com.backend.backend.Model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingCheckpoint {
+    private String window;          // Name of the trending window, also the document id
+    private long halfLifeMillis;     // Scores saved under another half-life can't be reused
+    private long epoch;              // Scores are relative to this instant (epoch millis)
+    private long savedAt;
+    private Map<String, Double> scores = new LinkedHashMap<>();  // Post id to score, highest first
+
+    // Ids and scores are kept as two arrays, since post ids aren't safe as field names
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("halfLifeMillis", halfLifeMillis);
+        map.put("epoch", epoch);
+        map.put("savedAt", savedAt);
+        map.put("postIds", new ArrayList<>(scores.keySet()));
+        map.put("scores", new ArrayList<>(scores.values()));
+        return map;
+    }
+
+    public static RankingCheckpoint fromMap(String window, Map<String, Object> map) {
+        RankingCheckpoint checkpoint = new RankingCheckpoint();
+        checkpoint.setWindow(window);
+        checkpoint.setHalfLifeMillis(longValue(map.get("halfLifeMillis")));
+        checkpoint.setEpoch(longValue(map.get("epoch")));
+        checkpoint.setSavedAt(longValue(map.get("savedAt")));
+        Object postIds = map.get("postIds");
+        Object scores = map.get("scores");
+        if (postIds instanceof List && scores instanceof List) {
+            List<?> ids = (List<?>) postIds;
+            List<?> values = (List<?>) scores;
+            for (int i = 0; i < Math.min(ids.size(), values.size()); i++) {
+                if (ids.get(i) instanceof String && values.get(i) instanceof Number) {
+                    checkpoint.getScores().put((String) ids.get(i), ((Number) values.get(i)).doubleValue());
+                }
+            }
+        }
+        return checkpoint;
+    }
+
+    private static long longValue(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
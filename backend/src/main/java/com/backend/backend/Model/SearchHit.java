@@ -0,0 +1,22 @@
+package com.backend.backend.Model;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchHit {
+    private String type;        // "post", "topic" or "status"
+    private String id;          // Id of the matching document in its collection
+    private String userId;      // Author of the document
+    private String title;       // Short text to show for the hit
+    private Date createdAt;
+    private double score;       // BM25 relevance; only comparable within one query
+}
@@ -0,0 +1,15 @@
+package com.backend.backend.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkillCount {
+    private String skill;
+    private long posts;     // Posts currently tagged with the skill
+    private long topics;    // Topics currently tagged with the skill
+    private long count;     // posts + topics, the trending order
+}
@@ -0,0 +1,58 @@
+package com.backend.backend.Model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One item of a topic's learning plan, stored under subtopics.{id} in the topic document
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Subtopic {
+    private String id;           // Unique within its topic, assigned when missing
+    private String title;
+    private String description;
+    private Integer progress;    // Progress percentage (0-100)
+    private Integer position;    // Order in the plan, lowest first
+
+    // The stored values; the id is the key they are stored under
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("title", title);
+        map.put("description", description);
+        map.put("progress", progress != null ? progress : 0);
+        map.put("position", position != null ? position : 0);
+        return map;
+    }
+
+    // The values that are set, as a PATCH writes them
+    public Map<String, Object> toPatchMap() {
+        Map<String, Object> map = new HashMap<>();
+        if (title != null) {
+            map.put("title", title);
+        }
+        if (description != null) {
+            map.put("description", description);
+        }
+        if (progress != null) {
+            map.put("progress", progress);
+        }
+        if (position != null) {
+            map.put("position", position);
+        }
+        return map;
+    }
+
+    public static Subtopic fromMap(String id, Map<String, Object> map) {
+        return new Subtopic(id, (String) map.get("title"), (String) map.get("description"),
+                readInt(map.get("progress")), readInt(map.get("position")));
+    }
+
+    // Firestore returns whole numbers as Long
+    private static Integer readInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+}
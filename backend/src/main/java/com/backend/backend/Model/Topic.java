@@ -1,11 +1,27 @@
 package com.backend.backend.Model;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Date;
+import java.util.List;
 
 public class Topic {
 
+    public static final String SUBTOPICS = "subtopics";
+
+    // Most subtopics in one plan, keeping topic documents small
+    public static final int MAX_SUBTOPICS = 50;
+
+    // Title fields of the plan layout before subtopics, each with a ...Description field
+    private static final String[] PAIRS = {"topicOne", "topicTwo", "topicThree", "topicFour", "topicFive"};
+
+    private static final Comparator<Subtopic> ORDER = Comparator.comparing(Subtopic::getPosition)
+            .thenComparing(Subtopic::getId);
+
     private String id;
     private String userId;  // Firebase User ID
     private Integer progress = 0;  // Progress percentage (0-100)
@@ -19,6 +35,8 @@ public class Topic {
     private String topicFourDescription;
     private String topicFive;
     private String topicFiveDescription;
+    private List<Subtopic> subtopics;  // The plan, stored as a map by id; null on a PUT keeps it
+    private List<String> skills;  // Skill tags, normalized and counted in skillTags; null on a PUT keeps them
     private Date createdAt;
 
     // Default constructor
@@ -47,6 +65,143 @@ public class Topic {
         Map<String, Object> map = new HashMap<>();
         map.put("userId", userId);
         map.put("progress", progress != null ? progress : 0);
+        // Pairs are only written by callers that haven't moved them to subtopics
+        pairsMap().forEach((field, value) -> {
+            if (value != null) {
+                map.put(field, value);
+            }
+        });
+        map.put(SUBTOPICS, subtopicsMap(subtopics != null ? subtopics : List.of()));
+        map.put("skills", skills != null ? skills : new ArrayList<>());
+        map.put("createdAt", createdAt != null ? createdAt.getTime() : new Date().getTime());
+        return map;
+    }
+
+    // Fields a PUT may change; createdAt is kept, and skills and subtopics unless the PUT
+    // names them. A PUT with subtopics clears the pairs of documents in the old layout.
+    public Map<String, Object> toUpdateMap() {
+        Map<String, Object> map = toMap();
+        map.remove("createdAt");
+        if (skills == null) {
+            map.remove("skills");
+        }
+        if (subtopics == null) {
+            map.remove(SUBTOPICS);
+        } else {
+            clearPairs(map);
+        }
+        return map;
+    }
+
+    // Subtopics by id, the form they are stored in
+    public static Map<String, Object> subtopicsMap(Collection<Subtopic> subtopics) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Subtopic subtopic : subtopics) {
+            map.put(subtopic.getId(), subtopic.toMap());
+        }
+        return map;
+    }
+
+    // The plan in order. Documents written before subtopics hold it in topicOne to
+    // topicFive, read as subtopics "1" to "5" with no progress.
+    @SuppressWarnings("unchecked")
+    public static List<Subtopic> readSubtopics(Map<String, Object> document) {
+        List<Subtopic> subtopics = new ArrayList<>();
+        Object stored = document.get(SUBTOPICS);
+        if (stored instanceof Map) {
+            ((Map<String, Object>) stored).forEach((id, value) -> {
+                if (value instanceof Map) {
+                    subtopics.add(Subtopic.fromMap(id, (Map<String, Object>) value));
+                }
+            });
+            subtopics.sort(ORDER);
+            return subtopics;
+        }
+        for (int i = 0; i < PAIRS.length; i++) {
+            String title = (String) document.get(PAIRS[i]);
+            String description = (String) document.get(PAIRS[i] + "Description");
+            if (title != null || description != null) {
+                subtopics.add(new Subtopic(String.valueOf(i + 1), title, description, 0, i + 1));
+            }
+        }
+        return subtopics;
+    }
+
+    // Null out the pair fields, for writes that move a document to subtopics
+    public static void clearPairs(Map<String, Object> fields) {
+        for (String pair : PAIRS) {
+            fields.put(pair, null);
+            fields.put(pair + "Description", null);
+        }
+    }
+
+    // One more than the highest numeric id, so new ids follow the pairs' "1" to "5"
+    public static String nextSubtopicId(Collection<Subtopic> subtopics) {
+        long highest = 0;
+        for (Subtopic subtopic : subtopics) {
+            if (subtopic.getId() != null && subtopic.getId().matches("\\d{1,9}")) {
+                highest = Math.max(highest, Long.parseLong(subtopic.getId()));
+            }
+        }
+        return String.valueOf(highest + 1);
+    }
+
+    // Turn the pairs of a request in the old layout into subtopics "1" to "5", unless it
+    // sends subtopics itself. The pairs are cleared either way.
+    public void movePairsToSubtopics() {
+        List<Subtopic> fromPairs = readSubtopics(pairsMap());
+        if (subtopics == null && !fromPairs.isEmpty()) {
+            subtopics = fromPairs;
+        }
+        topicOne = topicOneDescription = topicTwo = topicTwoDescription = topicThree = null;
+        topicThreeDescription = topicFour = topicFourDescription = topicFive = topicFiveDescription = null;
+    }
+
+    // The subtopic with the given id, or null
+    public Subtopic findSubtopic(String subtopicId) {
+        for (Subtopic subtopic : subtopics) {
+            if (subtopic.getId().equals(subtopicId)) {
+                return subtopic;
+            }
+        }
+        return null;
+    }
+
+    // Set some values of a subtopic; false when it doesn't exist
+    public boolean updateSubtopic(String subtopicId, Map<String, Object> values) {
+        Subtopic subtopic = findSubtopic(subtopicId);
+        if (subtopic == null) {
+            return false;
+        }
+        Map<String, Object> merged = subtopic.toMap();
+        merged.putAll(values);
+        subtopics.set(subtopics.indexOf(subtopic), Subtopic.fromMap(subtopicId, merged));
+        subtopics.sort(ORDER);
+        return true;
+    }
+
+    // Append a subtopic, giving it the next id; an IllegalArgumentException when the plan is full
+    public Subtopic addSubtopic(Subtopic subtopic) {
+        if (subtopics.size() >= MAX_SUBTOPICS) {
+            throw new IllegalArgumentException("A topic can have at most " + MAX_SUBTOPICS + " subtopics");
+        }
+        int last = subtopics.isEmpty() ? 0 : subtopics.get(subtopics.size() - 1).getPosition();
+        subtopic.setId(nextSubtopicId(subtopics));
+        subtopic.setPosition(last + 1);
+        if (subtopic.getProgress() == null) {
+            subtopic.setProgress(0);
+        }
+        subtopics.add(subtopic);
+        return subtopic;
+    }
+
+    // False when the subtopic doesn't exist
+    public boolean removeSubtopic(String subtopicId) {
+        return subtopics.removeIf(subtopic -> subtopic.getId().equals(subtopicId));
+    }
+
+    private Map<String, Object> pairsMap() {
+        Map<String, Object> map = new HashMap<>();
         map.put("topicOne", topicOne);
         map.put("topicOneDescription", topicOneDescription);
         map.put("topicTwo", topicTwo);
@@ -57,7 +212,6 @@ public class Topic {
         map.put("topicFourDescription", topicFourDescription);
         map.put("topicFive", topicFive);
         map.put("topicFiveDescription", topicFiveDescription);
-        map.put("createdAt", createdAt != null ? createdAt.getTime() : new Date().getTime());
         return map;
     }
 
@@ -84,6 +238,8 @@ public class Topic {
         topic.setTopicFourDescription((String) map.get("topicFourDescription"));
         topic.setTopicFive((String) map.get("topicFive"));
         topic.setTopicFiveDescription((String) map.get("topicFiveDescription"));
+        topic.setSubtopics(readSubtopics(map));
+        topic.setSkills(Post.readSkills(map.get("skills")));
         Object createdAtObj = map.get("createdAt");
         if (createdAtObj instanceof Long) {
             topic.setCreatedAt(new Date((Long) createdAtObj));
@@ -200,6 +356,22 @@ public class Topic {
         this.topicFiveDescription = topicFiveDescription;
     }
 
+    public List<Subtopic> getSubtopics() {
+        return subtopics;
+    }
+
+    public void setSubtopics(List<Subtopic> subtopics) {
+        this.subtopics = subtopics;
+    }
+
+    public List<String> getSkills() {
+        return skills;
+    }
+
+    public void setSkills(List<String> skills) {
+        this.skills = skills;
+    }
+
     public Date getCreatedAt() {
         return createdAt;
     }
@@ -224,6 +396,8 @@ public class Topic {
                 ", topicFourDescription='" + topicFourDescription + '\'' +
                 ", topicFive='" + topicFive + '\'' +
                 ", topicFiveDescription='" + topicFiveDescription + '\'' +
+                ", subtopics=" + subtopics +
+                ", skills=" + skills +
                 ", createdAt=" + createdAt +
                 '}';
     }
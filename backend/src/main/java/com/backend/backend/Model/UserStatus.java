@@ -30,6 +30,13 @@ public class UserStatus {
         return map;
     }
 
+    // Fields a PUT may change; createdAt is kept
+    public Map<String, Object> toUpdateMap() {
+        Map<String, Object> map = toMap();
+        map.remove("createdAt");
+        return map;
+    }
+
     // Create from Firestore document
     public static UserStatus fromMap(String id, Map<String, Object> map) {
         UserStatus status = new UserStatus();
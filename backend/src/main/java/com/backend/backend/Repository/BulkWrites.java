@@ -0,0 +1,26 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.backend.backend.Model.BulkItemResult;
+
+final class BulkWrites {
+
+    private BulkWrites() {
+    }
+
+    // One create per item, recording each outcome instead of stopping at the first failure
+    static <T> List<BulkItemResult> each(List<T> items, Function<T, String> create) {
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                results.add(BulkItemResult.created(i, create.apply(items.get(i))));
+            } catch (RuntimeException e) {
+                results.add(BulkItemResult.failed(i, e.getMessage()));
+            }
+        }
+        return results;
+    }
+}
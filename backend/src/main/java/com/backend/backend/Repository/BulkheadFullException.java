@@ -0,0 +1,13 @@
+package com.backend.backend.Repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a collection's Firestore bulkhead has no free slot within the wait limit
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String collection) {
+        super("Too many concurrent Firestore requests for " + collection);
+    }
+}
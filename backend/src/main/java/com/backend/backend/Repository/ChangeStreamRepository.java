@@ -0,0 +1,32 @@
+package com.backend.backend.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.backend.backend.Model.ChangeEvent;
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Post;
+
+// Live change feeds over hot queries. Each call registers one listener and returns the
+// Runnable that stops it. Only changes after registration are delivered, never the
+// query's initial results, and the sink must not block.
+public interface ChangeStreamRepository {
+
+    // The newest posts, limited to a window
+    Runnable listenToLatestPosts(int window, ChangeSink<Post> sink);
+
+    // All comments on one post
+    Runnable listenToComments(String postId, ChangeSink<Comment> sink);
+
+    // Posts created at or after since. Unlike the other feeds this one starts with the
+    // posts already matching, delivered as "added"; "removed" means deleted.
+    Runnable listenToPostsSince(LocalDateTime since, ChangeSink<Post> sink);
+
+    interface ChangeSink<T> {
+
+        void onChanges(List<ChangeEvent<T>> changes);
+
+        // The listener failed and delivers nothing more
+        void onError(Throwable error);
+    }
+}
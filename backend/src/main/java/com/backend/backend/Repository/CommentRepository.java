@@ -0,0 +1,82 @@
+package com.backend.backend.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Page;
+
+// Async variants default to running the blocking call inline, which suits engines
+// that never wait on I/O; Firestore overrides them with non-blocking versions.
+public interface CommentRepository {
+
+    int STREAM_PAGE_SIZE = 200;
+
+    // Store a new comment and assign its id. The post's commentCount and latestComments
+    // are updated in the same atomic step, as they are by update and deleteById.
+    Comment create(Comment comment);
+
+    Optional<Comment> findById(String commentId);
+
+    // Comments on a post, newest first
+    List<Comment> findByPostId(String postId);
+
+    Page<Comment> findByPostId(String postId, int pageSize, String cursor);
+
+    // Write only the given fields; returns the comment as written, empty when it doesn't exist
+    Optional<Comment> update(String commentId, Map<String, Object> fields);
+
+    // Returns the deleted comment, empty when it doesn't exist
+    Optional<Comment> deleteById(String commentId);
+
+    // Create many at once, reporting success or failure per item in request order
+    default List<BulkItemResult> createAll(List<Comment> comments) {
+        return BulkWrites.each(comments, comment -> create(comment).getId());
+    }
+
+    default CompletableFuture<Comment> createAsync(Comment comment) {
+        return CompletableFuture.supplyAsync(() -> create(comment), Runnable::run);
+    }
+
+    default CompletableFuture<Optional<Comment>> findByIdAsync(String commentId) {
+        return CompletableFuture.supplyAsync(() -> findById(commentId), Runnable::run);
+    }
+
+    default CompletableFuture<List<Comment>> findByPostIdAsync(String postId) {
+        return CompletableFuture.supplyAsync(() -> findByPostId(postId), Runnable::run);
+    }
+
+    default CompletableFuture<Page<Comment>> findByPostIdAsync(String postId, int pageSize, String cursor) {
+        return CompletableFuture.supplyAsync(() -> findByPostId(postId, pageSize, cursor), Runnable::run);
+    }
+
+    // Hand each comment on a post to the consumer as it is read, newest first, without
+    // collecting them. Completes when every comment was delivered or the consumer threw.
+    // The default walks the post page by page.
+    default CompletableFuture<Void> streamByPostIdAsync(String postId, Consumer<Comment> consumer) {
+        return CompletableFuture.runAsync(() -> {
+            String cursor = null;
+            do {
+                Page<Comment> page = findByPostId(postId, STREAM_PAGE_SIZE, cursor);
+                page.getItems().forEach(consumer);
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        }, Runnable::run);
+    }
+
+    default CompletableFuture<Optional<Comment>> updateAsync(String commentId, Map<String, Object> fields) {
+        return CompletableFuture.supplyAsync(() -> update(commentId, fields), Runnable::run);
+    }
+
+    default CompletableFuture<Optional<Comment>> deleteByIdAsync(String commentId) {
+        return CompletableFuture.supplyAsync(() -> deleteById(commentId), Runnable::run);
+    }
+
+    default CompletableFuture<List<BulkItemResult>> createAllAsync(List<Comment> comments) {
+        return CompletableFuture.supplyAsync(() -> createAll(comments), Runnable::run);
+    }
+}
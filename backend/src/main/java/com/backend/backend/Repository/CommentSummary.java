@@ -0,0 +1,133 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.backend.backend.Model.Comment;
+
+/**
+ * Computes the commentCount and latestComments fields a post carries, so a feed can show
+ * comment totals and a preview without one comments query per post. Both engines apply
+ * these inside the same atomic step as the comment write itself.
+ *
+ * Posts written before these fields existed carry neither. The first comment write on
+ * such a post reads all of its comments in the same step and computes both from
+ * scratch, so the count starts from the real total instead of zero.
+ */
+final class CommentSummary {
+
+    static final String COUNT_FIELD = "commentCount";
+    static final String PREVIEW_FIELD = "latestComments";
+
+    private CommentSummary() {
+    }
+
+    // Whether the post already carries a comment count to adjust
+    static boolean isSummarized(Map<String, Object> post) {
+        return post.get(COUNT_FIELD) instanceof Number;
+    }
+
+    // Post fields after the given comments were added
+    static Map<String, Object> afterAdd(Map<String, Object> post, List<Comment> added, int previewSize) {
+        List<Map<String, Object>> preview = new ArrayList<>(previewOf(post));
+        for (Comment comment : added) {
+            preview.add(comment.toPreviewMap());
+        }
+        return fields(countOf(post) + added.size(), newest(preview, previewSize));
+    }
+
+    // Post fields computed from all of its comments, for a post that isn't summarized yet.
+    // stored are the comments read in the same step, added those being written (they may
+    // already be among stored) and removedId a comment being deleted, or null.
+    static Map<String, Object> rebuilt(List<Comment> stored, List<Comment> added, String removedId, int previewSize) {
+        Map<String, Map<String, Object>> comments = new LinkedHashMap<>();
+        for (Comment comment : stored) {
+            comments.put(comment.getId(), comment.toPreviewMap());
+        }
+        for (Comment comment : added) {
+            comments.put(comment.getId(), comment.toPreviewMap());
+        }
+        if (removedId != null) {
+            comments.remove(removedId);
+        }
+        return fields(comments.size(), newest(new ArrayList<>(comments.values()), previewSize));
+    }
+
+    static boolean inPreview(Map<String, Object> post, String commentId) {
+        for (Map<String, Object> entry : previewOf(post)) {
+            if (commentId.equals(entry.get("id"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Post fields after a comment was removed. When it was in the preview, latest holds the
+    // newest comments on the post (it may still include the removed one) to refill it from.
+    static Map<String, Object> afterRemove(Map<String, Object> post, String commentId,
+                                           List<Comment> latest, int previewSize) {
+        List<Map<String, Object>> preview = new ArrayList<>();
+        if (latest != null) {
+            for (Comment comment : latest) {
+                if (!commentId.equals(comment.getId()) && preview.size() < previewSize) {
+                    preview.add(comment.toPreviewMap());
+                }
+            }
+        } else {
+            preview.addAll(previewOf(post));
+        }
+        return fields(Math.max(0, countOf(post) - 1), preview);
+    }
+
+    // Post fields after a comment's text changed; the count is untouched
+    static Map<String, Object> afterEdit(Map<String, Object> post, String commentId, Map<String, Object> changes) {
+        List<Map<String, Object>> preview = new ArrayList<>();
+        for (Map<String, Object> entry : previewOf(post)) {
+            if (commentId.equals(entry.get("id"))) {
+                entry = new HashMap<>(entry);
+                entry.putAll(changes);
+            }
+            preview.add(entry);
+        }
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(PREVIEW_FIELD, preview);
+        return fields;
+    }
+
+    private static List<Map<String, Object>> newest(List<Map<String, Object>> preview, int previewSize) {
+        preview.sort((a, b) -> {
+            int order = InMemoryCollection.compareValues(b.get("createdAt"), a.get("createdAt"));
+            return order != 0 ? order : String.valueOf(b.get("id")).compareTo(String.valueOf(a.get("id")));
+        });
+        return preview.subList(0, Math.min(previewSize, preview.size()));
+    }
+
+    private static Map<String, Object> fields(long count, List<Map<String, Object>> preview) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(COUNT_FIELD, count);
+        fields.put(PREVIEW_FIELD, new ArrayList<>(preview));
+        return fields;
+    }
+
+    private static long countOf(Map<String, Object> post) {
+        Object count = post.get(COUNT_FIELD);
+        return count instanceof Number ? ((Number) count).longValue() : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> previewOf(Map<String, Object> post) {
+        List<Map<String, Object>> preview = new ArrayList<>();
+        Object value = post.get(PREVIEW_FIELD);
+        if (value instanceof List) {
+            for (Object entry : (List<Object>) value) {
+                if (entry instanceof Map) {
+                    preview.add((Map<String, Object>) entry);
+                }
+            }
+        }
+        return preview;
+    }
+}
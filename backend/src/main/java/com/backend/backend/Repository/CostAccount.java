@@ -0,0 +1,7 @@
+package com.backend.backend.Repository;
+
+// Receives the billed Firestore reads and writes of the calls made on behalf of one request
+public interface CostAccount {
+
+    void charge(long reads, long writes);
+}
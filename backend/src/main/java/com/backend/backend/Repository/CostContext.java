@@ -0,0 +1,59 @@
+package com.backend.backend.Repository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * The {@link CostAccount} of the request being handled on the current thread. Firestore
+ * calls capture it when issued, and their results are completed with it set again, so
+ * calls chained onto a result are charged to the same request whichever thread runs them.
+ */
+public final class CostContext {
+
+    private static final ThreadLocal<CostAccount> CURRENT = new ThreadLocal<>();
+
+    private CostContext() {
+    }
+
+    public static CostAccount current() {
+        return CURRENT.get();
+    }
+
+    public static void set(CostAccount account) {
+        CURRENT.set(account);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Run with the account current, restoring whatever was current before
+    public static <T> T callWith(CostAccount account, Supplier<T> work) {
+        CostAccount previous = CURRENT.get();
+        CURRENT.set(account);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    // A future completed like the given one, but with the account current while its
+    // dependent stages run. Cancelling it cancels the original.
+    static <T> CompletableFuture<T> propagate(CompletableFuture<T> future, CostAccount account) {
+        CompletableFuture<T> propagated = new CompletableFuture<T>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                future.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        future.whenComplete((value, error) -> callWith(account,
+                () -> error != null ? propagated.completeExceptionally(error) : propagated.complete(value)));
+        return propagated;
+    }
+}
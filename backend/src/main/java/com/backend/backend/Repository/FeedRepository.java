@@ -0,0 +1,63 @@
+package com.backend.backend.Repository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+
+// Per-user home timelines holding references to posts, newest first.
+// Async variants default to running the blocking call inline, which suits engines
+// that never wait on I/O; Firestore overrides them with non-blocking versions.
+public interface FeedRepository {
+
+    // Users whose home feed shows the author's posts: followers and connections
+    Set<String> findAudience(String authorId);
+
+    // Users whose posts appear in the user's home feed: followed users and connections
+    Set<String> findSources(String userId);
+
+    // Of the given authors, those whose posts are merged into feeds at read time
+    Set<String> findFanOutOnReadAuthors(Collection<String> authorIds);
+
+    // Stop fanning out the author's posts and merge them in at read time instead
+    void markFanOutOnRead(String authorId);
+
+    // Add a reference to the post to each user's timeline
+    void append(Collection<String> userIds, Post post);
+
+    // A page of post ids from the user's timeline, newest first
+    Page<String> findTimeline(String userId, int pageSize, String cursor);
+
+    // Drop references from the user's timeline
+    void remove(String userId, Collection<String> postIds);
+
+    default CompletableFuture<Set<String>> findAudienceAsync(String authorId) {
+        return CompletableFuture.supplyAsync(() -> findAudience(authorId), Runnable::run);
+    }
+
+    default CompletableFuture<Set<String>> findSourcesAsync(String userId) {
+        return CompletableFuture.supplyAsync(() -> findSources(userId), Runnable::run);
+    }
+
+    default CompletableFuture<Set<String>> findFanOutOnReadAuthorsAsync(Collection<String> authorIds) {
+        return CompletableFuture.supplyAsync(() -> findFanOutOnReadAuthors(authorIds), Runnable::run);
+    }
+
+    default CompletableFuture<Void> markFanOutOnReadAsync(String authorId) {
+        return CompletableFuture.runAsync(() -> markFanOutOnRead(authorId), Runnable::run);
+    }
+
+    default CompletableFuture<Void> appendAsync(Collection<String> userIds, Post post) {
+        return CompletableFuture.runAsync(() -> append(userIds, post), Runnable::run);
+    }
+
+    default CompletableFuture<Page<String>> findTimelineAsync(String userId, int pageSize, String cursor) {
+        return CompletableFuture.supplyAsync(() -> findTimeline(userId, pageSize, cursor), Runnable::run);
+    }
+
+    default CompletableFuture<Void> removeAsync(String userId, Collection<String> postIds) {
+        return CompletableFuture.runAsync(() -> remove(userId, postIds), Runnable::run);
+    }
+}
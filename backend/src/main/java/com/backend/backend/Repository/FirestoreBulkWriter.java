@@ -0,0 +1,128 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.backend.backend.Model.BulkItemResult;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteResult;
+
+/**
+ * Creates many documents through a BulkWriter, which batches the writes and ramps up
+ * its rate the way Firestore asks for (500/50/5). Items are enqueued and flushed in
+ * chunks of the 500-operation batch limit, each chunk holding one bulkhead slot.
+ */
+final class FirestoreBulkWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(FirestoreBulkWriter.class);
+
+    static final int MAX_OPERATIONS = 500;
+
+    private FirestoreBulkWriter() {
+    }
+
+    static CompletableFuture<List<BulkItemResult>> create(Firestore firestore, FirestoreBulkhead bulkhead,
+                                                          String collection, List<Map<String, Object>> documents) {
+        BulkWriter writer = firestore.bulkWriter();
+        List<CompletableFuture<BulkItemResult>> results = new ArrayList<>(documents.size());
+        CompletableFuture<Void> flushed = CompletableFuture.completedFuture(null);
+        for (int start = 0; start < documents.size(); start += MAX_OPERATIONS) {
+            int from = start;
+            int to = Math.min(start + MAX_OPERATIONS, documents.size());
+            flushed = flushed.thenCompose(previous -> bulkhead.call(collection, FirestoreOperation.BULK,
+                    documents.subList(from, to), () -> {
+                        for (int i = from; i < to; i++) {
+                            results.add(enqueue(writer, firestore.collection(collection).document(), documents.get(i), i));
+                        }
+                        return writer.flush();
+                    }));
+        }
+        return flushed
+                .thenCompose(done -> CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).toList())
+                .whenComplete((written, error) -> close(writer));
+    }
+
+    // Write the same document to every target, e.g. one entry per feed timeline. Fails if any write does.
+    static CompletableFuture<Void> setAll(Firestore firestore, FirestoreBulkhead bulkhead, String collection,
+                                          List<DocumentReference> targets, Map<String, Object> document) {
+        BulkWriter writer = firestore.bulkWriter();
+        List<CompletableFuture<WriteResult>> results = new ArrayList<>(targets.size());
+        CompletableFuture<Void> flushed = CompletableFuture.completedFuture(null);
+        for (int start = 0; start < targets.size(); start += MAX_OPERATIONS) {
+            List<DocumentReference> chunk = targets.subList(start, Math.min(start + MAX_OPERATIONS, targets.size()));
+            flushed = flushed.thenCompose(previous -> bulkhead.call(collection, FirestoreOperation.BULK,
+                    Collections.nCopies(chunk.size(), document), () -> {
+                        for (DocumentReference target : chunk) {
+                            results.add(FirestoreFutures.toCompletableFuture(writer.set(target, document)));
+                        }
+                        return writer.flush();
+                    }));
+        }
+        return flushed
+                .thenCompose(done -> CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])))
+                .whenComplete((written, error) -> close(writer));
+    }
+
+    // Field-masked updates of existing documents, by id. BulkWriter.update fails with NOT_FOUND
+    // for a missing document, so this completes with whether each one existed; fails if any
+    // write fails for another reason.
+    static CompletableFuture<Map<String, Boolean>> updateAll(Firestore firestore, FirestoreBulkhead bulkhead, String collection,
+                                                             Map<String, Map<String, Object>> updates) {
+        BulkWriter writer = firestore.bulkWriter();
+        List<Map.Entry<String, Map<String, Object>>> entries = new ArrayList<>(updates.entrySet());
+        Map<String, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+        CompletableFuture<Void> flushed = CompletableFuture.completedFuture(null);
+        for (int start = 0; start < entries.size(); start += MAX_OPERATIONS) {
+            List<Map.Entry<String, Map<String, Object>>> chunk = entries.subList(start, Math.min(start + MAX_OPERATIONS, entries.size()));
+            flushed = flushed.thenCompose(previous -> bulkhead.call(collection, FirestoreOperation.BULK,
+                    chunk.stream().map(Map.Entry::getValue).toList(), () -> {
+                        for (Map.Entry<String, Map<String, Object>> update : chunk) {
+                            results.put(update.getKey(), FirestoreFutures.ifExists(FirestoreFutures.toCompletableFuture(
+                                    writer.update(firestore.collection(collection).document(update.getKey()),
+                                            update.getValue()))));
+                        }
+                        return writer.flush();
+                    }));
+        }
+        return flushed
+                .thenCompose(done -> CompletableFuture.allOf(results.values().toArray(new CompletableFuture<?>[0])))
+                .thenApply(done -> {
+                    Map<String, Boolean> existed = new LinkedHashMap<>();
+                    results.forEach((id, result) -> existed.put(id, result.join()));
+                    return existed;
+                })
+                .whenComplete((written, error) -> close(writer));
+    }
+
+    // Every write has completed by now, so close only releases the writer; a failure here
+    // has already been reported through the write's own future
+    static void close(BulkWriter writer) {
+        try {
+            writer.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while closing a BulkWriter", e);
+        } catch (ExecutionException e) {
+            log.warn("Could not close a BulkWriter", e.getCause());
+        }
+    }
+
+    private static CompletableFuture<BulkItemResult> enqueue(BulkWriter writer, DocumentReference docRef,
+                                                             Map<String, Object> document, int index) {
+        return FirestoreFutures.toCompletableFuture(writer.create(docRef, document))
+                .handle((result, error) -> error == null
+                        ? BulkItemResult.created(index, docRef.getId())
+                        : BulkItemResult.failed(index, FirestoreFutures.unwrap(error).getMessage()));
+    }
+}
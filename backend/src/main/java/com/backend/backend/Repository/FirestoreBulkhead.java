@@ -0,0 +1,157 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.google.api.core.ApiFuture;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Caps concurrent Firestore RPCs per collection so one slow collection can't take
+ * every connection. Callers over the limit wait up to firestore.bulkhead.max-wait-ms
+ * for a slot and then fail with {@link BulkheadFullException}.
+ *
+ * With spring.threads.virtual.enabled each RPC is issued and awaited on its own virtual
+ * thread; otherwise slots are handed over through callbacks and nothing blocks.
+ * Every RPC and slot wait is recorded by {@link FirestoreMetrics}, and its cost is
+ * charged to the request's {@link CostContext} account.
+ */
+@Component
+@Profile("!inmemory")
+class FirestoreBulkhead {
+
+    @Value("${firestore.bulkhead.max-concurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${firestore.bulkhead.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private FirestoreMetrics metrics;
+
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    private final ExecutorService virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Issue an RPC against a collection once a slot is free
+    <T> CompletableFuture<T> call(String collection, FirestoreOperation operation, Supplier<ApiFuture<T>> rpc) {
+        return call(collection, operation, null, rpc);
+    }
+
+    // Same, for writes whose documents are known up front so their count and size are recorded
+    <T> CompletableFuture<T> call(String collection, FirestoreOperation operation,
+                                  List<Map<String, Object>> written, Supplier<ApiFuture<T>> untimed) {
+        CostAccount account = CostContext.current();
+        CompletableFuture<T> result = issue(collection, metrics.instrument(collection, operation, written, account, untimed));
+        return account != null ? CostContext.propagate(result, account) : result;
+    }
+
+    private <T> CompletableFuture<T> issue(String collection, Supplier<ApiFuture<T>> rpc) {
+        Compartment compartment = compartments.computeIfAbsent(collection, name -> new Compartment());
+        if (virtualThreads) {
+            return CompletableFuture.supplyAsync(() -> {
+                awaitSlot(compartment, collection);
+                try {
+                    return rpc.get().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted waiting for Firestore", e);
+                } catch (ExecutionException e) {
+                    throw new CompletionException(e.getCause());
+                } finally {
+                    compartment.release();
+                }
+            }, virtualExecutor);
+        }
+        return slot(compartment, collection).thenCompose(acquired -> FirestoreFutures.call(rpc)
+                .whenComplete((result, error) -> compartment.release()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        virtualExecutor.shutdown();
+    }
+
+    private CompletableFuture<Void> slot(Compartment compartment, String collection) {
+        long queued = System.nanoTime();
+        return compartment.acquire()
+                .orTimeout(maxWaitMs, TimeUnit.MILLISECONDS)
+                .whenComplete((acquired, error) -> metrics.recordWait(collection, System.nanoTime() - queued, error == null))
+                .exceptionallyCompose(error -> FirestoreFutures.unwrap(error) instanceof TimeoutException
+                        ? CompletableFuture.failedFuture(new BulkheadFullException(collection))
+                        : CompletableFuture.failedFuture(error));
+    }
+
+    // Parking a virtual thread here is cheap, so the blocking form is used in that mode
+    private void awaitSlot(Compartment compartment, String collection) {
+        try {
+            slot(compartment, collection).join();
+        } catch (CompletionException e) {
+            Throwable cause = FirestoreFutures.unwrap(e);
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
+
+    // Counting semaphore whose waiters are futures, so a released slot is handed
+    // straight to the next caller still waiting and timed-out waiters are skipped
+    private final class Compartment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int active;
+
+        CompletableFuture<Void> acquire() {
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            lock.lock();
+            try {
+                if (active < maxConcurrent) {
+                    active++;
+                    return CompletableFuture.completedFuture(null);
+                }
+                waiters.add(waiter);
+            } finally {
+                lock.unlock();
+            }
+            return waiter;
+        }
+
+        void release() {
+            while (true) {
+                CompletableFuture<Void> next;
+                lock.lock();
+                try {
+                    next = waiters.poll();
+                    if (next == null) {
+                        active--;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (next.complete(null)) {
+                    return;
+                }
+            }
+        }
+    }
+}
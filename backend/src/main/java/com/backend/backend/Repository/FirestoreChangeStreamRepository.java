@@ -0,0 +1,81 @@
+package com.backend.backend.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.ChangeEvent;
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Post;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+
+/**
+ * Snapshot listeners forwarding only the DocumentChanges of each snapshot after the
+ * first, which is the query's current result set; listenToPostsSince forwards the first
+ * one too.
+ */
+@Repository
+@Profile("!inmemory")
+public class FirestoreChangeStreamRepository implements ChangeStreamRepository {
+
+    private static final String POSTS_COLLECTION = "posts";
+    private static final String COMMENTS_COLLECTION = "comments";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Override
+    public Runnable listenToLatestPosts(int window, ChangeSink<Post> sink) {
+        // New posts always have a Timestamp; legacy string values would sort above them
+        return listen(firestore.collection(POSTS_COLLECTION)
+                .whereGreaterThanOrEqualTo("createdAt", Timestamp.MIN_VALUE)
+                .orderBy("createdAt", Query.Direction.DESCENDING)
+                .limit(window), Post::fromMap, true, sink);
+    }
+
+    @Override
+    public Runnable listenToComments(String postId, ChangeSink<Comment> sink) {
+        return listen(firestore.collection(COMMENTS_COLLECTION).whereEqualTo("postId", postId), Comment::fromMap, true, sink);
+    }
+
+    @Override
+    public Runnable listenToPostsSince(LocalDateTime since, ChangeSink<Post> sink) {
+        return listen(firestore.collection(POSTS_COLLECTION)
+                .whereGreaterThanOrEqualTo("createdAt", Post.toTimestamp(since)), Post::fromMap, false, sink);
+    }
+
+    private <T> Runnable listen(Query query, BiFunction<String, Map<String, Object>, T> mapper,
+                                boolean skipInitial, ChangeSink<T> sink) {
+        AtomicBoolean initial = new AtomicBoolean(skipInitial);
+        ListenerRegistration registration = query.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                sink.onError(error);
+                return;
+            }
+            if (initial.getAndSet(false)) {
+                return;
+            }
+            List<ChangeEvent<T>> changes = new ArrayList<>();
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                QueryDocumentSnapshot document = change.getDocument();
+                T data = change.getType() == DocumentChange.Type.REMOVED
+                        ? null
+                        : mapper.apply(document.getId(), document.getData());
+                changes.add(new ChangeEvent<>(change.getType().name().toLowerCase(Locale.ROOT), document.getId(), data));
+            }
+            if (!changes.isEmpty()) {
+                sink.onChanges(changes);
+            }
+        });
+        return registration::remove;
+    }
+}
@@ -0,0 +1,303 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Page;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ApiStreamObserver;
+import com.google.cloud.firestore.*;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Single-comment writes run as transactions that also update the post's commentCount
+ * and latestComments, so the two can't drift apart. Transactions read the comment and
+ * the post first and only then write, as Firestore requires.
+ */
+@Repository
+@Profile("!inmemory")
+public class FirestoreCommentRepository implements CommentRepository {
+
+    private static final String COLLECTION_NAME = "comments";
+    private static final String POSTS_COLLECTION = "posts";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Autowired
+    private FirestoreMetrics metrics;
+
+    @Value("${posts.comments.preview-size:3}")
+    private int previewSize;
+
+    @Override
+    public Comment create(Comment comment) {
+        return FirestoreFutures.await(createAsync(comment), "Error adding comment");
+    }
+
+    @Override
+    public Optional<Comment> findById(String commentId) {
+        return FirestoreFutures.await(findByIdAsync(commentId), "Error getting comment");
+    }
+
+    @Override
+    public List<Comment> findByPostId(String postId) {
+        return FirestoreFutures.await(findByPostIdAsync(postId), "Error getting comments");
+    }
+
+    @Override
+    public Page<Comment> findByPostId(String postId, int pageSize, String cursor) {
+        return FirestoreFutures.await(findByPostIdAsync(postId, pageSize, cursor), "Error getting comments page");
+    }
+
+    @Override
+    public Optional<Comment> update(String commentId, Map<String, Object> fields) {
+        return FirestoreFutures.await(updateAsync(commentId, fields), "Error updating comment");
+    }
+
+    @Override
+    public Optional<Comment> deleteById(String commentId) {
+        return FirestoreFutures.await(deleteByIdAsync(commentId), "Error deleting comment");
+    }
+
+    @Override
+    public List<BulkItemResult> createAll(List<Comment> comments) {
+        return FirestoreFutures.await(createAllAsync(comments), "Error creating comments");
+    }
+
+    @Override
+    public CompletableFuture<Comment> createAsync(Comment comment) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document();
+        comment.setId(docRef.getId());
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                ApiFutures.transformAsync(readPost(transaction, comment.getPostId()), post ->
+                        ApiFutures.transform(readUnsummarized(transaction, post), stored -> {
+                            transaction.set(docRef, comment.toMap());
+                            if (post != null && post.exists()) {
+                                transaction.update(post.getReference(), stored != null
+                                        ? CommentSummary.rebuilt(stored, List.of(comment), null, previewSize)
+                                        : CommentSummary.afterAdd(post.getData(), List.of(comment), previewSize));
+                            }
+                            return comment;
+                        }, MoreExecutors.directExecutor()), MoreExecutors.directExecutor())));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Comment>> findByIdAsync(String commentId) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.GET, () -> firestore.collection(COLLECTION_NAME).document(commentId).get())
+                .thenApply(document -> document.exists()
+                        ? Optional.of(Comment.fromMap(document.getId(), document.getData()))
+                        : Optional.empty());
+    }
+
+    @Override
+    public CompletableFuture<List<Comment>> findByPostIdAsync(String postId) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> firestore.collection(COLLECTION_NAME)
+                        .whereEqualTo("postId", postId)
+                        .orderBy("createdAt", Query.Direction.DESCENDING)
+                        .get())
+                .thenApply(snapshot -> toComments(snapshot.getDocuments()));
+    }
+
+    @Override
+    public CompletableFuture<Page<Comment>> findByPostIdAsync(String postId, int pageSize, String cursor) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> PageCursor.apply(
+                        firestore.collection(COLLECTION_NAME).whereEqualTo("postId", postId), cursor, pageSize).get())
+                .thenApply(snapshot -> PageCursor.toPage(snapshot.getDocuments(), pageSize, Comment::fromMap));
+    }
+
+    // One server-streamed query; documents are handed over as they arrive and the
+    // bulkhead slot is held until the stream ends
+    @Override
+    public CompletableFuture<Void> streamByPostIdAsync(String postId, Consumer<Comment> consumer) {
+        CostAccount account = CostContext.current();
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.STREAM, () -> {
+            SettableApiFuture<Void> done = SettableApiFuture.create();
+            firestore.collection(COLLECTION_NAME)
+                    .whereEqualTo("postId", postId)
+                    .orderBy("createdAt", Query.Direction.DESCENDING)
+                    .stream(new ApiStreamObserver<DocumentSnapshot>() {
+                        @Override
+                        public void onNext(DocumentSnapshot document) {
+                            if (done.isDone()) {
+                                return;
+                            }
+                            metrics.recordStreamed(COLLECTION_NAME, document, account);
+                            try {
+                                consumer.accept(Comment.fromMap(document.getId(), document.getData()));
+                            } catch (RuntimeException e) {
+                                // The reader went away; drop the rest of the stream
+                                done.setException(e);
+                            }
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            done.setException(error);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            done.set(null);
+                        }
+                    });
+            return done;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Comment>> updateAsync(String commentId, Map<String, Object> fields) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(
+                transaction -> updateInTransaction(transaction, commentId, fields)));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Comment>> deleteByIdAsync(String commentId) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(
+                transaction -> deleteInTransaction(transaction, commentId)));
+    }
+
+    @Override
+    public CompletableFuture<List<BulkItemResult>> createAllAsync(List<Comment> comments) {
+        List<Map<String, Object>> documents = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            documents.add(comment.toMap());
+        }
+        return FirestoreBulkWriter.create(firestore, bulkhead, COLLECTION_NAME, documents)
+                .thenCompose(results -> summarizeCreated(comments, results).thenApply(done -> results));
+    }
+
+    private ApiFuture<Optional<Comment>> updateInTransaction(Transaction transaction, String commentId,
+                                                             Map<String, Object> fields) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(commentId);
+        return ApiFutures.transformAsync(transaction.get(docRef), document -> {
+            if (!document.exists()) {
+                return ApiFutures.immediateFuture(Optional.empty());
+            }
+            Map<String, Object> data = new HashMap<>(document.getData());
+            data.putAll(fields);
+            Comment updated = Comment.fromMap(commentId, data);
+            return ApiFutures.transform(readPost(transaction, updated.getPostId()), post -> {
+                transaction.update(docRef, fields);
+                if (post != null && post.exists() && CommentSummary.inPreview(post.getData(), commentId)) {
+                    transaction.update(post.getReference(), CommentSummary.afterEdit(post.getData(), commentId, fields));
+                }
+                return Optional.of(updated);
+            }, MoreExecutors.directExecutor());
+        }, MoreExecutors.directExecutor());
+    }
+
+    // Refilling the preview needs the newest remaining comments, which costs one more
+    // read only when the deleted comment was shown in it
+    private ApiFuture<Optional<Comment>> deleteInTransaction(Transaction transaction, String commentId) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(commentId);
+        return ApiFutures.transformAsync(transaction.get(docRef), document -> {
+            if (!document.exists()) {
+                return ApiFutures.immediateFuture(Optional.empty());
+            }
+            Comment deleted = Comment.fromMap(commentId, document.getData());
+            return ApiFutures.transformAsync(readPost(transaction, deleted.getPostId()), post -> {
+                if (post == null || !post.exists()) {
+                    transaction.delete(docRef);
+                    return ApiFutures.immediateFuture(Optional.of(deleted));
+                }
+                if (!CommentSummary.isSummarized(post.getData())) {
+                    return ApiFutures.transform(readUnsummarized(transaction, post), stored -> {
+                        transaction.delete(docRef);
+                        transaction.update(post.getReference(),
+                                CommentSummary.rebuilt(stored, List.of(), commentId, previewSize));
+                        return Optional.of(deleted);
+                    }, MoreExecutors.directExecutor());
+                }
+                if (!CommentSummary.inPreview(post.getData(), commentId)) {
+                    transaction.delete(docRef);
+                    transaction.update(post.getReference(),
+                            CommentSummary.afterRemove(post.getData(), commentId, null, previewSize));
+                    return ApiFutures.immediateFuture(Optional.of(deleted));
+                }
+                Query latest = firestore.collection(COLLECTION_NAME)
+                        .whereEqualTo("postId", deleted.getPostId())
+                        .orderBy("createdAt", Query.Direction.DESCENDING)
+                        .limit(previewSize + 1);
+                return ApiFutures.transform(transaction.get(latest), snapshot -> {
+                    transaction.delete(docRef);
+                    transaction.update(post.getReference(), CommentSummary.afterRemove(
+                            post.getData(), commentId, toComments(snapshot.getDocuments()), previewSize));
+                    return Optional.of(deleted);
+                }, MoreExecutors.directExecutor());
+            }, MoreExecutors.directExecutor());
+        }, MoreExecutors.directExecutor());
+    }
+
+    // The post a comment belongs to, or null for comments without one
+    private ApiFuture<DocumentSnapshot> readPost(Transaction transaction, String postId) {
+        if (postId == null) {
+            return ApiFutures.immediateFuture(null);
+        }
+        return transaction.get(firestore.collection(POSTS_COLLECTION).document(postId));
+    }
+
+    // All comments of a post that has no commentCount yet, read in the transaction;
+    // null when the post is summarized already or doesn't exist
+    private ApiFuture<List<Comment>> readUnsummarized(Transaction transaction, DocumentSnapshot post) {
+        if (post == null || !post.exists() || CommentSummary.isSummarized(post.getData())) {
+            return ApiFutures.immediateFuture(null);
+        }
+        Query comments = firestore.collection(COLLECTION_NAME).whereEqualTo("postId", post.getId());
+        return ApiFutures.transform(transaction.get(comments), snapshot -> toComments(snapshot.getDocuments()),
+                MoreExecutors.directExecutor());
+    }
+
+    // Bulk-created comments are written first, then each affected post is updated in one
+    // transaction covering all of its new comments
+    private CompletableFuture<Void> summarizeCreated(List<Comment> comments, List<BulkItemResult> results) {
+        Map<String, List<Comment>> createdByPost = new LinkedHashMap<>();
+        for (BulkItemResult result : results) {
+            Comment comment = comments.get(result.getIndex());
+            if (result.isSuccess() && comment.getPostId() != null) {
+                comment.setId(result.getId());
+                createdByPost.computeIfAbsent(comment.getPostId(), postId -> new ArrayList<>()).add(comment);
+            }
+        }
+        List<CompletableFuture<DocumentSnapshot>> updates = new ArrayList<>(createdByPost.size());
+        for (Map.Entry<String, List<Comment>> created : createdByPost.entrySet()) {
+            updates.add(bulkhead.call(POSTS_COLLECTION, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                    ApiFutures.transformAsync(readPost(transaction, created.getKey()), post ->
+                            ApiFutures.transform(readUnsummarized(transaction, post), stored -> {
+                                if (post.exists()) {
+                                    transaction.update(post.getReference(), stored != null
+                                            ? CommentSummary.rebuilt(stored, created.getValue(), null, previewSize)
+                                            : CommentSummary.afterAdd(post.getData(), created.getValue(), previewSize));
+                                }
+                                return post;
+                            }, MoreExecutors.directExecutor()), MoreExecutors.directExecutor()))));
+        }
+        return CompletableFuture.allOf(updates.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private List<Comment> toComments(List<QueryDocumentSnapshot> documents) {
+        List<Comment> comments = new ArrayList<>(documents.size());
+        for (QueryDocumentSnapshot document : documents) {
+            comments.add(Comment.fromMap(document.getId(), document.getData()));
+        }
+        return comments;
+    }
+}
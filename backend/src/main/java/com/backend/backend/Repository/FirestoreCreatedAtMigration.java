@@ -0,0 +1,197 @@
+package com.backend.backend.Repository;
+
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.backend.backend.Model.Post;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+
+/**
+ * Rewrites the ISO string createdAt of older posts, and of the feed entries copied from
+ * them, as native Timestamps. A string range filter matches only string values, so each
+ * batch is the next run of unmigrated documents; the position after every batch is saved
+ * in migrations/{name}, and a restarted job picks up from there. Until it has finished,
+ * readers page over both types through {@link FirestoreCreatedAtPages}.
+ */
+@Component
+@Profile("!inmemory")
+public class FirestoreCreatedAtMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(FirestoreCreatedAtMigration.class);
+
+    private static final String CHECKPOINTS = "migrations";
+    private static final String FIELD = "createdAt";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Value("${posts.created-at.migration.enabled:false}")
+    private boolean enabled;
+
+    @Value("${posts.created-at.migration.batch-size:300}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        migrateAsync().whenComplete((migrated, error) -> {
+            if (error != null) {
+                log.warn("createdAt migration stopped, it resumes from its checkpoint on the next start", error);
+            } else {
+                log.info("createdAt migration finished, {} documents rewritten", migrated);
+            }
+        });
+    }
+
+    // Posts first, then the timeline entries whose order follows them
+    public CompletableFuture<Long> migrateAsync() {
+        return migrateAsync("postCreatedAt", "posts", firestore.collection("posts"))
+                .thenCompose(posts -> migrateAsync("feedEntryCreatedAt", "entries", firestore.collectionGroup("entries"))
+                        .thenApply(entries -> posts + entries));
+    }
+
+    private CompletableFuture<Long> migrateAsync(String name, String collection, Query source) {
+        DocumentReference checkpoint = firestore.collection(CHECKPOINTS).document(name);
+        return bulkhead.call(CHECKPOINTS, FirestoreOperation.GET, checkpoint::get).thenCompose(snapshot -> {
+            Progress progress = Progress.from(snapshot);
+            if (progress.done) {
+                return CompletableFuture.completedFuture(0L);
+            }
+            long before = progress.migrated;
+            return nextBatch(checkpoint, collection, source, progress).thenApply(done -> progress.migrated - before);
+        });
+    }
+
+    private CompletableFuture<Void> nextBatch(DocumentReference checkpoint, String collection, Query source,
+                                              Progress progress) {
+        Query query = source.whereGreaterThanOrEqualTo(FIELD, "")
+                .orderBy(FIELD)
+                .orderBy(FieldPath.documentId())
+                .limit(batchSize);
+        if (progress.lastPath != null) {
+            query = query.startAfter(progress.lastCreatedAt, firestore.document(progress.lastPath));
+        }
+        Query batch = query;
+        return bulkhead.call(collection, FirestoreOperation.QUERY, batch::get).thenCompose(snapshot -> {
+            List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+            return rewrite(collection, documents, progress).thenCompose(written -> {
+                if (!documents.isEmpty()) {
+                    QueryDocumentSnapshot last = documents.get(documents.size() - 1);
+                    progress.lastCreatedAt = last.getString(FIELD);
+                    progress.lastPath = last.getReference().getPath();
+                }
+                progress.done = documents.size() < batchSize;
+                Map<String, Object> state = progress.toMap();
+                return bulkhead.call(CHECKPOINTS, FirestoreOperation.SET, List.of(state), () -> checkpoint.set(state));
+            }).thenCompose(saved -> progress.done
+                    ? CompletableFuture.<Void>completedFuture(null)
+                    : nextBatch(checkpoint, collection, source, progress));
+        });
+    }
+
+    // Update createdAt alone; a document deleted in the meantime is simply skipped
+    private CompletableFuture<Void> rewrite(String collection, List<QueryDocumentSnapshot> documents, Progress progress) {
+        if (documents.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        BulkWriter writer = firestore.bulkWriter();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(documents.size());
+        List<Map<String, Object>> written = new ArrayList<>(documents.size());
+        Map<DocumentReference, Timestamp> rewrites = new LinkedHashMap<>();
+        for (QueryDocumentSnapshot document : documents) {
+            Timestamp createdAt = parse(document);
+            if (createdAt == null) {
+                progress.skipped++;
+            } else {
+                rewrites.put(document.getReference(), createdAt);
+                written.add(Map.of(FIELD, createdAt));
+            }
+        }
+        return bulkhead.call(collection, FirestoreOperation.BULK, written, () -> {
+            for (Map.Entry<DocumentReference, Timestamp> rewrite : rewrites.entrySet()) {
+                results.add(FirestoreFutures.ifExists(FirestoreFutures.toCompletableFuture(
+                        writer.update(rewrite.getKey(), FIELD, rewrite.getValue()))));
+            }
+            return writer.flush();
+        })
+                .thenCompose(flushed -> CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])))
+                .thenRun(() -> {
+                    for (CompletableFuture<Boolean> result : results) {
+                        if (result.join()) {
+                            progress.migrated++;
+                        } else {
+                            progress.skipped++;
+                        }
+                    }
+                })
+                .whenComplete((done, error) -> FirestoreBulkWriter.close(writer));
+    }
+
+    private Timestamp parse(QueryDocumentSnapshot document) {
+        try {
+            return Post.toTimestamp(Post.readCreatedAt(document.getString(FIELD)));
+        } catch (DateTimeParseException e) {
+            log.warn("Leaving unparseable createdAt on {}", document.getReference().getPath());
+            return null;
+        }
+    }
+
+    private static final class Progress {
+        private long migrated;
+        private long skipped;
+        private String lastCreatedAt;
+        private String lastPath;
+        private boolean done;
+
+        private static Progress from(DocumentSnapshot snapshot) {
+            Progress progress = new Progress();
+            if (snapshot.exists()) {
+                Long migrated = snapshot.getLong("migrated");
+                Long skipped = snapshot.getLong("skipped");
+                progress.migrated = migrated != null ? migrated : 0;
+                progress.skipped = skipped != null ? skipped : 0;
+                progress.lastCreatedAt = snapshot.getString("lastCreatedAt");
+                progress.lastPath = snapshot.getString("lastPath");
+                progress.done = Boolean.TRUE.equals(snapshot.getBoolean("done"));
+            }
+            return progress;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("migrated", migrated);
+            map.put("skipped", skipped);
+            map.put("lastCreatedAt", lastCreatedAt);
+            map.put("lastPath", lastPath);
+            map.put("done", done);
+            map.put("updatedAt", Timestamp.now());
+            return map;
+        }
+    }
+}
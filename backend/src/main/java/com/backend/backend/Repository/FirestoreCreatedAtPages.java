@@ -0,0 +1,90 @@
+package com.backend.backend.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+
+/**
+ * Keyset pages over the createdAt of posts and feed entries, which is a Timestamp on new
+ * documents but still an ISO string on those written before it changed type, until
+ * {@link FirestoreCreatedAtMigration} has rewritten them. Firestore orders every Timestamp
+ * before every string and a range filter only matches values of its own type, so a page
+ * is one query per type, each positioned after the cursor converted to that type, and the
+ * two results merged by instant.
+ */
+final class FirestoreCreatedAtPages {
+
+    private static final String FIELD = "createdAt";
+
+    private static final Comparator<QueryDocumentSnapshot> NEWEST_FIRST = Comparator
+            .comparing((QueryDocumentSnapshot document) -> Post.readCreatedAt(document.get(FIELD)),
+                    Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(QueryDocumentSnapshot::getId)
+            .reversed();
+
+    private FirestoreCreatedAtPages() {
+    }
+
+    // With legacyStrings off, one query as PageCursor.apply builds it
+    static <T> CompletableFuture<Page<T>> find(FirestoreBulkhead bulkhead, String collection, Query query, String cursor,
+                                               int pageSize, boolean legacyStrings,
+                                               BiFunction<String, Map<String, Object>, T> mapper) {
+        if (!legacyStrings) {
+            return bulkhead.call(collection, FirestoreOperation.QUERY, () -> PageCursor.apply(query, cursor, pageSize).get())
+                    .thenApply(snapshot -> PageCursor.toPage(snapshot.getDocuments(), pageSize, mapper));
+        }
+        PageCursor position = cursor != null && !cursor.isEmpty() ? PageCursor.decode(cursor) : null;
+        CompletableFuture<List<QueryDocumentSnapshot>> timestamps = read(bulkhead, collection,
+                query.whereGreaterThanOrEqualTo(FIELD, Timestamp.MIN_VALUE), position, Post::toTimestamp, pageSize);
+        CompletableFuture<List<QueryDocumentSnapshot>> strings = read(bulkhead, collection,
+                query.whereGreaterThanOrEqualTo(FIELD, ""), position, LocalDateTime::toString, pageSize);
+        return timestamps.thenCombine(strings, (newer, older) -> merge(newer, older, pageSize, mapper));
+    }
+
+    // Each list holds up to pageSize + 1 documents after the cursor, so the merged list holds
+    // more than pageSize exactly when another page exists
+    static <T> Page<T> merge(List<QueryDocumentSnapshot> newer, List<QueryDocumentSnapshot> older, int pageSize,
+                             BiFunction<String, Map<String, Object>, T> mapper) {
+        List<QueryDocumentSnapshot> documents = new ArrayList<>(newer.size() + older.size());
+        documents.addAll(newer);
+        documents.addAll(older);
+        documents.sort(NEWEST_FIRST);
+        return PageCursor.toPage(documents, pageSize, mapper);
+    }
+
+    // The cursor with its createdAt in another type; unreadable values are kept as they are
+    static PageCursor convert(PageCursor position, Function<LocalDateTime, Object> toType) {
+        if (position == null) {
+            return null;
+        }
+        LocalDateTime createdAt = Post.readCreatedAt(position.getCreatedAt());
+        return createdAt != null ? new PageCursor(toType.apply(createdAt), position.getId()) : position;
+    }
+
+    // Newest first, whatever the type of each createdAt
+    static <T> List<T> sortNewestFirst(List<T> items, Function<T, LocalDateTime> createdAtOf) {
+        items.sort(Comparator.comparing(createdAtOf, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                .reversed());
+        return items;
+    }
+
+    private static CompletableFuture<List<QueryDocumentSnapshot>> read(FirestoreBulkhead bulkhead, String collection,
+                                                                       Query query, PageCursor position,
+                                                                       Function<LocalDateTime, Object> toType,
+                                                                       int pageSize) {
+        PageCursor after = convert(position, toType);
+        return bulkhead.call(collection, FirestoreOperation.QUERY, () -> PageCursor.apply(query, after, pageSize).get())
+                .thenApply(snapshot -> snapshot.getDocuments());
+    }
+}
@@ -0,0 +1,101 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.LikeResult;
+import com.backend.backend.Model.Post;
+import com.google.cloud.firestore.*;
+
+/**
+ * Keeps the likes array and likeCount on the post document (posts.likes.storage=embedded).
+ */
+@Repository
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "posts.likes.storage", havingValue = "embedded", matchIfMissing = true)
+public class FirestoreEmbeddedLikeRepository implements LikeRepository {
+
+    private static final String COLLECTION_NAME = "posts";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Override
+    public LikeResult like(String postId, String userId, Boolean liked) {
+        return FirestoreFutures.await(likeAsync(postId, userId, liked), "Error liking post");
+    }
+
+    // Runs as a transaction so concurrent likes can't lose updates, and only the
+    // likes/likeCount fields are written instead of the whole document
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<LikeResult> likeAsync(String postId, String userId, Boolean liked) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(postId);
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            if (!document.exists()) {
+                return null;
+            }
+
+            Object likesObj = document.get("likes");
+            List<String> likes = likesObj instanceof List ? (List<String>) likesObj : new ArrayList<>();
+            Object likeCountObj = document.get("likeCount");
+            long likeCount = likeCountObj instanceof Number ? ((Number) likeCountObj).longValue() : likes.size();
+
+            boolean currentlyLiked = likes.contains(userId);
+            boolean targetLiked = liked != null ? liked : !currentlyLiked;
+            if (targetLiked == currentlyLiked) {
+                return new LikeResult(postId, currentlyLiked, likeCount, false);
+            }
+
+            likeCount = Math.max(0, likeCount + (targetLiked ? 1 : -1));
+            transaction.update(docRef,
+                    "likes", targetLiked ? FieldValue.arrayUnion(userId) : FieldValue.arrayRemove(userId),
+                    "likeCount", likeCount);
+            return new LikeResult(postId, targetLiked, likeCount, true);
+        }));
+    }
+
+    @Override
+    public Map<String, Long> countLikes(List<Post> posts) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Post post : posts) {
+            counts.put(post.getPostId(), post.getLikeCount());
+        }
+        return counts;
+    }
+
+    @Override
+    public Set<String> findLikedPostIds(List<Post> posts, String userId) {
+        Set<String> liked = new HashSet<>();
+        for (Post post : posts) {
+            if (post.getLikes() != null && post.getLikes().contains(userId)) {
+                liked.add(post.getPostId());
+            }
+        }
+        return liked;
+    }
+
+    @Override
+    public boolean keepsLikesOnPost() {
+        return true;
+    }
+
+    @Override
+    public void deleteLikes(String postId) {
+        // Likes live on the post document and go away with it
+    }
+}
@@ -0,0 +1,180 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.google.cloud.firestore.*;
+
+/**
+ * Timelines live in feeds/{userId}/entries/{postId}, one small document per post
+ * reference holding the post's createdAt, so a feed page is a single range scan over
+ * the subcollection. The social graph is read from the followers, following and
+ * connections arrays the frontend keeps on users/{userId}.
+ */
+@Repository
+@Profile("!inmemory")
+public class FirestoreFeedRepository implements FeedRepository {
+
+    private static final String USERS_COLLECTION = "users";
+    private static final String FEEDS_COLLECTION = "feeds";
+    private static final String ENTRIES_COLLECTION = "entries";
+    private static final String AUTHORS_COLLECTION = "feedAuthors";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    // Off once FirestoreCreatedAtMigration has rewritten every string createdAt
+    @Value("${posts.created-at.read-legacy-strings:true}")
+    private boolean legacyStrings;
+
+    @Override
+    public Set<String> findAudience(String authorId) {
+        return FirestoreFutures.await(findAudienceAsync(authorId), "Error getting feed audience");
+    }
+
+    @Override
+    public Set<String> findSources(String userId) {
+        return FirestoreFutures.await(findSourcesAsync(userId), "Error getting feed sources");
+    }
+
+    @Override
+    public Set<String> findFanOutOnReadAuthors(Collection<String> authorIds) {
+        return FirestoreFutures.await(findFanOutOnReadAuthorsAsync(authorIds), "Error getting feed authors");
+    }
+
+    @Override
+    public void markFanOutOnRead(String authorId) {
+        FirestoreFutures.await(markFanOutOnReadAsync(authorId), "Error updating feed author");
+    }
+
+    @Override
+    public void append(Collection<String> userIds, Post post) {
+        FirestoreFutures.await(appendAsync(userIds, post), "Error writing feed entries");
+    }
+
+    @Override
+    public Page<String> findTimeline(String userId, int pageSize, String cursor) {
+        return FirestoreFutures.await(findTimelineAsync(userId, pageSize, cursor), "Error getting feed page");
+    }
+
+    @Override
+    public void remove(String userId, Collection<String> postIds) {
+        FirestoreFutures.await(removeAsync(userId, postIds), "Error removing feed entries");
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> findAudienceAsync(String authorId) {
+        return readUserLists(authorId, "followers", "connections");
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> findSourcesAsync(String userId) {
+        return readUserLists(userId, "following", "connections");
+    }
+
+    // One batched get over feedAuthors/{authorId}
+    @Override
+    public CompletableFuture<Set<String>> findFanOutOnReadAuthorsAsync(Collection<String> authorIds) {
+        if (authorIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Set.of());
+        }
+        DocumentReference[] refs = authorIds.stream()
+                .map(authorId -> firestore.collection(AUTHORS_COLLECTION).document(authorId))
+                .toArray(DocumentReference[]::new);
+        return bulkhead.call(AUTHORS_COLLECTION, FirestoreOperation.GET_ALL, () -> firestore.getAll(refs)).thenApply(documents -> {
+            Set<String> found = new HashSet<>();
+            for (DocumentSnapshot document : documents) {
+                if (document.exists() && Boolean.TRUE.equals(document.getBoolean("fanOutOnRead"))) {
+                    found.add(document.getId());
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> markFanOutOnReadAsync(String authorId) {
+        Map<String, Object> author = new HashMap<>();
+        author.put("fanOutOnRead", true);
+        return bulkhead.call(AUTHORS_COLLECTION, FirestoreOperation.SET, List.of(author),
+                        () -> firestore.collection(AUTHORS_COLLECTION).document(authorId).set(author))
+                .thenApply(result -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> appendAsync(Collection<String> userIds, Post post) {
+        List<DocumentReference> targets = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            targets.add(entries(userId).document(post.getPostId()));
+        }
+        return FirestoreBulkWriter.setAll(firestore, bulkhead, FEEDS_COLLECTION, targets, toEntry(post));
+    }
+
+    @Override
+    public CompletableFuture<Page<String>> findTimelineAsync(String userId, int pageSize, String cursor) {
+        return FirestoreCreatedAtPages.find(bulkhead, FEEDS_COLLECTION, entries(userId), cursor, pageSize, legacyStrings,
+                (postId, entry) -> postId);
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAsync(String userId, Collection<String> postIds) {
+        if (postIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        WriteBatch batch = firestore.batch();
+        for (String postId : postIds) {
+            batch.delete(entries(userId).document(postId));
+        }
+        return bulkhead.call(FEEDS_COLLECTION, FirestoreOperation.BATCH, batch::commit).thenApply(result -> null);
+    }
+
+    private CollectionReference entries(String userId) {
+        return firestore.collection(FEEDS_COLLECTION).document(userId).collection(ENTRIES_COLLECTION);
+    }
+
+    // Union of the named string arrays on users/{userId}; empty when the profile doesn't exist
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Set<String>> readUserLists(String userId, String... fields) {
+        return bulkhead.call(USERS_COLLECTION, FirestoreOperation.GET, () -> firestore.collection(USERS_COLLECTION).document(userId).get())
+                .thenApply(document -> {
+                    Set<String> userIds = new HashSet<>();
+                    if (document.exists()) {
+                        for (String field : fields) {
+                            Object value = document.get(field);
+                            if (value instanceof List) {
+                                for (Object id : (List<Object>) value) {
+                                    if (id instanceof String) {
+                                        userIds.add((String) id);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    return userIds;
+                });
+    }
+
+    private Map<String, Object> toEntry(Post post) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("postId", post.getPostId());
+        entry.put("authorId", post.getUserId());
+        entry.put("createdAt", post.toMap().get("createdAt"));
+        return entry;
+    }
+}
@@ -0,0 +1,96 @@
+package com.backend.backend.Repository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Bridges Firestore's ApiFuture to CompletableFuture so repository calls can be
+ * composed without parking a request thread on get().
+ */
+final class FirestoreFutures {
+
+    private FirestoreFutures() {
+    }
+
+    static <T> CompletableFuture<T> toCompletableFuture(ApiFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<T>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                future.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        ApiFutures.addCallback(future, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                result.completeExceptionally(error);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    // Issue an RPC; errors raised while building the request become a failed future
+    static <T> CompletableFuture<T> call(Supplier<ApiFuture<T>> rpc) {
+        try {
+            return toCompletableFuture(rpc.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Block for the synchronous repository methods
+    static <T> T await(CompletableFuture<T> future, String message) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(message, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw new RuntimeException(message, e.getCause());
+        }
+    }
+
+    static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    // Completes with false instead of failing when an update found no document:
+    // DocumentReference.update and BulkWriter.update fail with NOT_FOUND
+    static <T> CompletableFuture<Boolean> ifExists(CompletableFuture<T> write) {
+        return write.handle((result, error) -> {
+            if (error == null) {
+                return true;
+            }
+            if (hasStatus(error, StatusCode.Code.NOT_FOUND)) {
+                return false;
+            }
+            throw new CompletionException(unwrap(error));
+        });
+    }
+
+    static boolean hasStatus(Throwable error, StatusCode.Code code) {
+        Throwable cause = unwrap(error);
+        return cause instanceof ApiException && ((ApiException) cause).getStatusCode().getCode() == code;
+    }
+}
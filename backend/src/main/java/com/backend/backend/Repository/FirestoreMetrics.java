@@ -0,0 +1,254 @@
+package com.backend.backend.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.GeoPoint;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteResult;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer meters for every RPC issued through {@link FirestoreBulkhead}, tagged by
+ * collection and operation:
+ *
+ * firestore.operation          time from issuing the RPC to its result, plus status
+ * firestore.bulkhead.wait      time spent waiting for a slot, plus outcome
+ * firestore.documents.read     documents returned by gets and queries (missing gets count, as they are billed)
+ * firestore.documents.written  documents written
+ * firestore.payload.bytes      estimated document size per read or write, by direction
+ *
+ * Sizes follow Firestore's storage size rules. Reads inside transactions and the
+ * documents a BulkWriter flush writes are only counted where the caller passes them.
+ * The billed reads and writes of each call are also charged to the {@link CostAccount}
+ * of the request that issued it; a query bills at least one read even when it is empty.
+ */
+@Component
+@Profile("!inmemory")
+class FirestoreMetrics {
+
+    private static final String OK = "OK";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // Estimating a size walks each document's fields once more after mapping
+    @Value("${firestore.metrics.payload-bytes:true}")
+    private boolean payloadBytes;
+
+    // Time the RPC the supplier issues and record what it read and wrote once it completes
+    <T> Supplier<ApiFuture<T>> instrument(String collection, FirestoreOperation operation,
+                                          List<Map<String, Object>> written, CostAccount account,
+                                          Supplier<ApiFuture<T>> rpc) {
+        return () -> {
+            Timer.Sample sample = Timer.start(registry);
+            ApiFuture<T> future;
+            try {
+                future = rpc.get();
+            } catch (RuntimeException e) {
+                stop(sample, collection, operation, e);
+                throw e;
+            }
+            ApiFutures.addCallback(future, new ApiFutureCallback<T>() {
+                @Override
+                public void onSuccess(T result) {
+                    stop(sample, collection, operation, null);
+                    long reads = recordRead(collection, operation, result);
+                    long writes = recordWritten(collection, operation, written, result);
+                    if (account != null && (reads > 0 || writes > 0)) {
+                        account.charge(reads, writes);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    stop(sample, collection, operation, error);
+                }
+            }, MoreExecutors.directExecutor());
+            return future;
+        };
+    }
+
+    void recordWait(String collection, long nanos, boolean acquired) {
+        Timer.builder("firestore.bulkhead.wait")
+                .description("Time Firestore calls wait for a bulkhead slot")
+                .tags("collection", collection, "outcome", acquired ? "acquired" : "rejected")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // For documents that arrive outside a single result, e.g. from a streamed query
+    void recordStreamed(String collection, DocumentSnapshot document, CostAccount account) {
+        recordRead(collection, FirestoreOperation.STREAM, document);
+        if (account != null) {
+            account.charge(1, 0);
+        }
+    }
+
+    private void recordRead(String collection, FirestoreOperation operation, DocumentSnapshot document) {
+        documents("firestore.documents.read", collection, operation).increment();
+        if (payloadBytes && document.exists()) {
+            payload(collection, operation, "read").record(documentSize(document.getData()));
+        }
+    }
+
+    private void stop(Timer.Sample sample, String collection, FirestoreOperation operation, Throwable error) {
+        sample.stop(Timer.builder("firestore.operation")
+                .description("Firestore RPC latency")
+                .tags("collection", collection, "operation", operation.tag(), "status", status(error))
+                .register(registry));
+    }
+
+    // Billed reads of a result
+    private long recordRead(String collection, FirestoreOperation operation, Object result) {
+        long reads = 0;
+        if (result instanceof QuerySnapshot) {
+            QuerySnapshot snapshot = (QuerySnapshot) result;
+            for (DocumentSnapshot document : snapshot.getDocuments()) {
+                recordRead(collection, operation, document);
+            }
+            reads = Math.max(1, snapshot.size());
+        } else if (result instanceof DocumentSnapshot) {
+            recordRead(collection, operation, (DocumentSnapshot) result);
+            reads = 1;
+        } else if (result instanceof List) {
+            for (Object item : (List<?>) result) {
+                if (item instanceof DocumentSnapshot) {
+                    recordRead(collection, operation, (DocumentSnapshot) item);
+                    reads++;
+                }
+            }
+        }
+        return reads;
+    }
+
+    // Billed writes of a call, from the documents passed in or else from its result
+    private long recordWritten(String collection, FirestoreOperation operation,
+                               List<Map<String, Object>> written, Object result) {
+        long writes = 0;
+        if (written != null) {
+            writes = written.size();
+            if (payloadBytes) {
+                DistributionSummary summary = payload(collection, operation, "write");
+                for (Map<String, Object> document : written) {
+                    summary.record(documentSize(document));
+                }
+            }
+        } else if (result instanceof WriteResult) {
+            writes = 1;
+        } else if (result instanceof List) {
+            List<?> results = (List<?>) result;
+            if (!results.isEmpty() && results.get(0) instanceof WriteResult) {
+                writes = results.size();
+            }
+        }
+        if (writes > 0) {
+            documents("firestore.documents.written", collection, operation).increment(writes);
+        }
+        return writes;
+    }
+
+    private Counter documents(String name, String collection, FirestoreOperation operation) {
+        return registry.counter(name, "collection", collection, "operation", operation.tag());
+    }
+
+    private DistributionSummary payload(String collection, FirestoreOperation operation, String direction) {
+        return DistributionSummary.builder("firestore.payload.bytes")
+                .description("Estimated size of documents read and written")
+                .baseUnit("bytes")
+                .tags("collection", collection, "operation", operation.tag(), "direction", direction)
+                .register(registry);
+    }
+
+    private static String status(Throwable error) {
+        if (error == null) {
+            return OK;
+        }
+        Throwable cause = FirestoreFutures.unwrap(error);
+        return cause instanceof ApiException
+                ? ((ApiException) cause).getStatusCode().getCode().name()
+                : cause.getClass().getSimpleName();
+    }
+
+    // Field names and values as Firestore counts them, plus the 32 bytes each document carries
+    static long documentSize(Map<String, Object> data) {
+        return data != null ? 32 + mapSize(data) : 32;
+    }
+
+    private static long mapSize(Map<String, Object> map) {
+        long size = 0;
+        for (Map.Entry<String, Object> field : map.entrySet()) {
+            size += stringSize(field.getKey()) + valueSize(field.getValue());
+        }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long valueSize(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof String) {
+            return stringSize((String) value);
+        }
+        if (value instanceof Map) {
+            return mapSize((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            long size = 0;
+            for (Object element : (List<Object>) value) {
+                size += valueSize(element);
+            }
+            return size;
+        }
+        if (value instanceof Blob) {
+            return ((Blob) value).toBytes().length;
+        }
+        if (value instanceof DocumentReference) {
+            return stringSize(((DocumentReference) value).getPath()) + 16;
+        }
+        if (value instanceof GeoPoint) {
+            return 16;
+        }
+        // Numbers, Timestamps and dates; write sentinels like increment() are counted the same
+        return 8;
+    }
+
+    // UTF-8 length plus one, counted without encoding the string
+    private static long stringSize(String value) {
+        long size = 1;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                size += 1;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                size += 4;
+                i++;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+}
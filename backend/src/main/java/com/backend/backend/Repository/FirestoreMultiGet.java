@@ -0,0 +1,42 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+
+/**
+ * Reads many documents of one collection by id with a single getAll RPC instead of
+ * one get per document.
+ */
+final class FirestoreMultiGet {
+
+    private FirestoreMultiGet() {
+    }
+
+    // The documents that exist, in the order of the given ids
+    static <T> CompletableFuture<List<T>> getAll(Firestore firestore, FirestoreBulkhead bulkhead, String collection,
+                                                 List<String> ids, BiFunction<String, Map<String, Object>, T> mapper) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        DocumentReference[] refs = new DocumentReference[ids.size()];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = firestore.collection(collection).document(ids.get(i));
+        }
+        return bulkhead.call(collection, FirestoreOperation.GET_ALL, () -> firestore.getAll(refs)).thenApply(documents -> {
+            List<T> found = new ArrayList<>(documents.size());
+            for (DocumentSnapshot document : documents) {
+                if (document.exists()) {
+                    found.add(mapper.apply(document.getId(), document.getData()));
+                }
+            }
+            return found;
+        });
+    }
+}
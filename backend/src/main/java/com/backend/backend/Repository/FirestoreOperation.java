@@ -0,0 +1,24 @@
+package com.backend.backend.Repository;
+
+import java.util.Locale;
+
+// Kind of Firestore RPC passed through the bulkhead, the operation tag on the firestore.* meters
+enum FirestoreOperation {
+    GET,
+    GET_ALL,
+    QUERY,
+    STREAM,
+    SET,
+    UPDATE,
+    DELETE,
+    BATCH,
+    BULK,
+    TRANSACTION,
+    RECURSIVE_DELETE;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,241 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.*;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Writes that change a post's skills also adjust the skill counters: creates in one
+ * batch with them, and updates naming skills and deletes as transactions that read the
+ * post's current skills first.
+ */
+@Repository
+@Profile("!inmemory")
+public class FirestorePostRepository implements PostRepository {
+
+    private static final String COLLECTION_NAME = "posts";
+
+    // Most values Firestore accepts in one "in" filter
+    private static final int MAX_IN_VALUES = 30;
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Autowired
+    private FirestoreSkillTagRepository skillTags;
+
+    // Off once FirestoreCreatedAtMigration has rewritten every string createdAt
+    @Value("${posts.created-at.read-legacy-strings:true}")
+    private boolean legacyStrings;
+
+    @Override
+    public Post create(Post post) {
+        return FirestoreFutures.await(createAsync(post), "Error creating post");
+    }
+
+    @Override
+    public Optional<Post> findById(String postId) {
+        return FirestoreFutures.await(findByIdAsync(postId), "Error getting post");
+    }
+
+    @Override
+    public List<Post> findAll() {
+        return FirestoreFutures.await(findAllAsync(), "Error getting all posts");
+    }
+
+    @Override
+    public Page<Post> findAll(int pageSize, String cursor) {
+        return FirestoreFutures.await(findAllAsync(pageSize, cursor), "Error getting posts page");
+    }
+
+    @Override
+    public List<Post> findByUserId(String userId) {
+        return FirestoreFutures.await(findByUserIdAsync(userId), "Error getting posts by user");
+    }
+
+    @Override
+    public Page<Post> findByUserId(String userId, int pageSize, String cursor) {
+        return FirestoreFutures.await(findByUserIdAsync(userId, pageSize, cursor), "Error getting posts page by user");
+    }
+
+    @Override
+    public Page<Post> findByUserIds(Collection<String> userIds, int pageSize, String cursor) {
+        return FirestoreFutures.await(findByUserIdsAsync(userIds, pageSize, cursor), "Error getting posts page by users");
+    }
+
+    @Override
+    public Page<Post> findBySkills(Collection<String> skills, int pageSize, String cursor) {
+        return FirestoreFutures.await(findBySkillsAsync(skills, pageSize, cursor), "Error getting posts page by skills");
+    }
+
+    @Override
+    public List<Post> findAllById(List<String> postIds) {
+        return FirestoreFutures.await(findAllByIdAsync(postIds), "Error getting posts");
+    }
+
+    @Override
+    public boolean update(String postId, Map<String, Object> fields) {
+        return FirestoreFutures.await(updateAsync(postId, fields), "Error updating post");
+    }
+
+    @Override
+    public boolean deleteById(String postId) {
+        return FirestoreFutures.await(deleteByIdAsync(postId), "Error deleting post");
+    }
+
+    @Override
+    public CompletableFuture<Post> createAsync(Post post) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document();
+        post.setPostId(docRef.getId());
+        Map<String, Object> document = post.toMap();
+        if (post.getSkills() == null || post.getSkills().isEmpty()) {
+            return bulkhead.call(COLLECTION_NAME, FirestoreOperation.SET, List.of(document), () -> docRef.set(document))
+                    .thenApply(result -> post);
+        }
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, document);
+        List<Map<String, Object>> written = new ArrayList<>();
+        written.add(document);
+        written.addAll(skillTags.adjust(batch, SkillCounters.POSTS, null, post.getSkills()));
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.BATCH, written, batch::commit)
+                .thenApply(result -> post);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Post>> findByIdAsync(String postId) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.GET, () -> firestore.collection(COLLECTION_NAME).document(postId).get())
+                .thenApply(document -> document.exists()
+                        ? Optional.of(Post.fromMap(document.getId(), document.getData()))
+                        : Optional.empty());
+    }
+
+    @Override
+    public CompletableFuture<List<Post>> findAllAsync() {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> firestore.collection(COLLECTION_NAME)
+                        .orderBy("createdAt", Query.Direction.DESCENDING)
+                        .get())
+                .thenApply(snapshot -> toPosts(snapshot.getDocuments()));
+    }
+
+    @Override
+    public CompletableFuture<Page<Post>> findAllAsync(int pageSize, String cursor) {
+        return FirestoreCreatedAtPages.find(bulkhead, COLLECTION_NAME, firestore.collection(COLLECTION_NAME), cursor,
+                pageSize, legacyStrings, Post::fromMap);
+    }
+
+    @Override
+    public CompletableFuture<List<Post>> findByUserIdAsync(String userId) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> firestore.collection(COLLECTION_NAME)
+                        .whereEqualTo("userId", userId)
+                        .orderBy("createdAt", Query.Direction.DESCENDING)
+                        .get())
+                .thenApply(snapshot -> toPosts(snapshot.getDocuments()));
+    }
+
+    @Override
+    public CompletableFuture<Page<Post>> findByUserIdAsync(String userId, int pageSize, String cursor) {
+        return FirestoreCreatedAtPages.find(bulkhead, COLLECTION_NAME,
+                firestore.collection(COLLECTION_NAME).whereEqualTo("userId", userId), cursor, pageSize, legacyStrings,
+                Post::fromMap);
+    }
+
+    // One "in" query per 30 users, run in parallel and merged
+    @Override
+    public CompletableFuture<Page<Post>> findByUserIdsAsync(Collection<String> userIds, int pageSize, String cursor) {
+        List<String> ids = new ArrayList<>(userIds);
+        List<CompletableFuture<Page<Post>>> pages = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += MAX_IN_VALUES) {
+            List<String> chunk = ids.subList(start, Math.min(start + MAX_IN_VALUES, ids.size()));
+            pages.add(FirestoreCreatedAtPages.find(bulkhead, COLLECTION_NAME,
+                    firestore.collection(COLLECTION_NAME).whereIn("userId", new ArrayList<>(chunk)), cursor, pageSize,
+                    legacyStrings, Post::fromMap));
+        }
+        return CompletableFuture.allOf(pages.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> PostRepository.mergePages(pages.stream().map(CompletableFuture::join).toList(), pageSize));
+    }
+
+    // One array-contains query per skill on the (skills, createdAt) index, each read after the
+    // same cursor and merged; a post carrying several of the skills appears once
+    @Override
+    public CompletableFuture<Page<Post>> findBySkillsAsync(Collection<String> skills, int pageSize, String cursor) {
+        List<CompletableFuture<Page<Post>>> pages = new ArrayList<>(skills.size());
+        for (String skill : skills) {
+            pages.add(FirestoreCreatedAtPages.find(bulkhead, COLLECTION_NAME,
+                    firestore.collection(COLLECTION_NAME).whereArrayContains("skills", skill), cursor, pageSize,
+                    legacyStrings, Post::fromMap));
+        }
+        if (pages.size() == 1) {
+            return pages.get(0);
+        }
+        return CompletableFuture.allOf(pages.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> PostRepository.mergePages(pages.stream().map(CompletableFuture::join).toList(), pageSize));
+    }
+
+    // One batched get for all ids
+    @Override
+    public CompletableFuture<List<Post>> findAllByIdAsync(List<String> postIds) {
+        return FirestoreMultiGet.getAll(firestore, bulkhead, COLLECTION_NAME, postIds, Post::fromMap);
+    }
+
+    // One RPC that writes only the given fields; update fails with NOT_FOUND instead of
+    // recreating a deleted document. Changing skills needs the old ones, so that runs as
+    // a transaction instead.
+    @Override
+    public CompletableFuture<Boolean> updateAsync(String postId, Map<String, Object> fields) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(postId);
+        if (!fields.containsKey("skills")) {
+            return FirestoreFutures.ifExists(bulkhead.call(COLLECTION_NAME, FirestoreOperation.UPDATE, List.of(fields),
+                    () -> docRef.update(fields)));
+        }
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                ApiFutures.transform(transaction.get(docRef), document -> {
+                    if (!document.exists()) {
+                        return false;
+                    }
+                    transaction.update(docRef, fields);
+                    skillTags.adjust(transaction, SkillCounters.POSTS,
+                            Post.readSkills(document.get("skills")), Post.readSkills(fields.get("skills")));
+                    return true;
+                }, MoreExecutors.directExecutor())));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteByIdAsync(String postId) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(postId);
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                ApiFutures.transform(transaction.get(docRef), document -> {
+                    if (!document.exists()) {
+                        return false;
+                    }
+                    transaction.delete(docRef);
+                    skillTags.adjust(transaction, SkillCounters.POSTS, Post.readSkills(document.get("skills")), null);
+                    return true;
+                }, MoreExecutors.directExecutor())));
+    }
+
+    // Sorted again in memory, since Firestore puts string createdAt values after every Timestamp
+    private List<Post> toPosts(List<QueryDocumentSnapshot> documents) {
+        List<Post> posts = new ArrayList<>(documents.size());
+        for (QueryDocumentSnapshot document : documents) {
+            posts.add(Post.fromMap(document.getId(), document.getData()));
+        }
+        return FirestoreCreatedAtPages.sortNewestFirst(posts, Post::getCreatedAt);
+    }
+}
@@ -0,0 +1,53 @@
+package com.backend.backend.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.RankingCheckpoint;
+import com.google.cloud.firestore.*;
+
+// One document per window, rankings/{window}, overwritten by every checkpoint
+@Repository
+@Profile("!inmemory")
+public class FirestoreRankingRepository implements RankingRepository {
+
+    private static final String COLLECTION_NAME = "rankings";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Override
+    public Optional<RankingCheckpoint> find(String window) {
+        return FirestoreFutures.await(findAsync(window), "Error getting ranking checkpoint");
+    }
+
+    @Override
+    public void save(RankingCheckpoint checkpoint) {
+        FirestoreFutures.await(saveAsync(checkpoint), "Error saving ranking checkpoint");
+    }
+
+    @Override
+    public CompletableFuture<Optional<RankingCheckpoint>> findAsync(String window) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.GET, () -> firestore.collection(COLLECTION_NAME).document(window).get())
+                .thenApply(document -> document.exists()
+                        ? Optional.of(RankingCheckpoint.fromMap(document.getId(), document.getData()))
+                        : Optional.empty());
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(RankingCheckpoint checkpoint) {
+        Map<String, Object> document = checkpoint.toMap();
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.SET, List.of(document),
+                        () -> firestore.collection(COLLECTION_NAME).document(checkpoint.getWindow()).set(document))
+                .thenApply(result -> null);
+    }
+}
@@ -0,0 +1,238 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.LikeResult;
+import com.backend.backend.Model.Post;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.*;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Stores one document per like under posts/{id}/likes/{userId} and spreads the
+ * count over posts/{id}/likeShards/{n} (posts.likes.storage=sharded), so hot
+ * posts avoid the single-document write limit. Like transactions only read the post
+ * document, so concurrent likes never write to it.
+ *
+ * A like is not a blind write: the post and like documents are read first, which costs
+ * a round trip and two reads, and holds a shared lock on the post that post edits wait
+ * for. Firestore's public API has no exists precondition for create-or-delete, and that
+ * read is what turns a like on a missing post into a 404 with no orphaned likes and a
+ * repeated like into no write at all.
+ */
+@Repository
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "posts.likes.storage", havingValue = "sharded")
+public class FirestoreShardedLikeRepository implements LikeRepository {
+
+    private static final String COLLECTION_NAME = "posts";
+    private static final String LIKES_COLLECTION = "likes";
+    private static final String SHARDS_COLLECTION = "likeShards";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Value("${posts.likes.shards:10}")
+    private int shardCount;
+
+    @Value("${posts.likes.count-cache-ttl-ms:5000}")
+    private long countCacheTtlMs;
+
+    @Value("${posts.likes.count-cache-size:10000}")
+    private int countCacheSize;
+
+    // Summed shard counts per post, adjusted in place by this node's own writes
+    private final Map<String, CachedCount> likeCounts = new ConcurrentHashMap<>();
+
+    @Override
+    public LikeResult like(String postId, String userId, Boolean liked) {
+        return FirestoreFutures.await(likeAsync(postId, userId, liked), "Error liking post");
+    }
+
+    @Override
+    public Map<String, Long> countLikes(List<Post> posts) {
+        return FirestoreFutures.await(countLikesAsync(posts), "Error getting like counts");
+    }
+
+    @Override
+    public Set<String> findLikedPostIds(List<Post> posts, String userId) {
+        return FirestoreFutures.await(findLikedPostIdsAsync(posts, userId), "Error getting likes");
+    }
+
+    @Override
+    public boolean keepsLikesOnPost() {
+        return false;
+    }
+
+    @Override
+    public void deleteLikes(String postId) {
+        FirestoreFutures.await(deleteLikesAsync(postId), "Error deleting likes");
+    }
+
+    // Completes with null when the post doesn't exist
+    @Override
+    public CompletableFuture<LikeResult> likeAsync(String postId, String userId, Boolean liked) {
+        return writeLike(postId, userId, liked).thenCompose(written -> written == null
+                ? CompletableFuture.completedFuture(null)
+                : getLikeCount(postId).thenApply(count -> new LikeResult(postId, written.liked(), count, written.changed())));
+    }
+
+    // Sum shards for every post missing from the cache with a single getAll
+    @Override
+    public CompletableFuture<Map<String, Long>> countLikesAsync(List<Post> posts) {
+        Map<String, Long> counts = new HashMap<>();
+        List<DocumentReference> shardRefs = new ArrayList<>();
+        for (Post post : posts) {
+            String postId = post.getPostId();
+            CachedCount cached = likeCounts.get(postId);
+            if (cached != null && !cached.isExpired(countCacheTtlMs)) {
+                counts.put(postId, Math.max(0, cached.value.get()));
+                continue;
+            }
+            counts.put(postId, 0L);
+            CollectionReference shards = firestore.collection(COLLECTION_NAME).document(postId)
+                    .collection(SHARDS_COLLECTION);
+            for (int shard = 0; shard < shardCount; shard++) {
+                shardRefs.add(shards.document(String.valueOf(shard)));
+            }
+        }
+        if (shardRefs.isEmpty()) {
+            return CompletableFuture.completedFuture(counts);
+        }
+
+        return bulkhead.call(LIKES_COLLECTION, FirestoreOperation.GET_ALL, () -> firestore.getAll(shardRefs.toArray(new DocumentReference[0])))
+                .thenApply(shardSnapshots -> {
+                    Set<String> loaded = new HashSet<>();
+                    for (DocumentSnapshot shard : shardSnapshots) {
+                        String postId = shard.getReference().getParent().getParent().getId();
+                        loaded.add(postId);
+                        Long count = shard.exists() ? shard.getLong("count") : null;
+                        if (count != null) {
+                            counts.merge(postId, count, Long::sum);
+                        }
+                    }
+                    if (likeCounts.size() + loaded.size() > countCacheSize) {
+                        likeCounts.clear();
+                    }
+                    for (String postId : loaded) {
+                        likeCounts.put(postId, new CachedCount(counts.get(postId)));
+                    }
+                    return counts;
+                });
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> findLikedPostIdsAsync(List<Post> posts, String userId) {
+        if (posts.isEmpty()) {
+            return CompletableFuture.completedFuture(Set.of());
+        }
+        DocumentReference[] likeRefs = new DocumentReference[posts.size()];
+        for (int i = 0; i < posts.size(); i++) {
+            likeRefs[i] = firestore.collection(COLLECTION_NAME).document(posts.get(i).getPostId())
+                    .collection(LIKES_COLLECTION).document(userId);
+        }
+        return bulkhead.call(LIKES_COLLECTION, FirestoreOperation.GET_ALL, () -> firestore.getAll(likeRefs))
+                .thenApply(likes -> {
+                    Set<String> liked = new HashSet<>();
+                    for (DocumentSnapshot like : likes) {
+                        if (like.exists()) {
+                            liked.add(like.getReference().getParent().getParent().getId());
+                        }
+                    }
+                    return liked;
+                });
+    }
+
+    // Firestore doesn't cascade deletes, so the subcollections go explicitly
+    @Override
+    public CompletableFuture<Void> deleteLikesAsync(String postId) {
+        DocumentReference postRef = firestore.collection(COLLECTION_NAME).document(postId);
+        return bulkhead.call(LIKES_COLLECTION, FirestoreOperation.RECURSIVE_DELETE, () -> firestore.recursiveDelete(postRef.collection(LIKES_COLLECTION)))
+                .thenCompose(done -> bulkhead.call(LIKES_COLLECTION, FirestoreOperation.RECURSIVE_DELETE,
+                        () -> firestore.recursiveDelete(postRef.collection(SHARDS_COLLECTION))))
+                .thenApply(done -> {
+                    likeCounts.remove(postId);
+                    return null;
+                });
+    }
+
+    // One transaction that reads the post and the like document before writing, so a like
+    // on a missing post writes nothing, a repeated like or unlike changes nothing, and a
+    // post delete can't interleave with a like and leave an orphaned likes subcollection.
+    // A null liked flag toggles. Completes with null when the post doesn't exist.
+    private CompletableFuture<LikeWrite> writeLike(String postId, String userId, Boolean liked) {
+        DocumentReference postRef = firestore.collection(COLLECTION_NAME).document(postId);
+        DocumentReference likeRef = postRef.collection(LIKES_COLLECTION).document(userId);
+        DocumentReference shardRef = postRef.collection(SHARDS_COLLECTION)
+                .document(String.valueOf(ThreadLocalRandom.current().nextInt(shardCount)));
+
+        return bulkhead.call(LIKES_COLLECTION, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                ApiFutures.transform(transaction.getAll(postRef, likeRef), documents -> {
+                    if (!documents.get(0).exists()) {
+                        return null;
+                    }
+                    boolean wasLiked = documents.get(1).exists();
+                    boolean nowLiked = liked != null ? liked : !wasLiked;
+                    if (nowLiked == wasLiked) {
+                        return new LikeWrite(nowLiked, false);
+                    }
+                    if (nowLiked) {
+                        Map<String, Object> like = new HashMap<>();
+                        like.put("userId", userId);
+                        like.put("createdAt", System.currentTimeMillis());
+                        transaction.create(likeRef, like);
+                    } else {
+                        transaction.delete(likeRef);
+                    }
+                    transaction.set(shardRef, Map.of("count", FieldValue.increment(nowLiked ? 1 : -1)), SetOptions.merge());
+                    return new LikeWrite(nowLiked, true);
+                }, MoreExecutors.directExecutor())))
+                .thenApply(written -> {
+                    CachedCount cached = likeCounts.get(postId);
+                    if (written != null && written.changed() && cached != null) {
+                        cached.value.addAndGet(written.liked() ? 1 : -1);
+                    }
+                    return written;
+                });
+    }
+
+    private CompletableFuture<Long> getLikeCount(String postId) {
+        Post post = new Post();
+        post.setPostId(postId);
+        return countLikesAsync(List.of(post)).thenApply(counts -> counts.get(postId));
+    }
+
+    private record LikeWrite(boolean liked, boolean changed) {
+    }
+
+    private static final class CachedCount {
+        private final AtomicLong value;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private CachedCount(long value) {
+            this.value = new AtomicLong(value);
+        }
+
+        private boolean isExpired(long ttlMs) {
+            return System.currentTimeMillis() - loadedAt > ttlMs;
+        }
+    }
+}
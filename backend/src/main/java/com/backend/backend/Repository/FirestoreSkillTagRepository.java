@@ -0,0 +1,100 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.SkillCount;
+import com.google.cloud.firestore.*;
+
+/**
+ * One counter document per skill, skillTags/{tag}, holding the number of posts and
+ * topics tagged with it and their sum. Counters are changed with FieldValue.increment
+ * in the same batch or transaction as the post or topic write, so they move only when
+ * that write commits, and trending skills is one query ordered by count.
+ */
+@Repository
+@Profile("!inmemory")
+public class FirestoreSkillTagRepository implements SkillTagRepository {
+
+    static final String COLLECTION_NAME = "skillTags";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Override
+    public List<SkillCount> findTrending(int limit) {
+        return FirestoreFutures.await(findTrendingAsync(limit), "Error getting trending skills");
+    }
+
+    @Override
+    public CompletableFuture<List<SkillCount>> findTrendingAsync(int limit) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> firestore.collection(COLLECTION_NAME)
+                        .whereGreaterThan("count", 0)
+                        .orderBy("count", Query.Direction.DESCENDING)
+                        .limit(limit)
+                        .get())
+                .thenApply(snapshot -> {
+                    List<SkillCount> trending = new ArrayList<>(snapshot.size());
+                    for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+                        trending.add(new SkillCount(document.getId(), longValue(document.getLong(SkillCounters.POSTS)),
+                                longValue(document.getLong(SkillCounters.TOPICS)), longValue(document.getLong("count"))));
+                    }
+                    return trending;
+                });
+    }
+
+    // Add the counter changes for a post (kind "posts") or topic ("topics") whose skills went
+    // from before to after to a batch or transaction. Returns the counter writes.
+    List<Map<String, Object>> adjust(UpdateBuilder<?> writes, String kind, List<String> before, List<String> after) {
+        return adjust(writes, kind, SkillCounters.changes(before, after));
+    }
+
+    // Count the skills of documents created in bulk: one increment per skill, committed
+    // in batches of up to 500 counters
+    CompletableFuture<Void> incrementAll(String kind, List<List<String>> created) {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (List<String> skills : created) {
+            SkillCounters.changes(null, skills).forEach((skill, delta) -> totals.merge(skill, delta, Long::sum));
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(totals.entrySet());
+        List<CompletableFuture<List<WriteResult>>> commits = new ArrayList<>();
+        for (int start = 0; start < entries.size(); start += FirestoreBulkWriter.MAX_OPERATIONS) {
+            Map<String, Long> chunk = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : entries.subList(start, Math.min(start + FirestoreBulkWriter.MAX_OPERATIONS, entries.size()))) {
+                chunk.put(entry.getKey(), entry.getValue());
+            }
+            WriteBatch batch = firestore.batch();
+            List<Map<String, Object>> written = adjust(batch, kind, chunk);
+            commits.add(bulkhead.call(COLLECTION_NAME, FirestoreOperation.BATCH, written, batch::commit));
+        }
+        return CompletableFuture.allOf(commits.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private List<Map<String, Object>> adjust(UpdateBuilder<?> writes, String kind, Map<String, Long> changes) {
+        List<Map<String, Object>> written = new ArrayList<>(changes.size());
+        changes.forEach((skill, delta) -> {
+            Map<String, Object> counter = new HashMap<>();
+            counter.put("tag", skill);
+            counter.put(kind, FieldValue.increment(delta));
+            counter.put("count", FieldValue.increment(delta));
+            writes.set(firestore.collection(COLLECTION_NAME).document(skill), counter, SetOptions.merge());
+            written.add(counter);
+        });
+        return written;
+    }
+
+    private static long longValue(Long value) {
+        return value != null ? value : 0;
+    }
+}
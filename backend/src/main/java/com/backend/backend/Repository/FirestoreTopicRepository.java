@@ -0,0 +1,294 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Model.Subtopic;
+import com.backend.backend.Model.Topic;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.*;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Writes that change a topic's skills also adjust the skill counters: creates in one
+ * batch with them, and updates naming skills and deletes as transactions that read the
+ * topic's current skills first. Bulk creates count the skills of the topics written
+ * once the BulkWriter is done.
+ *
+ * Subtopics are stored as a map by id, so a subtopic write is a transaction that reads
+ * the topic and updates only the field paths under subtopics.{id} it changes. A document
+ * still in the five-pair layout has its plan rewritten as subtopics by its first one.
+ */
+@Repository
+@Profile("!inmemory")
+public class FirestoreTopicRepository implements TopicRepository {
+
+    private static final String COLLECTION_NAME = "topics";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Autowired
+    private FirestoreSkillTagRepository skillTags;
+
+    @Override
+    public Topic create(Topic topic) {
+        return FirestoreFutures.await(createAsync(topic), "Error creating topic");
+    }
+
+    @Override
+    public Optional<Topic> findById(String id) {
+        return FirestoreFutures.await(findByIdAsync(id), "Error getting topic");
+    }
+
+    @Override
+    public List<Topic> findAllById(List<String> ids) {
+        return FirestoreFutures.await(findAllByIdAsync(ids), "Error getting topics");
+    }
+
+    @Override
+    public List<Topic> findAll() {
+        return FirestoreFutures.await(findAllAsync(), "Error getting all topics");
+    }
+
+    @Override
+    public Page<Topic> findAll(int pageSize, String cursor) {
+        return FirestoreFutures.await(findAllAsync(pageSize, cursor), "Error getting topics page");
+    }
+
+    @Override
+    public List<Topic> findByUserId(String userId) {
+        return FirestoreFutures.await(findByUserIdAsync(userId), "Error getting topics by user");
+    }
+
+    @Override
+    public boolean update(String id, Map<String, Object> fields) {
+        return FirestoreFutures.await(updateAsync(id, fields), "Error updating topic");
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return FirestoreFutures.await(deleteByIdAsync(id), "Error deleting topic");
+    }
+
+    @Override
+    public Map<String, Boolean> updateAll(Map<String, Map<String, Object>> updates) {
+        return FirestoreFutures.await(updateAllAsync(updates), "Error updating topics");
+    }
+
+    @Override
+    public List<BulkItemResult> createAll(List<Topic> topics) {
+        return FirestoreFutures.await(createAllAsync(topics), "Error creating topics");
+    }
+
+    @Override
+    public Optional<Topic> updateSubtopic(String id, String subtopicId, Map<String, Object> values) {
+        return FirestoreFutures.await(updateSubtopicAsync(id, subtopicId, values), "Error updating subtopic");
+    }
+
+    @Override
+    public Optional<Topic> addSubtopic(String id, Subtopic subtopic) {
+        return FirestoreFutures.await(addSubtopicAsync(id, subtopic), "Error adding subtopic");
+    }
+
+    @Override
+    public Optional<Topic> removeSubtopic(String id, String subtopicId) {
+        return FirestoreFutures.await(removeSubtopicAsync(id, subtopicId), "Error removing subtopic");
+    }
+
+    @Override
+    public CompletableFuture<Topic> createAsync(Topic topic) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document();
+        topic.setId(docRef.getId());
+        Map<String, Object> document = topic.toMap();
+        if (topic.getSkills() == null || topic.getSkills().isEmpty()) {
+            return bulkhead.call(COLLECTION_NAME, FirestoreOperation.SET, List.of(document), () -> docRef.set(document))
+                    .thenApply(result -> topic);
+        }
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, document);
+        List<Map<String, Object>> written = new ArrayList<>();
+        written.add(document);
+        written.addAll(skillTags.adjust(batch, SkillCounters.TOPICS, null, topic.getSkills()));
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.BATCH, written, batch::commit)
+                .thenApply(result -> topic);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Topic>> findByIdAsync(String id) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.GET, () -> firestore.collection(COLLECTION_NAME).document(id).get())
+                .thenApply(document -> document.exists()
+                        ? Optional.of(Topic.fromMap(document.getId(), document.getData()))
+                        : Optional.empty());
+    }
+
+    // One batched get for all ids
+    @Override
+    public CompletableFuture<List<Topic>> findAllByIdAsync(List<String> ids) {
+        return FirestoreMultiGet.getAll(firestore, bulkhead, COLLECTION_NAME, ids, Topic::fromMap);
+    }
+
+    @Override
+    public CompletableFuture<List<Topic>> findAllAsync() {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> firestore.collection(COLLECTION_NAME)
+                        .orderBy("createdAt", Query.Direction.DESCENDING)
+                        .get())
+                .thenApply(snapshot -> toTopics(snapshot.getDocuments()));
+    }
+
+    @Override
+    public CompletableFuture<Page<Topic>> findAllAsync(int pageSize, String cursor) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> PageCursor.apply(firestore.collection(COLLECTION_NAME), cursor, pageSize).get())
+                .thenApply(snapshot -> PageCursor.toPage(snapshot.getDocuments(), pageSize, Topic::fromMap));
+    }
+
+    @Override
+    public CompletableFuture<List<Topic>> findByUserIdAsync(String userId) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> firestore.collection(COLLECTION_NAME)
+                        .whereEqualTo("userId", userId)
+                        .orderBy("createdAt", Query.Direction.DESCENDING)
+                        .get())
+                .thenApply(snapshot -> toTopics(snapshot.getDocuments()));
+    }
+
+    // One RPC that writes only the given fields; update fails with NOT_FOUND instead of
+    // recreating a deleted document. Changing skills needs the old ones, so that runs as
+    // a transaction instead.
+    @Override
+    public CompletableFuture<Boolean> updateAsync(String id, Map<String, Object> fields) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        if (!fields.containsKey("skills")) {
+            return FirestoreFutures.ifExists(bulkhead.call(COLLECTION_NAME, FirestoreOperation.UPDATE, List.of(fields),
+                    () -> docRef.update(fields)));
+        }
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                ApiFutures.transform(transaction.get(docRef), document -> {
+                    if (!document.exists()) {
+                        return false;
+                    }
+                    transaction.update(docRef, fields);
+                    skillTags.adjust(transaction, SkillCounters.TOPICS,
+                            Post.readSkills(document.get("skills")), Post.readSkills(fields.get("skills")));
+                    return true;
+                }, MoreExecutors.directExecutor())));
+    }
+
+    // Through a BulkWriter, which batches the updates. Skill counters are not adjusted here,
+    // so it must not be used to change skills.
+    @Override
+    public CompletableFuture<Map<String, Boolean>> updateAllAsync(Map<String, Map<String, Object>> updates) {
+        return FirestoreBulkWriter.updateAll(firestore, bulkhead, COLLECTION_NAME, updates);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteByIdAsync(String id) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                ApiFutures.transform(transaction.get(docRef), document -> {
+                    if (!document.exists()) {
+                        return false;
+                    }
+                    transaction.delete(docRef);
+                    skillTags.adjust(transaction, SkillCounters.TOPICS, Post.readSkills(document.get("skills")), null);
+                    return true;
+                }, MoreExecutors.directExecutor())));
+    }
+
+    @Override
+    public CompletableFuture<List<BulkItemResult>> createAllAsync(List<Topic> topics) {
+        List<Map<String, Object>> documents = new ArrayList<>(topics.size());
+        for (Topic topic : topics) {
+            documents.add(topic.toMap());
+        }
+        return FirestoreBulkWriter.create(firestore, bulkhead, COLLECTION_NAME, documents)
+                .thenCompose(results -> {
+                    List<List<String>> created = new ArrayList<>();
+                    for (BulkItemResult result : results) {
+                        if (result.isSuccess()) {
+                            created.add(topics.get(result.getIndex()).getSkills());
+                        }
+                    }
+                    return skillTags.incrementAll(SkillCounters.TOPICS, created).thenApply(done -> results);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Topic>> updateSubtopicAsync(String id, String subtopicId, Map<String, Object> values) {
+        return changeSubtopics(id, topic -> {
+            if (!topic.updateSubtopic(subtopicId, values)) {
+                return null;
+            }
+            Map<String, Object> changes = new HashMap<>();
+            values.forEach((name, value) -> changes.put(subtopicId + "." + name, value));
+            return changes;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Topic>> addSubtopicAsync(String id, Subtopic subtopic) {
+        return changeSubtopics(id, topic -> {
+            Subtopic added = topic.addSubtopic(subtopic);
+            return Map.of(added.getId(), added.toMap());
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Topic>> removeSubtopicAsync(String id, String subtopicId) {
+        return changeSubtopics(id, topic -> topic.removeSubtopic(subtopicId)
+                ? Map.of(subtopicId, FieldValue.delete())
+                : null);
+    }
+
+    // change edits the topic's subtopics and returns the values to write by their path under
+    // subtopics, or null when there is nothing to change
+    private CompletableFuture<Optional<Topic>> changeSubtopics(String id, Function<Topic, Map<String, Object>> change) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                ApiFutures.transform(transaction.get(docRef), document -> {
+                    if (!document.exists()) {
+                        return Optional.<Topic>empty();
+                    }
+                    Topic topic = Topic.fromMap(document.getId(), document.getData());
+                    Map<String, Object> changes = change.apply(topic);
+                    if (changes == null) {
+                        return Optional.<Topic>empty();
+                    }
+                    transaction.update(docRef, subtopicFields(document, topic, changes));
+                    return Optional.of(topic);
+                }, MoreExecutors.directExecutor())));
+    }
+
+    private static Map<String, Object> subtopicFields(DocumentSnapshot document, Topic topic, Map<String, Object> changes) {
+        Map<String, Object> fields = new HashMap<>();
+        if (document.get(Topic.SUBTOPICS) instanceof Map) {
+            changes.forEach((path, value) -> fields.put(Topic.SUBTOPICS + "." + path, value));
+            return fields;
+        }
+        fields.put(Topic.SUBTOPICS, Topic.subtopicsMap(topic.getSubtopics()));
+        Topic.clearPairs(fields);
+        return fields;
+    }
+
+    private List<Topic> toTopics(List<QueryDocumentSnapshot> documents) {
+        List<Topic> topics = new ArrayList<>(documents.size());
+        for (QueryDocumentSnapshot document : documents) {
+            topics.add(Topic.fromMap(document.getId(), document.getData()));
+        }
+        return topics;
+    }
+}
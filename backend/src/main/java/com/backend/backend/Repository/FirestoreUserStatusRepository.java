@@ -0,0 +1,162 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.UserStatus;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.*;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Repository
+@Profile("!inmemory")
+public class FirestoreUserStatusRepository implements UserStatusRepository {
+
+    private static final String COLLECTION_NAME = "userStatuses";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FirestoreBulkhead bulkhead;
+
+    @Override
+    public UserStatus create(UserStatus userStatus) {
+        return FirestoreFutures.await(createAsync(userStatus), "Error creating user status");
+    }
+
+    @Override
+    public Optional<UserStatus> findById(String id) {
+        return FirestoreFutures.await(findByIdAsync(id), "Error getting user status");
+    }
+
+    @Override
+    public List<UserStatus> findAllById(List<String> ids) {
+        return FirestoreFutures.await(findAllByIdAsync(ids), "Error getting user statuses");
+    }
+
+    @Override
+    public List<UserStatus> findAll() {
+        return FirestoreFutures.await(findAllAsync(), "Error getting all user statuses");
+    }
+
+    @Override
+    public Page<UserStatus> findAll(int pageSize, String cursor) {
+        return FirestoreFutures.await(findAllAsync(pageSize, cursor), "Error getting user statuses page");
+    }
+
+    @Override
+    public List<UserStatus> findByUserId(String userId) {
+        return FirestoreFutures.await(findByUserIdAsync(userId), "Error getting statuses by user");
+    }
+
+    @Override
+    public boolean update(String id, Map<String, Object> fields) {
+        return FirestoreFutures.await(updateAsync(id, fields), "Error updating user status");
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return FirestoreFutures.await(deleteByIdAsync(id), "Error deleting user status");
+    }
+
+    @Override
+    public List<BulkItemResult> createAll(List<UserStatus> statuses) {
+        return FirestoreFutures.await(createAllAsync(statuses), "Error creating user statuses");
+    }
+
+    @Override
+    public CompletableFuture<UserStatus> createAsync(UserStatus userStatus) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document();
+        userStatus.setId(docRef.getId());
+        Map<String, Object> document = userStatus.toMap();
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.SET, List.of(document), () -> docRef.set(document))
+                .thenApply(result -> userStatus);
+    }
+
+    @Override
+    public CompletableFuture<Optional<UserStatus>> findByIdAsync(String id) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.GET, () -> firestore.collection(COLLECTION_NAME).document(id).get())
+                .thenApply(document -> document.exists()
+                        ? Optional.of(UserStatus.fromMap(document.getId(), document.getData()))
+                        : Optional.empty());
+    }
+
+    // One batched get for all ids
+    @Override
+    public CompletableFuture<List<UserStatus>> findAllByIdAsync(List<String> ids) {
+        return FirestoreMultiGet.getAll(firestore, bulkhead, COLLECTION_NAME, ids, UserStatus::fromMap);
+    }
+
+    @Override
+    public CompletableFuture<List<UserStatus>> findAllAsync() {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> firestore.collection(COLLECTION_NAME)
+                        .orderBy("createdAt", Query.Direction.DESCENDING)
+                        .get())
+                .thenApply(snapshot -> toStatuses(snapshot.getDocuments()));
+    }
+
+    @Override
+    public CompletableFuture<Page<UserStatus>> findAllAsync(int pageSize, String cursor) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> PageCursor.apply(firestore.collection(COLLECTION_NAME), cursor, pageSize).get())
+                .thenApply(snapshot -> PageCursor.toPage(snapshot.getDocuments(), pageSize, UserStatus::fromMap));
+    }
+
+    @Override
+    public CompletableFuture<List<UserStatus>> findByUserIdAsync(String userId) {
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.QUERY, () -> firestore.collection(COLLECTION_NAME)
+                        .whereEqualTo("userId", userId)
+                        .orderBy("createdAt", Query.Direction.DESCENDING)
+                        .get())
+                .thenApply(snapshot -> toStatuses(snapshot.getDocuments()));
+    }
+
+    // One RPC that writes only the given fields; update fails with NOT_FOUND instead of
+    // recreating a deleted document
+    @Override
+    public CompletableFuture<Boolean> updateAsync(String id, Map<String, Object> fields) {
+        return FirestoreFutures.ifExists(bulkhead.call(COLLECTION_NAME, FirestoreOperation.UPDATE, List.of(fields),
+                () -> firestore.collection(COLLECTION_NAME).document(id).update(fields)));
+    }
+
+    // A plain delete succeeds whether or not the document exists, so whether it existed
+    // is read in the same transaction
+    @Override
+    public CompletableFuture<Boolean> deleteByIdAsync(String id) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        return bulkhead.call(COLLECTION_NAME, FirestoreOperation.TRANSACTION, () -> firestore.runAsyncTransaction(transaction ->
+                ApiFutures.transform(transaction.get(docRef), document -> {
+                    if (!document.exists()) {
+                        return false;
+                    }
+                    transaction.delete(docRef);
+                    return true;
+                }, MoreExecutors.directExecutor())));
+    }
+
+    @Override
+    public CompletableFuture<List<BulkItemResult>> createAllAsync(List<UserStatus> statuses) {
+        List<Map<String, Object>> documents = new ArrayList<>(statuses.size());
+        for (UserStatus userStatus : statuses) {
+            documents.add(userStatus.toMap());
+        }
+        return FirestoreBulkWriter.create(firestore, bulkhead, COLLECTION_NAME, documents);
+    }
+
+    private List<UserStatus> toStatuses(List<QueryDocumentSnapshot> documents) {
+        List<UserStatus> statuses = new ArrayList<>(documents.size());
+        for (QueryDocumentSnapshot document : documents) {
+            statuses.add(UserStatus.fromMap(document.getId(), document.getData()));
+        }
+        return statuses;
+    }
+}
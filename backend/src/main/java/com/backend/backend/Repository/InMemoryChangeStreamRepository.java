@@ -0,0 +1,79 @@
+package com.backend.backend.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.ChangeEvent;
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Post;
+
+/**
+ * The in-memory repositories report their writes here, standing in for Firestore's
+ * snapshot listeners. There is no window on the posts feed, so every post change is
+ * delivered and nothing is reported as leaving it. Posts that exist before a
+ * listenToPostsSince sink registers are not replayed to it.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryChangeStreamRepository implements ChangeStreamRepository {
+
+    private final Set<ChangeSink<Post>> postSinks = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<ChangeSink<Comment>>> commentSinks = new ConcurrentHashMap<>();
+
+    @Override
+    public Runnable listenToLatestPosts(int window, ChangeSink<Post> sink) {
+        postSinks.add(sink);
+        return () -> postSinks.remove(sink);
+    }
+
+    // Removals have no post to compare, so they are always delivered
+    @Override
+    public Runnable listenToPostsSince(LocalDateTime since, ChangeSink<Post> sink) {
+        ChangeSink<Post> filtered = new ChangeSink<>() {
+            @Override
+            public void onChanges(List<ChangeEvent<Post>> changes) {
+                ChangeEvent<Post> change = changes.get(0);
+                if (change.getData() == null || change.getData().getCreatedAt() == null
+                        || !change.getData().getCreatedAt().isBefore(since)) {
+                    sink.onChanges(changes);
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                sink.onError(error);
+            }
+        };
+        postSinks.add(filtered);
+        return () -> postSinks.remove(filtered);
+    }
+
+    @Override
+    public Runnable listenToComments(String postId, ChangeSink<Comment> sink) {
+        commentSinks.computeIfAbsent(postId, id -> ConcurrentHashMap.newKeySet()).add(sink);
+        return () -> commentSinks.computeIfPresent(postId, (id, sinks) -> {
+            sinks.remove(sink);
+            return sinks.isEmpty() ? null : sinks;
+        });
+    }
+
+    // A null post reports its removal
+    void postChanged(String type, String postId, Post post) {
+        List<ChangeEvent<Post>> changes = List.of(new ChangeEvent<>(type, postId, post));
+        postSinks.forEach(sink -> sink.onChanges(changes));
+    }
+
+    void commentChanged(String type, String postId, String commentId, Comment comment) {
+        Set<ChangeSink<Comment>> sinks = postId != null ? commentSinks.get(postId) : null;
+        if (sinks != null) {
+            List<ChangeEvent<Comment>> changes = List.of(new ChangeEvent<>(type, commentId, comment));
+            sinks.forEach(sink -> sink.onChanges(changes));
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.backend.backend.Model.Page;
+import com.google.cloud.Timestamp;
+
+/**
+ * Concurrent document store behind the in-memory repositories. Documents are kept in
+ * their Firestore map form and indexed by (field, createdAt DESC, id DESC), mirroring
+ * the composite indexes in firebase/firestore.indexes.json, so range scans and cursors
+ * behave like the Firestore queries they stand in for.
+ */
+final class InMemoryCollection {
+
+    private static final String ORDER_FIELD = "createdAt";
+    private static final String ALL = "";
+    private static final String ID_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    // Sorts before every real createdAt value in a descending scan
+    private static final Object TOP = new Object();
+
+    private static final Comparator<IndexKey> INDEX_ORDER = Comparator
+            .comparing((IndexKey key) -> key.partition)
+            .thenComparing((a, b) -> compareValues(b.createdAt, a.createdAt))
+            .thenComparing((IndexKey key) -> key.id, Comparator.reverseOrder());
+
+    private final Map<String, Map<String, Object>> documents = new ConcurrentHashMap<>();
+    private final NavigableSet<IndexKey> createdAtIndex = new ConcurrentSkipListSet<>(INDEX_ORDER);
+    private final Map<String, NavigableSet<IndexKey>> fieldIndexes = new HashMap<>();
+
+    InMemoryCollection(String... indexedFields) {
+        for (String field : indexedFields) {
+            fieldIndexes.put(field, new ConcurrentSkipListSet<>(INDEX_ORDER));
+        }
+    }
+
+    // Firestore-style 20 character auto id
+    String newId() {
+        StringBuilder id = new StringBuilder(20);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 20; i++) {
+            id.append(ID_CHARS.charAt(random.nextInt(ID_CHARS.length())));
+        }
+        return id.toString();
+    }
+
+    Map<String, Object> get(String id) {
+        Map<String, Object> document = documents.get(id);
+        return document != null ? copy(document) : null;
+    }
+
+    boolean exists(String id) {
+        return documents.containsKey(id);
+    }
+
+    void put(String id, Map<String, Object> data) {
+        Map<String, Object> document = copy(data);
+        documents.compute(id, (key, previous) -> {
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            index(id, document);
+            return document;
+        });
+    }
+
+    // Merge fields into an existing document, like Firestore's update(); false when it doesn't exist
+    boolean update(String id, Map<String, Object> fields) {
+        Map<String, Object> changes = copy(fields);
+        boolean[] updated = new boolean[1];
+        documents.computeIfPresent(id, (key, previous) -> {
+            Map<String, Object> document = new HashMap<>(previous);
+            document.putAll(changes);
+            unindex(id, previous);
+            index(id, document);
+            updated[0] = true;
+            return document;
+        });
+        return updated[0];
+    }
+
+    // Merge fields computed from the current document. Other writes to the document wait until
+    // this one is done, so the function may also write related documents as one atomic step.
+    boolean updateWith(String id, Function<Map<String, Object>, Map<String, Object>> changes) {
+        boolean[] updated = new boolean[1];
+        documents.computeIfPresent(id, (key, previous) -> {
+            Map<String, Object> document = new HashMap<>(previous);
+            document.putAll(copy(changes.apply(copy(previous))));
+            unindex(id, previous);
+            index(id, document);
+            updated[0] = true;
+            return document;
+        });
+        return updated[0];
+    }
+
+    boolean remove(String id) {
+        return take(id) != null;
+    }
+
+    // Remove a document and return what it held; null when it didn't exist
+    Map<String, Object> take(String id) {
+        List<Map<String, Object>> removed = new ArrayList<>(1);
+        documents.computeIfPresent(id, (key, previous) -> {
+            unindex(id, previous);
+            removed.add(previous);
+            return null;
+        });
+        return removed.isEmpty() ? null : removed.get(0);
+    }
+
+    // Drop the oldest documents until at most maxSize remain
+    void trim(int maxSize) {
+        while (documents.size() > maxSize) {
+            IndexKey oldest = createdAtIndex.pollLast();
+            if (oldest == null) {
+                return;
+            }
+            remove(oldest.id);
+        }
+    }
+
+    // Documents in index order, optionally restricted to field == value (or containing value, for
+    // a list field) and positioned after a cursor.
+    // A negative limit scans to the end of the range.
+    <T> List<T> scan(String field, String value, String cursor, int limit,
+                     BiFunction<String, Map<String, Object>, T> mapper) {
+        List<T> results = new ArrayList<>();
+        List<IndexKey> keys = scanKeys(field, value, cursor, limit);
+        for (IndexKey key : keys) {
+            Map<String, Object> document = documents.get(key.id);
+            if (document != null) {
+                results.add(mapper.apply(key.id, copy(document)));
+            }
+        }
+        return results;
+    }
+
+    <T> Page<T> page(String field, String value, String cursor, int pageSize,
+                     BiFunction<String, Map<String, Object>, T> mapper) {
+        List<IndexKey> keys = scanKeys(field, value, cursor, pageSize + 1);
+        int count = Math.min(keys.size(), pageSize);
+        List<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            IndexKey key = keys.get(i);
+            Map<String, Object> document = documents.get(key.id);
+            if (document != null) {
+                items.add(mapper.apply(key.id, copy(document)));
+            }
+        }
+        String nextCursor = null;
+        if (keys.size() > pageSize) {
+            IndexKey last = keys.get(pageSize - 1);
+            nextCursor = PageCursor.encode(last.createdAt, last.id);
+        }
+        return new Page<>(items, nextCursor);
+    }
+
+    private List<IndexKey> scanKeys(String field, String value, String cursor, int limit) {
+        NavigableSet<IndexKey> index = field == null ? createdAtIndex : fieldIndexes.get(field);
+        if (index == null) {
+            throw new IllegalArgumentException("No index on " + field);
+        }
+        String partition = field == null ? ALL : String.valueOf(value);
+        NavigableSet<IndexKey> range;
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor position = PageCursor.decode(cursor);
+            range = index.tailSet(new IndexKey(partition, position.getCreatedAt(), position.getId()), false);
+        } else {
+            range = index.tailSet(new IndexKey(partition, TOP, ""), true);
+        }
+
+        List<IndexKey> keys = new ArrayList<>();
+        for (IndexKey key : range) {
+            if (!key.partition.equals(partition) || (limit >= 0 && keys.size() >= limit)) {
+                break;
+            }
+            // Skip entries whose document changed or disappeared after we started the scan
+            Map<String, Object> document = documents.get(key.id);
+            if (document != null && Objects.equals(document.get(ORDER_FIELD), key.createdAt)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private void index(String id, Map<String, Object> document) {
+        Object createdAt = document.get(ORDER_FIELD);
+        createdAtIndex.add(new IndexKey(ALL, createdAt, id));
+        for (Map.Entry<String, NavigableSet<IndexKey>> index : fieldIndexes.entrySet()) {
+            for (String partition : partitions(document.get(index.getKey()))) {
+                index.getValue().add(new IndexKey(partition, createdAt, id));
+            }
+        }
+    }
+
+    private void unindex(String id, Map<String, Object> document) {
+        Object createdAt = document.get(ORDER_FIELD);
+        createdAtIndex.remove(new IndexKey(ALL, createdAt, id));
+        for (Map.Entry<String, NavigableSet<IndexKey>> index : fieldIndexes.entrySet()) {
+            for (String partition : partitions(document.get(index.getKey()))) {
+                index.getValue().remove(new IndexKey(partition, createdAt, id));
+            }
+        }
+    }
+
+    // A list field is indexed once per distinct element, so scanning a partition matches
+    // Firestore's array-contains
+    private static Set<String> partitions(Object value) {
+        if (value instanceof List) {
+            Set<String> partitions = new HashSet<>();
+            for (Object element : (List<?>) value) {
+                partitions.add(String.valueOf(element));
+            }
+            return partitions;
+        }
+        return Set.of(String.valueOf(value));
+    }
+
+    // Deep copy so callers never share mutable lists or maps with the store
+    private static Map<String, Object> copy(Map<String, Object> source) {
+        Map<String, Object> copy = new HashMap<>(source.size() * 2);
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            copy.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        if (value instanceof Map) {
+            return copy((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>(((List<Object>) value).size());
+            for (Object element : (List<Object>) value) {
+                list.add(copyValue(element));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    // Firestore orders mixed types by type first: null < boolean < number < timestamp < string
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareValues(Object a, Object b) {
+        int rankA = typeRank(a);
+        int rankB = typeRank(b);
+        if (rankA != rankB) {
+            return Integer.compare(rankA, rankB);
+        }
+        if (a == null || a == TOP) {
+            return 0;
+        }
+        if (a instanceof Number) {
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        }
+        if (a instanceof Comparable) {
+            return ((Comparable) a).compareTo(b);
+        }
+        return 0;
+    }
+
+    private static int typeRank(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof Number) {
+            return 2;
+        }
+        if (value instanceof Timestamp) {
+            return 3;
+        }
+        if (value instanceof String) {
+            return 4;
+        }
+        if (value == TOP) {
+            return Integer.MAX_VALUE;
+        }
+        return 5;
+    }
+
+    private static final class IndexKey {
+        private final String partition;
+        private final Object createdAt;
+        private final String id;
+
+        private IndexKey(String partition, Object createdAt, String id) {
+            this.partition = partition;
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+}
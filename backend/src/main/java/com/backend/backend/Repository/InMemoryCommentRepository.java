@@ -0,0 +1,119 @@
+package com.backend.backend.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Page;
+
+/**
+ * Comment writes run inside the post's update, so the comment and the post's
+ * commentCount and latestComments change together, like a Firestore transaction.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryCommentRepository implements CommentRepository {
+
+    private final InMemoryCollection comments = new InMemoryCollection("postId", "userId");
+
+    @Autowired
+    private InMemoryPostRepository postRepository;
+
+    @Autowired
+    private InMemoryChangeStreamRepository changeStream;
+
+    @Value("${posts.comments.preview-size:3}")
+    private int previewSize;
+
+    @Override
+    public Comment create(Comment comment) {
+        comment.setId(comments.newId());
+        boolean onPost = comment.getPostId() != null && postRepository.updateWith(comment.getPostId(), post -> {
+            comments.put(comment.getId(), comment.toMap());
+            return CommentSummary.isSummarized(post)
+                    ? CommentSummary.afterAdd(post, List.of(comment), previewSize)
+                    : CommentSummary.rebuilt(findByPostId(comment.getPostId()), List.of(comment), null, previewSize);
+        });
+        if (!onPost) {
+            comments.put(comment.getId(), comment.toMap());
+        }
+        changeStream.commentChanged("added", comment.getPostId(), comment.getId(), comment);
+        return comment;
+    }
+
+    @Override
+    public Optional<Comment> findById(String commentId) {
+        return Optional.ofNullable(comments.get(commentId)).map(document -> Comment.fromMap(commentId, document));
+    }
+
+    @Override
+    public List<Comment> findByPostId(String postId) {
+        return comments.scan("postId", postId, null, -1, Comment::fromMap);
+    }
+
+    @Override
+    public Page<Comment> findByPostId(String postId, int pageSize, String cursor) {
+        return comments.page("postId", postId, cursor, pageSize, Comment::fromMap);
+    }
+
+    @Override
+    public Optional<Comment> update(String commentId, Map<String, Object> fields) {
+        Map<String, Object> current = comments.get(commentId);
+        if (current == null) {
+            return Optional.empty();
+        }
+        String postId = (String) current.get("postId");
+        boolean[] updated = new boolean[1];
+        boolean onPost = postId != null && postRepository.updateWith(postId, post -> {
+            updated[0] = comments.update(commentId, fields);
+            return updated[0] ? CommentSummary.afterEdit(post, commentId, fields) : Map.of();
+        });
+        if (!onPost) {
+            updated[0] = comments.update(commentId, fields);
+        }
+        if (!updated[0]) {
+            return Optional.empty();
+        }
+        Optional<Comment> comment = findById(commentId);
+        comment.ifPresent(written -> changeStream.commentChanged("modified", postId, commentId, written));
+        return comment;
+    }
+
+    @Override
+    public Optional<Comment> deleteById(String commentId) {
+        Map<String, Object> current = comments.get(commentId);
+        if (current == null) {
+            return Optional.empty();
+        }
+        Comment comment = Comment.fromMap(commentId, current);
+        String postId = comment.getPostId();
+        boolean[] removed = new boolean[1];
+        boolean onPost = postId != null && postRepository.updateWith(postId, post -> {
+            removed[0] = comments.remove(commentId);
+            if (!removed[0]) {
+                return Map.of();
+            }
+            if (!CommentSummary.isSummarized(post)) {
+                return CommentSummary.rebuilt(findByPostId(postId), List.of(), commentId, previewSize);
+            }
+            List<Comment> latest = CommentSummary.inPreview(post, commentId)
+                    ? comments.scan("postId", postId, null, previewSize, Comment::fromMap)
+                    : null;
+            return CommentSummary.afterRemove(post, commentId, latest, previewSize);
+        });
+        if (!onPost) {
+            removed[0] = comments.remove(commentId);
+        }
+        if (!removed[0]) {
+            return Optional.empty();
+        }
+        changeStream.commentChanged("removed", postId, commentId, null);
+        return Optional.of(comment);
+    }
+}
@@ -0,0 +1,92 @@
+package com.backend.backend.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+
+/**
+ * One bounded timeline per user, each an InMemoryCollection ordered like the Firestore
+ * subcollection it stands in for. No user profiles are kept in memory, so authors have
+ * no audience and every feed holds the user's own posts.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryFeedRepository implements FeedRepository {
+
+    private static final InMemoryCollection EMPTY = new InMemoryCollection();
+
+    private final Map<String, InMemoryCollection> timelines = new ConcurrentHashMap<>();
+    private final Set<String> fanOutOnReadAuthors = ConcurrentHashMap.newKeySet();
+
+    @Value("${feed.timeline.max-entries:1000}")
+    private int maxEntries;
+
+    @Override
+    public Set<String> findAudience(String authorId) {
+        return Set.of();
+    }
+
+    @Override
+    public Set<String> findSources(String userId) {
+        return Set.of();
+    }
+
+    @Override
+    public Set<String> findFanOutOnReadAuthors(Collection<String> authorIds) {
+        Set<String> found = new HashSet<>();
+        for (String authorId : authorIds) {
+            if (fanOutOnReadAuthors.contains(authorId)) {
+                found.add(authorId);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void markFanOutOnRead(String authorId) {
+        fanOutOnReadAuthors.add(authorId);
+    }
+
+    @Override
+    public void append(Collection<String> userIds, Post post) {
+        Map<String, Object> entry = toEntry(post);
+        for (String userId : userIds) {
+            InMemoryCollection timeline = timelines.computeIfAbsent(userId, id -> new InMemoryCollection());
+            timeline.put(post.getPostId(), entry);
+            timeline.trim(maxEntries);
+        }
+    }
+
+    @Override
+    public Page<String> findTimeline(String userId, int pageSize, String cursor) {
+        return timelines.getOrDefault(userId, EMPTY).page(null, null, cursor, pageSize, (postId, entry) -> postId);
+    }
+
+    @Override
+    public void remove(String userId, Collection<String> postIds) {
+        InMemoryCollection timeline = timelines.get(userId);
+        if (timeline != null) {
+            for (String postId : postIds) {
+                timeline.remove(postId);
+            }
+        }
+    }
+
+    private Map<String, Object> toEntry(Post post) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("postId", post.getPostId());
+        entry.put("authorId", post.getUserId());
+        entry.put("createdAt", post.toMap().get("createdAt"));
+        return entry;
+    }
+}
@@ -0,0 +1,84 @@
+package com.backend.backend.Repository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.LikeResult;
+import com.backend.backend.Model.Post;
+
+/**
+ * Per-post concurrent sets of likers, the in-memory analogue of the sharded layout.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryLikeRepository implements LikeRepository {
+
+    private final Map<String, Set<String>> likesByPost = new ConcurrentHashMap<>();
+
+    @Autowired
+    private InMemoryPostRepository postRepository;
+
+    @Override
+    public LikeResult like(String postId, String userId, Boolean liked) {
+        if (!postRepository.exists(postId)) {
+            return null;
+        }
+        Set<String> likes = likesByPost.computeIfAbsent(postId, key -> ConcurrentHashMap.newKeySet());
+        boolean nowLiked;
+        boolean changed;
+        if (liked == null) {
+            nowLiked = likes.add(userId);
+            if (!nowLiked) {
+                likes.remove(userId);
+            }
+            changed = true;
+        } else if (liked) {
+            changed = likes.add(userId);
+            nowLiked = true;
+        } else {
+            changed = likes.remove(userId);
+            nowLiked = false;
+        }
+        return new LikeResult(postId, nowLiked, likes.size(), changed);
+    }
+
+    @Override
+    public Map<String, Long> countLikes(List<Post> posts) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Post post : posts) {
+            Set<String> likes = likesByPost.get(post.getPostId());
+            counts.put(post.getPostId(), likes != null ? (long) likes.size() : 0L);
+        }
+        return counts;
+    }
+
+    @Override
+    public Set<String> findLikedPostIds(List<Post> posts, String userId) {
+        Set<String> liked = new HashSet<>();
+        for (Post post : posts) {
+            Set<String> likes = likesByPost.get(post.getPostId());
+            if (likes != null && likes.contains(userId)) {
+                liked.add(post.getPostId());
+            }
+        }
+        return liked;
+    }
+
+    @Override
+    public boolean keepsLikesOnPost() {
+        return false;
+    }
+
+    @Override
+    public void deleteLikes(String postId) {
+        likesByPost.remove(postId);
+    }
+}
@@ -0,0 +1,118 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryPostRepository implements PostRepository {
+
+    private final InMemoryCollection posts = new InMemoryCollection("userId", "skills");
+
+    @Autowired
+    private InMemoryChangeStreamRepository changeStream;
+
+    @Autowired
+    private InMemorySkillTagRepository skillTags;
+
+    @Override
+    public Post create(Post post) {
+        post.setPostId(posts.newId());
+        posts.put(post.getPostId(), post.toMap());
+        skillTags.adjust(SkillCounters.POSTS, null, post.getSkills());
+        changeStream.postChanged("added", post.getPostId(), post);
+        return post;
+    }
+
+    @Override
+    public Optional<Post> findById(String postId) {
+        return Optional.ofNullable(posts.get(postId)).map(document -> Post.fromMap(postId, document));
+    }
+
+    @Override
+    public List<Post> findAll() {
+        return posts.scan(null, null, null, -1, Post::fromMap);
+    }
+
+    @Override
+    public Page<Post> findAll(int pageSize, String cursor) {
+        return posts.page(null, null, cursor, pageSize, Post::fromMap);
+    }
+
+    @Override
+    public List<Post> findByUserId(String userId) {
+        return posts.scan("userId", userId, null, -1, Post::fromMap);
+    }
+
+    @Override
+    public Page<Post> findByUserId(String userId, int pageSize, String cursor) {
+        return posts.page("userId", userId, cursor, pageSize, Post::fromMap);
+    }
+
+    @Override
+    public Page<Post> findByUserIds(Collection<String> userIds, int pageSize, String cursor) {
+        List<Page<Post>> pages = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            pages.add(posts.page("userId", userId, cursor, pageSize, Post::fromMap));
+        }
+        return PostRepository.mergePages(pages, pageSize);
+    }
+
+    @Override
+    public Page<Post> findBySkills(Collection<String> skills, int pageSize, String cursor) {
+        List<Page<Post>> pages = new ArrayList<>(skills.size());
+        for (String skill : skills) {
+            pages.add(posts.page("skills", skill, cursor, pageSize, Post::fromMap));
+        }
+        return pages.size() == 1 ? pages.get(0) : PostRepository.mergePages(pages, pageSize);
+    }
+
+    @Override
+    public boolean update(String postId, Map<String, Object> fields) {
+        if (!fields.containsKey("skills")) {
+            return modified(postId, posts.update(postId, fields));
+        }
+        return updateWith(postId, previous -> {
+            skillTags.adjust(SkillCounters.POSTS, Post.readSkills(previous.get("skills")), Post.readSkills(fields.get("skills")));
+            return fields;
+        });
+    }
+
+    @Override
+    public boolean deleteById(String postId) {
+        Map<String, Object> deleted = posts.take(postId);
+        if (deleted == null) {
+            return false;
+        }
+        skillTags.adjust(SkillCounters.POSTS, Post.readSkills(deleted.get("skills")), null);
+        changeStream.postChanged("removed", postId, null);
+        return true;
+    }
+
+    boolean exists(String postId) {
+        return posts.exists(postId);
+    }
+
+    // Update a post from its current contents while other writes to it wait
+    boolean updateWith(String postId, Function<Map<String, Object>, Map<String, Object>> changes) {
+        return modified(postId, posts.updateWith(postId, changes));
+    }
+
+    private boolean modified(String postId, boolean updated) {
+        if (updated) {
+            findById(postId).ifPresent(post -> changeStream.postChanged("modified", postId, post));
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,33 @@
+package com.backend.backend.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.RankingCheckpoint;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryRankingRepository implements RankingRepository {
+
+    private final Map<String, RankingCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<RankingCheckpoint> find(String window) {
+        return Optional.ofNullable(checkpoints.get(window)).map(InMemoryRankingRepository::copy);
+    }
+
+    @Override
+    public void save(RankingCheckpoint checkpoint) {
+        checkpoints.put(checkpoint.getWindow(), copy(checkpoint));
+    }
+
+    private static RankingCheckpoint copy(RankingCheckpoint checkpoint) {
+        return new RankingCheckpoint(checkpoint.getWindow(), checkpoint.getHalfLifeMillis(), checkpoint.getEpoch(),
+                checkpoint.getSavedAt(), new LinkedHashMap<>(checkpoint.getScores()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.SkillCount;
+
+@Repository
+@Profile("inmemory")
+public class InMemorySkillTagRepository implements SkillTagRepository {
+
+    private static final Comparator<SkillCount> TRENDING = Comparator.comparingLong(SkillCount::getCount).reversed()
+            .thenComparing(SkillCount::getSkill);
+
+    private final Map<String, SkillCount> counts = new HashMap<>();
+
+    @Override
+    public synchronized List<SkillCount> findTrending(int limit) {
+        List<SkillCount> trending = new ArrayList<>();
+        for (SkillCount count : counts.values()) {
+            if (count.getCount() > 0) {
+                trending.add(new SkillCount(count.getSkill(), count.getPosts(), count.getTopics(), count.getCount()));
+            }
+        }
+        trending.sort(TRENDING);
+        return trending.size() > limit ? new ArrayList<>(trending.subList(0, limit)) : trending;
+    }
+
+    // A post (kind "posts") or topic ("topics") went from the skills before to the skills after
+    synchronized void adjust(String kind, List<String> before, List<String> after) {
+        SkillCounters.changes(before, after).forEach((skill, delta) -> {
+            SkillCount count = counts.computeIfAbsent(skill, tag -> new SkillCount(tag, 0, 0, 0));
+            if (SkillCounters.POSTS.equals(kind)) {
+                count.setPosts(count.getPosts() + delta);
+            } else {
+                count.setTopics(count.getTopics() + delta);
+            }
+            count.setCount(count.getCount() + delta);
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.backend.backend.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Model.Subtopic;
+import com.backend.backend.Model.Topic;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryTopicRepository implements TopicRepository {
+
+    private final InMemoryCollection topics = new InMemoryCollection("userId");
+
+    @Autowired
+    private InMemorySkillTagRepository skillTags;
+
+    @Override
+    public Topic create(Topic topic) {
+        topic.setId(topics.newId());
+        topics.put(topic.getId(), topic.toMap());
+        skillTags.adjust(SkillCounters.TOPICS, null, topic.getSkills());
+        return topic;
+    }
+
+    @Override
+    public Optional<Topic> findById(String id) {
+        return Optional.ofNullable(topics.get(id)).map(document -> Topic.fromMap(id, document));
+    }
+
+    @Override
+    public List<Topic> findAll() {
+        return topics.scan(null, null, null, -1, Topic::fromMap);
+    }
+
+    @Override
+    public Page<Topic> findAll(int pageSize, String cursor) {
+        return topics.page(null, null, cursor, pageSize, Topic::fromMap);
+    }
+
+    @Override
+    public List<Topic> findByUserId(String userId) {
+        return topics.scan("userId", userId, null, -1, Topic::fromMap);
+    }
+
+    @Override
+    public boolean update(String id, Map<String, Object> fields) {
+        if (!fields.containsKey("skills")) {
+            return topics.update(id, fields);
+        }
+        return topics.updateWith(id, previous -> {
+            skillTags.adjust(SkillCounters.TOPICS, Post.readSkills(previous.get("skills")), Post.readSkills(fields.get("skills")));
+            return fields;
+        });
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        Map<String, Object> deleted = topics.take(id);
+        if (deleted == null) {
+            return false;
+        }
+        skillTags.adjust(SkillCounters.TOPICS, Post.readSkills(deleted.get("skills")), null);
+        return true;
+    }
+
+    @Override
+    public Optional<Topic> updateSubtopic(String id, String subtopicId, Map<String, Object> values) {
+        return changeSubtopics(id, topic -> topic.updateSubtopic(subtopicId, values));
+    }
+
+    @Override
+    public Optional<Topic> addSubtopic(String id, Subtopic subtopic) {
+        return changeSubtopics(id, topic -> topic.addSubtopic(subtopic) != null);
+    }
+
+    @Override
+    public Optional<Topic> removeSubtopic(String id, String subtopicId) {
+        return changeSubtopics(id, topic -> topic.removeSubtopic(subtopicId));
+    }
+
+    // Nothing is sent over the wire here, so the whole subtopics map is stored again
+    private Optional<Topic> changeSubtopics(String id, Predicate<Topic> change) {
+        Topic[] changed = new Topic[1];
+        topics.updateWith(id, previous -> {
+            Topic topic = Topic.fromMap(id, previous);
+            if (!change.test(topic)) {
+                return Map.of();
+            }
+            Map<String, Object> fields = new HashMap<>();
+            fields.put(Topic.SUBTOPICS, Topic.subtopicsMap(topic.getSubtopics()));
+            Topic.clearPairs(fields);
+            changed[0] = topic;
+            return fields;
+        });
+        return Optional.ofNullable(changed[0]);
+    }
+}
@@ -0,0 +1,55 @@
+package com.backend.backend.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.UserStatus;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryUserStatusRepository implements UserStatusRepository {
+
+    private final InMemoryCollection statuses = new InMemoryCollection("userId");
+
+    @Override
+    public UserStatus create(UserStatus userStatus) {
+        userStatus.setId(statuses.newId());
+        statuses.put(userStatus.getId(), userStatus.toMap());
+        return userStatus;
+    }
+
+    @Override
+    public Optional<UserStatus> findById(String id) {
+        return Optional.ofNullable(statuses.get(id)).map(document -> UserStatus.fromMap(id, document));
+    }
+
+    @Override
+    public List<UserStatus> findAll() {
+        return statuses.scan(null, null, null, -1, UserStatus::fromMap);
+    }
+
+    @Override
+    public Page<UserStatus> findAll(int pageSize, String cursor) {
+        return statuses.page(null, null, cursor, pageSize, UserStatus::fromMap);
+    }
+
+    @Override
+    public List<UserStatus> findByUserId(String userId) {
+        return statuses.scan("userId", userId, null, -1, UserStatus::fromMap);
+    }
+
+    @Override
+    public boolean update(String id, Map<String, Object> fields) {
+        return statuses.update(id, fields);
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return statuses.remove(id);
+    }
+}
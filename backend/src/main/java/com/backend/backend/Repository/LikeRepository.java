@@ -0,0 +1,46 @@
+package com.backend.backend.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.backend.backend.Model.LikeResult;
+import com.backend.backend.Model.Post;
+
+// Async variants default to running the blocking call inline, which suits engines
+// that never wait on I/O; Firestore overrides them with non-blocking versions.
+public interface LikeRepository {
+
+    // Like/Unlike a post. A null liked flag toggles the current state.
+    // Returns null when the post does not exist and the engine can tell.
+    LikeResult like(String postId, String userId, Boolean liked);
+
+    // Current like count per post id
+    Map<String, Long> countLikes(List<Post> posts);
+
+    // Ids of the given posts that the user has liked
+    Set<String> findLikedPostIds(List<Post> posts, String userId);
+
+    // Whether Post.likes holds the full list of likers for this engine
+    boolean keepsLikesOnPost();
+
+    // Drop any like data stored outside the post document
+    void deleteLikes(String postId);
+
+    default CompletableFuture<LikeResult> likeAsync(String postId, String userId, Boolean liked) {
+        return CompletableFuture.supplyAsync(() -> like(postId, userId, liked), Runnable::run);
+    }
+
+    default CompletableFuture<Map<String, Long>> countLikesAsync(List<Post> posts) {
+        return CompletableFuture.supplyAsync(() -> countLikes(posts), Runnable::run);
+    }
+
+    default CompletableFuture<Set<String>> findLikedPostIdsAsync(List<Post> posts, String userId) {
+        return CompletableFuture.supplyAsync(() -> findLikedPostIds(posts, userId), Runnable::run);
+    }
+
+    default CompletableFuture<Void> deleteLikesAsync(String postId) {
+        return CompletableFuture.runAsync(() -> deleteLikes(postId), Runnable::run);
+    }
+}
@@ -0,0 +1,171 @@
+package com.backend.backend.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.backend.backend.Model.Page;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+
+/**
+ * Keyset cursor over (createdAt DESC, documentId DESC).
+ * The encoded form is opaque to clients and carries the createdAt value with its
+ * original Firestore type, so startAfter compares against exactly what is stored.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ORDER_FIELD = "createdAt";
+
+    private final Object createdAt;
+    private final String id;
+
+    public PageCursor(Object createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public Object getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    // Clamp a requested page size into [1, MAX_PAGE_SIZE]
+    public static int clampPageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    public static String encode(Object createdAt, String id) {
+        String value;
+        if (createdAt instanceof Timestamp) {
+            Timestamp ts = (Timestamp) createdAt;
+            value = "t:" + ts.getSeconds() + "." + ts.getNanos();
+        } else if (createdAt instanceof Number) {
+            value = "l:" + ((Number) createdAt).longValue();
+        } else if (createdAt != null) {
+            value = "s:" + createdAt;
+        } else {
+            value = "n:";
+        }
+        String raw = value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 2 || raw.charAt(1) != ':') {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String value = raw.substring(2, separator);
+            String id = raw.substring(separator + 1);
+            switch (raw.charAt(0)) {
+                case 't': {
+                    int dot = value.indexOf('.');
+                    long seconds = Long.parseLong(value.substring(0, dot));
+                    int nanos = Integer.parseInt(value.substring(dot + 1));
+                    return new PageCursor(Timestamp.ofTimeSecondsAndNanos(seconds, nanos), id);
+                }
+                case 'l':
+                    return new PageCursor(Long.parseLong(value), id);
+                case 's':
+                    return new PageCursor(value, id);
+                case 'n':
+                    return new PageCursor(null, id);
+                default:
+                    throw new IllegalArgumentException("Invalid cursor");
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Order the query newest first and position it after the cursor, fetching one extra document
+    // so we know whether another page exists without a second query
+    public static Query apply(Query query, String cursor, int pageSize) {
+        return apply(query, cursor != null && !cursor.isEmpty() ? decode(cursor) : null, pageSize);
+    }
+
+    static Query apply(Query query, PageCursor position, int pageSize) {
+        Query paged = query.orderBy(ORDER_FIELD, Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+        if (position != null) {
+            paged = paged.startAfter(position.getCreatedAt(), position.getId());
+        }
+        return paged.limit(pageSize + 1);
+    }
+
+    public static <T> Page<T> toPage(List<QueryDocumentSnapshot> documents, int pageSize,
+                                     BiFunction<String, Map<String, Object>, T> mapper) {
+        int count = Math.min(documents.size(), pageSize);
+        List<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            QueryDocumentSnapshot document = documents.get(i);
+            items.add(mapper.apply(document.getId(), document.getData()));
+        }
+        String nextCursor = null;
+        if (documents.size() > pageSize) {
+            QueryDocumentSnapshot last = documents.get(pageSize - 1);
+            nextCursor = encode(last.get(ORDER_FIELD), last.getId());
+        }
+        return new Page<>(items, nextCursor);
+    }
+
+    // Merge pages that were each read after the same cursor into one page of the first
+    // pageSize items in (createdAt DESC, id DESC) order. Another page exists when any input
+    // had more or when items were left over, and it continues after the last item returned.
+    public static <T> Page<T> merge(List<Page<T>> pages, int pageSize,
+                                    Function<T, Object> createdAtOf, Function<T, String> idOf) {
+        List<T> all = new ArrayList<>();
+        boolean more = false;
+        String fallbackCursor = null;
+        for (Page<T> page : pages) {
+            all.addAll(page.getItems());
+            if (page.getNextCursor() != null) {
+                more = true;
+                fallbackCursor = page.getNextCursor();
+            }
+        }
+        all.sort((a, b) -> {
+            int order = InMemoryCollection.compareValues(createdAtOf.apply(b), createdAtOf.apply(a));
+            return order != 0 ? order : idOf.apply(b).compareTo(idOf.apply(a));
+        });
+
+        List<T> items = new ArrayList<>(Math.min(all.size(), pageSize));
+        Set<String> seen = new HashSet<>();
+        for (T item : all) {
+            if (!seen.add(idOf.apply(item))) {
+                continue;
+            }
+            if (items.size() == pageSize) {
+                more = true;
+                break;
+            }
+            items.add(item);
+        }
+        String nextCursor = null;
+        if (more) {
+            nextCursor = items.isEmpty() ? fallbackCursor : encode(
+                    createdAtOf.apply(items.get(items.size() - 1)), idOf.apply(items.get(items.size() - 1)));
+        }
+        return new Page<>(items, nextCursor);
+    }
+}
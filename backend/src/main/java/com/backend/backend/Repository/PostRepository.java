@@ -0,0 +1,102 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+
+// Async variants default to running the blocking call inline, which suits engines
+// that never wait on I/O; Firestore overrides them with non-blocking versions.
+public interface PostRepository {
+
+    // Store a new post and assign its id
+    Post create(Post post);
+
+    Optional<Post> findById(String postId);
+
+    // All posts, newest first
+    List<Post> findAll();
+
+    Page<Post> findAll(int pageSize, String cursor);
+
+    // A user's posts, newest first
+    List<Post> findByUserId(String userId);
+
+    Page<Post> findByUserId(String userId, int pageSize, String cursor);
+
+    // Posts by any of the given users, newest first
+    Page<Post> findByUserIds(Collection<String> userIds, int pageSize, String cursor);
+
+    // Posts tagged with any of the given skills, newest first
+    Page<Post> findBySkills(Collection<String> skills, int pageSize, String cursor);
+
+    // The posts that exist, in the order of the given ids
+    default List<Post> findAllById(List<String> postIds) {
+        List<Post> found = new ArrayList<>(postIds.size());
+        for (String postId : postIds) {
+            findById(postId).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    // Write only the given fields; false when the post doesn't exist
+    boolean update(String postId, Map<String, Object> fields);
+
+    // False when the post doesn't exist
+    boolean deleteById(String postId);
+
+    default CompletableFuture<Post> createAsync(Post post) {
+        return CompletableFuture.supplyAsync(() -> create(post), Runnable::run);
+    }
+
+    default CompletableFuture<Optional<Post>> findByIdAsync(String postId) {
+        return CompletableFuture.supplyAsync(() -> findById(postId), Runnable::run);
+    }
+
+    default CompletableFuture<List<Post>> findAllAsync() {
+        return CompletableFuture.supplyAsync(() -> findAll(), Runnable::run);
+    }
+
+    default CompletableFuture<Page<Post>> findAllAsync(int pageSize, String cursor) {
+        return CompletableFuture.supplyAsync(() -> findAll(pageSize, cursor), Runnable::run);
+    }
+
+    default CompletableFuture<List<Post>> findByUserIdAsync(String userId) {
+        return CompletableFuture.supplyAsync(() -> findByUserId(userId), Runnable::run);
+    }
+
+    default CompletableFuture<Page<Post>> findByUserIdAsync(String userId, int pageSize, String cursor) {
+        return CompletableFuture.supplyAsync(() -> findByUserId(userId, pageSize, cursor), Runnable::run);
+    }
+
+    default CompletableFuture<Page<Post>> findByUserIdsAsync(Collection<String> userIds, int pageSize, String cursor) {
+        return CompletableFuture.supplyAsync(() -> findByUserIds(userIds, pageSize, cursor), Runnable::run);
+    }
+
+    default CompletableFuture<Page<Post>> findBySkillsAsync(Collection<String> skills, int pageSize, String cursor) {
+        return CompletableFuture.supplyAsync(() -> findBySkills(skills, pageSize, cursor), Runnable::run);
+    }
+
+    default CompletableFuture<List<Post>> findAllByIdAsync(List<String> postIds) {
+        return CompletableFuture.supplyAsync(() -> findAllById(postIds), Runnable::run);
+    }
+
+    default CompletableFuture<Boolean> updateAsync(String postId, Map<String, Object> fields) {
+        return CompletableFuture.supplyAsync(() -> update(postId, fields), Runnable::run);
+    }
+
+    default CompletableFuture<Boolean> deleteByIdAsync(String postId) {
+        return CompletableFuture.supplyAsync(() -> deleteById(postId), Runnable::run);
+    }
+
+    // Merge pages read after the same cursor into one page in feed order
+    static Page<Post> mergePages(List<Page<Post>> pages, int pageSize) {
+        return PageCursor.merge(pages, pageSize,
+                post -> post.getCreatedAt() != null ? Post.toTimestamp(post.getCreatedAt()) : null, Post::getPostId);
+    }
+}
@@ -0,0 +1,25 @@
+package com.backend.backend.Repository;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.backend.backend.Model.RankingCheckpoint;
+
+// Saved state of the in-memory trending rankings, one checkpoint per window.
+// Async variants default to running the blocking call inline, which suits engines
+// that never wait on I/O; Firestore overrides them with non-blocking versions.
+public interface RankingRepository {
+
+    Optional<RankingCheckpoint> find(String window);
+
+    // Replace the window's checkpoint
+    void save(RankingCheckpoint checkpoint);
+
+    default CompletableFuture<Optional<RankingCheckpoint>> findAsync(String window) {
+        return CompletableFuture.supplyAsync(() -> find(window), Runnable::run);
+    }
+
+    default CompletableFuture<Void> saveAsync(RankingCheckpoint checkpoint) {
+        return CompletableFuture.runAsync(() -> save(checkpoint), Runnable::run);
+    }
+}
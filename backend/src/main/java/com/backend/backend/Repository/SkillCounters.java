@@ -0,0 +1,35 @@
+package com.backend.backend.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Counter arithmetic shared by the skill tag repositories
+final class SkillCounters {
+
+    static final String POSTS = "posts";
+    static final String TOPICS = "topics";
+
+    private SkillCounters() {
+    }
+
+    // +1 for each skill added and -1 for each removed; null means no skills
+    static Map<String, Long> changes(List<String> before, List<String> after) {
+        Set<String> previous = before != null ? new LinkedHashSet<>(before) : Set.of();
+        Set<String> current = after != null ? new LinkedHashSet<>(after) : Set.of();
+        Map<String, Long> changes = new LinkedHashMap<>();
+        for (String skill : previous) {
+            if (!current.contains(skill)) {
+                changes.put(skill, -1L);
+            }
+        }
+        for (String skill : current) {
+            if (!previous.contains(skill)) {
+                changes.put(skill, 1L);
+            }
+        }
+        return changes;
+    }
+}
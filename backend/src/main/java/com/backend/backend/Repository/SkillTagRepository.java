@@ -0,0 +1,20 @@
+package com.backend.backend.Repository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.backend.backend.Model.SkillCount;
+
+// Per-skill usage counters. Post and topic repositories adjust them as part of the
+// write that changes a document's skills, so reading them never scans the tagged documents.
+// Async variants default to running the blocking call inline, which suits engines
+// that never wait on I/O; Firestore overrides them with non-blocking versions.
+public interface SkillTagRepository {
+
+    // Skills in use, most used first
+    List<SkillCount> findTrending(int limit);
+
+    default CompletableFuture<List<SkillCount>> findTrendingAsync(int limit) {
+        return CompletableFuture.supplyAsync(() -> findTrending(limit), Runnable::run);
+    }
+}
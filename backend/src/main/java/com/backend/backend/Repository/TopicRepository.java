@@ -0,0 +1,121 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Subtopic;
+import com.backend.backend.Model.Topic;
+
+// Async variants default to running the blocking call inline, which suits engines
+// that never wait on I/O; Firestore overrides them with non-blocking versions.
+public interface TopicRepository {
+
+    // Store a new topic and assign its id
+    Topic create(Topic topic);
+
+    Optional<Topic> findById(String id);
+
+    // All topics, newest first
+    List<Topic> findAll();
+
+    Page<Topic> findAll(int pageSize, String cursor);
+
+    // A user's topics, newest first
+    List<Topic> findByUserId(String userId);
+
+    // Write only the given fields; false when the topic doesn't exist
+    boolean update(String id, Map<String, Object> fields);
+
+    // False when the topic doesn't exist
+    boolean deleteById(String id);
+
+    // The subtopic writes below change only the subtopic they name and return the topic as
+    // written, or empty when the topic (or the subtopic) doesn't exist
+
+    // Set some of a subtopic's values: title, description, progress, position
+    Optional<Topic> updateSubtopic(String id, String subtopicId, Map<String, Object> values);
+
+    // Append a subtopic; its id and position are assigned
+    Optional<Topic> addSubtopic(String id, Subtopic subtopic);
+
+    Optional<Topic> removeSubtopic(String id, String subtopicId);
+
+    // Write only the given fields of each topic, by id; false for topics that don't exist
+    default Map<String, Boolean> updateAll(Map<String, Map<String, Object>> updates) {
+        Map<String, Boolean> existed = new LinkedHashMap<>();
+        updates.forEach((id, fields) -> existed.put(id, update(id, fields)));
+        return existed;
+    }
+
+    // The topics that exist, in the order of the given ids
+    default List<Topic> findAllById(List<String> ids) {
+        List<Topic> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    // Create many at once, reporting success or failure per item in request order
+    default List<BulkItemResult> createAll(List<Topic> topics) {
+        return BulkWrites.each(topics, topic -> create(topic).getId());
+    }
+
+    default CompletableFuture<Topic> createAsync(Topic topic) {
+        return CompletableFuture.supplyAsync(() -> create(topic), Runnable::run);
+    }
+
+    default CompletableFuture<Optional<Topic>> findByIdAsync(String id) {
+        return CompletableFuture.supplyAsync(() -> findById(id), Runnable::run);
+    }
+
+    default CompletableFuture<List<Topic>> findAllByIdAsync(List<String> ids) {
+        return CompletableFuture.supplyAsync(() -> findAllById(ids), Runnable::run);
+    }
+
+    default CompletableFuture<List<Topic>> findAllAsync() {
+        return CompletableFuture.supplyAsync(() -> findAll(), Runnable::run);
+    }
+
+    default CompletableFuture<Page<Topic>> findAllAsync(int pageSize, String cursor) {
+        return CompletableFuture.supplyAsync(() -> findAll(pageSize, cursor), Runnable::run);
+    }
+
+    default CompletableFuture<List<Topic>> findByUserIdAsync(String userId) {
+        return CompletableFuture.supplyAsync(() -> findByUserId(userId), Runnable::run);
+    }
+
+    default CompletableFuture<Boolean> updateAsync(String id, Map<String, Object> fields) {
+        return CompletableFuture.supplyAsync(() -> update(id, fields), Runnable::run);
+    }
+
+    default CompletableFuture<Map<String, Boolean>> updateAllAsync(Map<String, Map<String, Object>> updates) {
+        return CompletableFuture.supplyAsync(() -> updateAll(updates), Runnable::run);
+    }
+
+    default CompletableFuture<Boolean> deleteByIdAsync(String id) {
+        return CompletableFuture.supplyAsync(() -> deleteById(id), Runnable::run);
+    }
+
+    default CompletableFuture<Optional<Topic>> updateSubtopicAsync(String id, String subtopicId, Map<String, Object> values) {
+        return CompletableFuture.supplyAsync(() -> updateSubtopic(id, subtopicId, values), Runnable::run);
+    }
+
+    default CompletableFuture<Optional<Topic>> addSubtopicAsync(String id, Subtopic subtopic) {
+        return CompletableFuture.supplyAsync(() -> addSubtopic(id, subtopic), Runnable::run);
+    }
+
+    default CompletableFuture<Optional<Topic>> removeSubtopicAsync(String id, String subtopicId) {
+        return CompletableFuture.supplyAsync(() -> removeSubtopic(id, subtopicId), Runnable::run);
+    }
+
+    default CompletableFuture<List<BulkItemResult>> createAllAsync(List<Topic> topics) {
+        return CompletableFuture.supplyAsync(() -> createAll(topics), Runnable::run);
+    }
+}
@@ -0,0 +1,85 @@
+package com.backend.backend.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.UserStatus;
+
+// Async variants default to running the blocking call inline, which suits engines
+// that never wait on I/O; Firestore overrides them with non-blocking versions.
+public interface UserStatusRepository {
+
+    // Store a new status and assign its id
+    UserStatus create(UserStatus userStatus);
+
+    Optional<UserStatus> findById(String id);
+
+    // All statuses, newest first
+    List<UserStatus> findAll();
+
+    Page<UserStatus> findAll(int pageSize, String cursor);
+
+    // A user's statuses, newest first
+    List<UserStatus> findByUserId(String userId);
+
+    // Write only the given fields; false when the status doesn't exist
+    boolean update(String id, Map<String, Object> fields);
+
+    // False when the status doesn't exist
+    boolean deleteById(String id);
+
+    // The statuses that exist, in the order of the given ids
+    default List<UserStatus> findAllById(List<String> ids) {
+        List<UserStatus> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    // Create many at once, reporting success or failure per item in request order
+    default List<BulkItemResult> createAll(List<UserStatus> statuses) {
+        return BulkWrites.each(statuses, userStatus -> create(userStatus).getId());
+    }
+
+    default CompletableFuture<UserStatus> createAsync(UserStatus userStatus) {
+        return CompletableFuture.supplyAsync(() -> create(userStatus), Runnable::run);
+    }
+
+    default CompletableFuture<Optional<UserStatus>> findByIdAsync(String id) {
+        return CompletableFuture.supplyAsync(() -> findById(id), Runnable::run);
+    }
+
+    default CompletableFuture<List<UserStatus>> findAllByIdAsync(List<String> ids) {
+        return CompletableFuture.supplyAsync(() -> findAllById(ids), Runnable::run);
+    }
+
+    default CompletableFuture<List<UserStatus>> findAllAsync() {
+        return CompletableFuture.supplyAsync(() -> findAll(), Runnable::run);
+    }
+
+    default CompletableFuture<Page<UserStatus>> findAllAsync(int pageSize, String cursor) {
+        return CompletableFuture.supplyAsync(() -> findAll(pageSize, cursor), Runnable::run);
+    }
+
+    default CompletableFuture<List<UserStatus>> findByUserIdAsync(String userId) {
+        return CompletableFuture.supplyAsync(() -> findByUserId(userId), Runnable::run);
+    }
+
+    default CompletableFuture<Boolean> updateAsync(String id, Map<String, Object> fields) {
+        return CompletableFuture.supplyAsync(() -> update(id, fields), Runnable::run);
+    }
+
+    default CompletableFuture<Boolean> deleteByIdAsync(String id) {
+        return CompletableFuture.supplyAsync(() -> deleteById(id), Runnable::run);
+    }
+
+    default CompletableFuture<List<BulkItemResult>> createAllAsync(List<UserStatus> statuses) {
+        return CompletableFuture.supplyAsync(() -> createAll(statuses), Runnable::run);
+    }
+}
@@ -0,0 +1,47 @@
+package com.backend.backend.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+// Shape checks shared by the bulk create and multi-get endpoints
+final class BulkRequests {
+
+    static final int MAX_ITEMS = 5000;
+    static final int MAX_IDS = 300;
+
+    private BulkRequests() {
+    }
+
+    static void check(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_ITEMS + " items per request");
+        }
+        // A loop rather than contains(null), which immutable lists reject
+        for (Object item : items) {
+            if (item == null) {
+                throw new IllegalArgumentException("Items must not be null");
+            }
+        }
+    }
+
+    // The distinct ids of a multi-get in request order
+    static List<String> checkIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        for (String id : ids) {
+            if (id == null || id.isEmpty()) {
+                throw new IllegalArgumentException("Ids must not be empty");
+            }
+        }
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids per request");
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,61 @@
+package com.backend.backend.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+
+import com.backend.backend.Model.MultiGetResult;
+
+/**
+ * Serves a multi-get from the single-document cache the get-by-id endpoints fill, and
+ * reads only the misses from the repository in one call. Documents read that way are
+ * put into the cache for the next lookup.
+ */
+final class CachedMultiGet {
+
+    private CachedMultiGet() {
+    }
+
+    static <T> CompletableFuture<MultiGetResult<T>> get(Cache cache, Class<T> type, List<String> ids,
+                                                       Function<T, String> idOf,
+                                                       Function<List<String>, CompletableFuture<List<T>>> loader) {
+        Map<String, T> cached = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String id : ids) {
+            T value = cache != null ? cache.get(id, type) : null;
+            if (value != null) {
+                cached.put(id, value);
+            } else {
+                misses.add(id);
+            }
+        }
+        CompletableFuture<List<T>> loaded = misses.isEmpty()
+                ? CompletableFuture.completedFuture(List.of())
+                : loader.apply(misses);
+        return loaded.thenApply(documents -> {
+            for (T document : documents) {
+                cached.put(idOf.apply(document), document);
+                if (cache != null) {
+                    cache.put(idOf.apply(document), document);
+                }
+            }
+            Map<String, T> items = new LinkedHashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String id : ids) {
+                T value = cached.get(id);
+                if (value != null) {
+                    items.put(id, value);
+                } else {
+                    missing.add(id);
+                }
+            }
+            return new MultiGetResult<>(items, missing);
+        });
+    }
+}
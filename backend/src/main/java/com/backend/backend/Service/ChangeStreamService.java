@@ -0,0 +1,196 @@
+package com.backend.backend.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.backend.backend.Model.ChangeEvent;
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Repository.ChangeStreamRepository;
+import com.backend.backend.Repository.ChangeStreamRepository.ChangeSink;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes document changes to clients over server-sent events. Every watched query has
+ * one shared listener, started by its first subscriber and stopped when the last one
+ * leaves, so reads scale with the number of hot queries rather than with clients.
+ *
+ * Listener callbacks only enqueue. Each subscriber has a bounded buffer drained on its
+ * own virtual thread; a subscriber that falls changes.subscriber.buffer-size events
+ * behind is sent an "overflow" event and disconnected, so one slow client never holds
+ * up the listener or the others. It should reload and subscribe again.
+ */
+@Service
+public class ChangeStreamService {
+
+    @Autowired
+    private ChangeStreamRepository changeStreamRepository;
+
+    @Value("${changes.posts.window:50}")
+    private int postsWindow;
+
+    @Value("${changes.subscriber.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${changes.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<String, Channel<?>> channels = new ConcurrentHashMap<>();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Changes to the newest posts
+    public SseEmitter subscribeToPosts() {
+        return this.<Post>subscribe("posts", sink -> changeStreamRepository.listenToLatestPosts(postsWindow, sink));
+    }
+
+    // Changes to the comments on one post
+    public SseEmitter subscribeToComments(String postId) {
+        return this.<Comment>subscribe("comments/" + postId, sink -> changeStreamRepository.listenToComments(postId, sink));
+    }
+
+    // Number of listeners currently open
+    public int listenerCount() {
+        return channels.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        channels.values().forEach(channel -> channel.stop.run());
+        channels.clear();
+        senders.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> SseEmitter subscribe(String key, Function<ChangeSink<T>, Runnable> listen) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber<T> subscriber = new Subscriber<>(key, emitter);
+        channels.compute(key, (name, existing) -> {
+            Channel<T> channel = existing != null ? (Channel<T>) existing : new Channel<>(name);
+            channel.subscribers.add(subscriber);
+            if (existing == null) {
+                channel.stop = listen.apply(channel);
+            }
+            return channel;
+        });
+        emitter.onCompletion(subscriber::leave);
+        emitter.onTimeout(subscriber::leave);
+        emitter.onError(error -> subscriber.leave());
+        return emitter;
+    }
+
+    // The last subscriber to leave stops the listener
+    private void unsubscribe(String key, Subscriber<?> subscriber) {
+        channels.computeIfPresent(key, (name, channel) -> {
+            channel.subscribers.remove(subscriber);
+            if (channel.subscribers.isEmpty()) {
+                channel.stop.run();
+                return null;
+            }
+            return channel;
+        });
+    }
+
+    private final class Channel<T> implements ChangeSink<T> {
+        private final String key;
+        private final Set<Subscriber<T>> subscribers = ConcurrentHashMap.newKeySet();
+        private Runnable stop = () -> { };
+
+        private Channel(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void onChanges(List<ChangeEvent<T>> changes) {
+            subscribers.forEach(subscriber -> subscriber.offer(changes));
+        }
+
+        // A failed listener is gone; its subscribers are closed so they resubscribe to a new one
+        @Override
+        public void onError(Throwable error) {
+            channels.remove(key, this);
+            subscribers.forEach(subscriber -> subscriber.emitter.completeWithError(error));
+        }
+    }
+
+    private final class Subscriber<T> {
+        private final String key;
+        private final SseEmitter emitter;
+        private final Queue<ChangeEvent<T>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(String key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        private void leave() {
+            closed = true;
+            unsubscribe(key, this);
+        }
+
+        private void offer(List<ChangeEvent<T>> changes) {
+            if (closed) {
+                return;
+            }
+            for (ChangeEvent<T> change : changes) {
+                if (!buffer.offer(change)) {
+                    overflow();
+                    return;
+                }
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            senders.execute(() -> {
+                try {
+                    ChangeEvent<T> change;
+                    while (!closed && (change = buffer.poll()) != null) {
+                        emitter.send(SseEmitter.event().name(change.getType()).data(change));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away
+                    leave();
+                } finally {
+                    draining.set(false);
+                }
+                if (!closed && !buffer.isEmpty()) {
+                    drain();
+                }
+            });
+        }
+
+        private void overflow() {
+            leave();
+            buffer.clear();
+            senders.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().name("overflow").data("Too many pending changes, reload and subscribe again"));
+                } catch (IOException | IllegalStateException e) {
+                    // Already gone
+                }
+                emitter.complete();
+            });
+        }
+    }
+}
@@ -1,100 +1,222 @@
 package com.backend.backend.Service;
 
-import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+import com.backend.backend.Model.BulkItemResult;
 import com.backend.backend.Model.Comment;
 import com.backend.backend.Model.CommentDto;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Repository.CommentRepository;
+import com.backend.backend.Repository.PageCursor;
+import com.backend.backend.config.CacheConfig;
 
+// Every comment write also changes the commentCount and latestComments of its post,
+// so the cached copy of that post is evicted once the write is done. Concurrent reads of
+// the same post's comments share one query (see SingleFlight).
 @Service
 public class CommentService {
 
-    private static final String COLLECTION_NAME = "comments";
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PostService postService;
 
     @Autowired
-    private Firestore firestore;
+    private RankingService rankingService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private SingleFlight singleFlight;
+
+    @PostConstruct
+    void init() {
+        singleFlight = new SingleFlight("comments", registry);
+    }
 
     public Comment addNewComment(Comment comment) {
-        try {
-            if (comment.getCreatedAt() == null) {
-                comment.setCreatedAt(new Date());
-            }
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document();
-            comment.setId(docRef.getId());
-            docRef.set(comment.toMap()).get();
-            return comment;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error adding comment", e);
+        if (comment.getCreatedAt() == null) {
+            comment.setCreatedAt(new Date());
         }
+        Comment created = commentRepository.create(comment);
+        evictPost(created.getPostId());
+        rankingService.commentsAdded(created.getPostId(), 1);
+        return created;
     }
 
-    public List<Comment> getAllComments(String postId) {
+    public CompletableFuture<Comment> addNewCommentAsync(Comment comment) {
+        if (comment.getCreatedAt() == null) {
+            comment.setCreatedAt(new Date());
+        }
+        return commentRepository.createAsync(comment).thenApply(created -> {
+            evictPost(created.getPostId());
+            rankingService.commentsAdded(created.getPostId(), 1);
+            return created;
+        });
+    }
+
+    // Create many comments in one request; each item gets its own result
+    public List<BulkItemResult> addNewComments(List<Comment> comments) {
+        BulkRequests.check(comments);
+        stampCreatedAt(comments);
+        List<BulkItemResult> results = commentRepository.createAll(comments);
+        evictPosts(comments);
+        rankCreated(comments, results);
+        return results;
+    }
+
+    public CompletableFuture<List<BulkItemResult>> addNewCommentsAsync(List<Comment> comments) {
         try {
-            List<Comment> comments = new ArrayList<>();
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("postId", postId)
-                    .orderBy("createdAt", Query.Direction.DESCENDING)
-                    .get();
-            
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot document : documents) {
-                comments.add(Comment.fromMap(document.getId(), document.getData()));
-            }
-            return comments;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting comments", e);
+            BulkRequests.check(comments);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        stampCreatedAt(comments);
+        return commentRepository.createAllAsync(comments).thenApply(results -> {
+            evictPosts(comments);
+            rankCreated(comments, results);
+            return results;
+        });
+    }
+
+    public List<Comment> getAllComments(String postId) {
+        return commentRepository.findByPostId(postId);
+    }
+
+    public CompletableFuture<List<Comment>> getAllCommentsAsync(String postId) {
+        return singleFlight.load(new Comments(postId, null, null), () -> commentRepository.findByPostIdAsync(postId));
+    }
+
+    // Get a page of a post's comments, newest first
+    public Page<Comment> getCommentsPage(String postId, Integer limit, String cursor) {
+        return commentRepository.findByPostId(postId, PageCursor.clampPageSize(limit), cursor);
+    }
+
+    public CompletableFuture<Page<Comment>> getCommentsPageAsync(String postId, Integer limit, String cursor) {
+        int pageSize = PageCursor.clampPageSize(limit);
+        return singleFlight.load(new Comments(postId, pageSize, cursor),
+                () -> commentRepository.findByPostIdAsync(postId, pageSize, cursor));
     }
 
+    // Hand every comment on a post to the consumer as it is read, newest first
+    public CompletableFuture<Void> streamCommentsAsync(String postId, Consumer<Comment> consumer) {
+        return commentRepository.streamByPostIdAsync(postId, consumer);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.COMMENTS, key = "#commentId", unless = "#result == null")
     public Comment getCommentById(String commentId) {
-        try {
-            DocumentSnapshot document = firestore.collection(COLLECTION_NAME)
-                    .document(commentId).get().get();
-            if (document.exists()) {
-                return Comment.fromMap(document.getId(), document.getData());
+        return commentRepository.findById(commentId).orElse(null);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.COMMENTS, key = "#commentId", unless = "#result == null")
+    public CompletableFuture<Comment> getCommentByIdAsync(String commentId) {
+        return commentRepository.findByIdAsync(commentId).thenApply(comment -> comment.orElse(null));
+    }
+
+    // Single field-masked write; false when the comment doesn't exist
+    @CacheEvict(cacheNames = CacheConfig.COMMENTS, key = "#commentDto.id")
+    public boolean updateComment(CommentDto commentDto) {
+        return evictPostOf(commentRepository.update(commentDto.getId(), updateFields(commentDto)));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.COMMENTS, key = "#commentDto.id")
+    public CompletableFuture<Boolean> updateCommentAsync(CommentDto commentDto) {
+        return commentRepository.updateAsync(commentDto.getId(), updateFields(commentDto)).thenApply(this::evictPostOf);
+    }
+
+    // False when the comment doesn't exist
+    @CacheEvict(cacheNames = CacheConfig.COMMENTS, key = "#commentId")
+    public boolean deleteComment(String commentId) {
+        return evictPostOf(unranked(commentRepository.deleteById(commentId)));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.COMMENTS, key = "#commentId")
+    public CompletableFuture<Boolean> deleteCommentAsync(String commentId) {
+        return commentRepository.deleteByIdAsync(commentId).thenApply(deleted -> evictPostOf(unranked(deleted)));
+    }
+
+    // Evict the post of a comment that was written; false when there was no such comment
+    private boolean evictPostOf(Optional<Comment> written) {
+        written.ifPresent(comment -> evictPost(comment.getPostId()));
+        return written.isPresent();
+    }
+
+    private Optional<Comment> unranked(Optional<Comment> deleted) {
+        deleted.ifPresent(comment -> rankingService.commentRemoved(comment.getPostId()));
+        return deleted;
+    }
+
+    // Each post's new comments count towards its trending score at once
+    private void rankCreated(List<Comment> comments, List<BulkItemResult> results) {
+        Map<String, Integer> createdByPost = new HashMap<>();
+        for (BulkItemResult result : results) {
+            if (result.isSuccess()) {
+                createdByPost.merge(comments.get(result.getIndex()).getPostId(), 1, Integer::sum);
             }
-            return null;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting comment", e);
         }
+        createdByPost.forEach(rankingService::commentsAdded);
     }
 
-    public void updateComment(CommentDto commentDto) {
-        try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(commentDto.getId());
-            DocumentSnapshot document = docRef.get().get();
-            
-            if (document.exists()) {
-                Comment comment = Comment.fromMap(document.getId(), document.getData());
-                comment.setComment(commentDto.getComment());
-                docRef.set(comment.toMap()).get();
-            } else {
-                throw new RuntimeException("Comment not found with ID: " + commentDto.getId());
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error updating comment", e);
+    private void evictPosts(List<Comment> comments) {
+        Set<String> postIds = new LinkedHashSet<>();
+        for (Comment comment : comments) {
+            postIds.add(comment.getPostId());
         }
+        postIds.forEach(this::evictPost);
     }
 
-    public void deleteComment(String commentId) {
-        try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(commentId);
-            DocumentSnapshot document = docRef.get().get();
-            
-            if (document.exists()) {
-                docRef.delete().get();
-            } else {
-                throw new RuntimeException("Comment not found with ID: " + commentId);
+    private void evictPost(String postId) {
+        if (postId == null) {
+            return;
+        }
+        Cache posts = cacheManager.getCache(CacheConfig.POSTS);
+        if (posts != null) {
+            posts.evict(postId);
+        }
+        // Reads of the post and its comments issued before the write must not be joined
+        postService.forgetPost(postId);
+        singleFlight.forgetIf(key -> postId.equals(((Comments) key).postId()));
+    }
+
+    private Map<String, Object> updateFields(CommentDto commentDto) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("comment", commentDto.getComment());
+        return fields;
+    }
+
+    private void stampCreatedAt(List<Comment> comments) {
+        Date now = new Date();
+        for (Comment item : comments) {
+            if (item.getCreatedAt() == null) {
+                item.setCreatedAt(now);
             }
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error deleting comment", e);
         }
     }
-}
\ No newline at end of file
+
+    // Single-flight key for a post's comments; pageSize null for the unpaged list
+    private record Comments(String postId, Integer pageSize, String cursor) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.backend.backend.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.backend.backend.Repository.CostAccount;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-caller budgets for billed Firestore reads and writes. Each caller has a token
+ * bucket of cost.budget.capacity units refilled at cost.budget.refill-per-second; a read
+ * costs one unit and a write cost.budget.write-cost, in line with Firestore pricing.
+ * A request is admitted while the bucket is positive and its actual cost is taken
+ * afterwards as its Firestore calls complete, so one expensive listing puts the caller
+ * in debt and later requests are refused until the bucket has refilled.
+ *
+ * Billed reads and writes are counted per endpoint (firestore.billed.reads/writes) and
+ * per caller, and listed with each caller's balance by the costs Actuator endpoint.
+ */
+@Service
+public class CostBudgetService {
+
+    @Value("${cost.budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cost.budget.capacity:20000}")
+    private double capacity;
+
+    @Value("${cost.budget.refill-per-second:20}")
+    private double refillPerSecond;
+
+    @Value("${cost.budget.write-cost:3}")
+    private long writeCost;
+
+    @Value("${cost.budget.max-callers:100000}")
+    private long maxCallers;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Cache<String, Caller> callers;
+
+    private final Map<String, Totals> endpoints = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        // An idle caller's bucket would be full again by now, so forgetting it loses nothing
+        long fullAfterSeconds = (long) Math.ceil(2 * capacity / refillPerSecond);
+        callers = Caffeine.newBuilder()
+                .maximumSize(maxCallers)
+                .expireAfterAccess(Duration.ofSeconds(Math.max(60, fullAfterSeconds)))
+                .build();
+    }
+
+    // Seconds until the caller may be served again, 0 when the request can proceed now
+    public long retryAfterSeconds(String endpoint, String caller) {
+        if (!enabled) {
+            return 0;
+        }
+        double wait = caller(caller).bucket.secondsUntilPositive();
+        if (wait <= 0) {
+            return 0;
+        }
+        registry.counter("firestore.budget.throttled", "endpoint", endpoint).increment();
+        return Math.max(1, (long) Math.ceil(wait));
+    }
+
+    // Account that charges one request's Firestore calls to its endpoint and caller
+    public CostAccount account(String endpoint, String caller) {
+        Caller account = caller(caller);
+        Totals endpointTotals = endpoints.computeIfAbsent(endpoint, name -> new Totals());
+        Totals callerTotals = account.endpoints.computeIfAbsent(endpoint, name -> new Totals());
+        return (reads, writes) -> {
+            endpointTotals.add(reads, writes);
+            callerTotals.add(reads, writes);
+            registry.counter("firestore.billed.reads", "endpoint", endpoint).increment(reads);
+            registry.counter("firestore.billed.writes", "endpoint", endpoint).increment(writes);
+            if (enabled) {
+                account.bucket.take(reads + writes * writeCost);
+            }
+        };
+    }
+
+    // Totals per endpoint and the callers that spent the most, for the Actuator endpoint
+    public Map<String, Object> snapshot(int topCallers) {
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        endpoints.forEach((endpoint, totals) -> byEndpoint.put(endpoint, totals.toMap()));
+
+        List<Map.Entry<String, Caller>> ranked = new ArrayList<>(callers.asMap().entrySet());
+        ranked.sort(Comparator.comparingLong((Map.Entry<String, Caller> entry) -> entry.getValue().spent()).reversed());
+        Map<String, Object> byCaller = new LinkedHashMap<>();
+        for (Map.Entry<String, Caller> entry : ranked.subList(0, Math.min(topCallers, ranked.size()))) {
+            Map<String, Object> caller = new LinkedHashMap<>();
+            caller.put("balance", Math.round(entry.getValue().bucket.balance()));
+            Map<String, Object> spent = new LinkedHashMap<>();
+            entry.getValue().endpoints.forEach((endpoint, totals) -> spent.put(endpoint, totals.toMap()));
+            caller.put("endpoints", spent);
+            byCaller.put(entry.getKey(), caller);
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("capacity", capacity);
+        snapshot.put("refillPerSecond", refillPerSecond);
+        snapshot.put("writeCost", writeCost);
+        snapshot.put("trackedCallers", callers.estimatedSize());
+        snapshot.put("endpoints", byEndpoint);
+        snapshot.put("topCallers", byCaller);
+        return snapshot;
+    }
+
+    private Caller caller(String caller) {
+        return callers.get(caller, key -> new Caller(new TokenBucket(capacity, refillPerSecond)));
+    }
+
+    private static final class Caller {
+        private final TokenBucket bucket;
+        private final Map<String, Totals> endpoints = new ConcurrentHashMap<>();
+
+        private Caller(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        private long spent() {
+            long spent = 0;
+            for (Totals totals : endpoints.values()) {
+                spent += totals.reads.sum() + totals.writes.sum();
+            }
+            return spent;
+        }
+    }
+
+    private static final class Totals {
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder writes = new LongAdder();
+
+        private void add(long billedReads, long billedWrites) {
+            reads.add(billedReads);
+            writes.add(billedWrites);
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("reads", reads.sum());
+            map.put("writes", writes.sum());
+            return map;
+        }
+    }
+
+    // Refills continuously up to capacity; taking may overdraw it, down to -capacity
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerSecond;
+        private final double refillPerNano;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(double capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+        }
+
+        synchronized void take(double cost) {
+            refill();
+            tokens = Math.max(-capacity, tokens - cost);
+        }
+
+        synchronized double secondsUntilPositive() {
+            refill();
+            return tokens > 0 ? 0 : (1 - tokens) / refillPerSecond;
+        }
+
+        synchronized double balance() {
+            refill();
+            return tokens;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.backend.backend.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Repository.FeedRepository;
+import com.backend.backend.Repository.PageCursor;
+import com.backend.backend.Repository.PostRepository;
+
+/**
+ * Home feeds materialized on write: a new post's reference is pushed into the timeline
+ * of its author and of everyone following or connected to them, so reading a feed is
+ * one range scan over the reader's timeline. Authors whose audience is larger than
+ * feed.fanout.max-audience are not fanned out; their recent posts are queried and
+ * merged into each reader's page instead, which keeps the cost of a post bounded.
+ */
+@Service
+public class FeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedService.class);
+
+    @Autowired
+    private FeedRepository feedRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${feed.fanout.max-audience:5000}")
+    private int maxAudience;
+
+    // Start distributing a newly created post without making the caller wait for it
+    public void publish(Post post) {
+        fanOutAsync(post).whenComplete((done, error) -> {
+            if (error != null) {
+                log.warn("Feed fan-out failed for post {}", post.getPostId(), error);
+            }
+        });
+    }
+
+    // Push the post into its audience's timelines, or switch a large author to fan-out on read
+    public CompletableFuture<Void> fanOutAsync(Post post) {
+        String authorId = post.getUserId();
+        if (authorId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return feedRepository.findAudienceAsync(authorId).thenCompose(audience -> {
+            if (audience.size() > maxAudience) {
+                return feedRepository.markFanOutOnReadAsync(authorId);
+            }
+            Set<String> timelines = new HashSet<>(audience);
+            timelines.add(authorId);
+            return feedRepository.appendAsync(timelines, post);
+        });
+    }
+
+    // Get a page of the user's home feed, newest first
+    public CompletableFuture<Page<Post>> getHomeFeedAsync(String userId, Integer limit, String cursor) {
+        int pageSize = PageCursor.clampPageSize(limit);
+        CompletableFuture<Page<Post>> pushed = feedRepository.findTimelineAsync(userId, pageSize, cursor)
+                .thenCompose(page -> hydrate(userId, page));
+        CompletableFuture<Page<Post>> pulled = fanOutOnReadSources(userId)
+                .thenCompose(authors -> authors.isEmpty()
+                        ? CompletableFuture.completedFuture(new Page<Post>(List.of(), null))
+                        : postRepository.findByUserIdsAsync(authors, pageSize, cursor));
+        return pushed.thenCombine(pulled, (a, b) -> PostRepository.mergePages(List.of(a, b), pageSize));
+    }
+
+    // Followed authors, and the user themselves, whose posts are merged in at read time
+    private CompletableFuture<Set<String>> fanOutOnReadSources(String userId) {
+        return feedRepository.findSourcesAsync(userId).thenCompose(sources -> {
+            Set<String> authors = new HashSet<>(sources);
+            authors.add(userId);
+            return feedRepository.findFanOutOnReadAuthorsAsync(authors);
+        });
+    }
+
+    // Load the referenced posts in one multi-get and drop references to deleted posts
+    private CompletableFuture<Page<Post>> hydrate(String userId, Page<String> page) {
+        return postRepository.findAllByIdAsync(page.getItems()).thenApply(posts -> {
+            if (posts.size() < page.getItems().size()) {
+                List<String> missing = new ArrayList<>(page.getItems());
+                posts.forEach(post -> missing.remove(post.getPostId()));
+                feedRepository.removeAsync(userId, missing).whenComplete((done, error) -> {
+                    if (error != null) {
+                        log.warn("Could not prune deleted posts from feed {}", userId, error);
+                    }
+                });
+            }
+            return new Page<>(posts, page.getNextCursor());
+        });
+    }
+}
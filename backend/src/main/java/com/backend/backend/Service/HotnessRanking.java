@@ -0,0 +1,180 @@
+package com.backend.backend.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Posts ranked by a time-decayed score: the post itself, each like and each comment add
+ * a weight that halves every half-life. Scores are stored relative to an epoch, as
+ * weight * 2^((t - epoch) / halfLife), so all of them decay at the same rate and their
+ * order never changes as time passes. An event therefore moves one post in the skip-list
+ * in O(log n), and the score as of now is worked out only for the posts handed out.
+ * Once events are 64 half-lives past the epoch it moves forward and every score is
+ * rescaled, long before the values could overflow.
+ *
+ * At most maxTracked posts are kept; the lowest scored are dropped. Event times are
+ * capped at the wall clock, so a post dated in the future can neither outrank everything
+ * nor move the epoch past now and rescale the other scores to nothing.
+ *
+ * Writes are serialized. A write moves a post by removing and re-adding it, so top does
+ * not trust a single walk of the skip-list: it reads a write counter before and after,
+ * walks again if a write ran meanwhile, and only waits for the lock after a few tries.
+ */
+final class HotnessRanking {
+
+    private static final int REBASE_HALF_LIVES = 64;
+    private static final int READ_ATTEMPTS = 4;
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::raw).reversed()
+            .thenComparing(Entry::postId);
+
+    private final long halfLifeMillis;
+    private final int maxTracked;
+    private final Map<String, Double> raw = new HashMap<>();
+    private volatile State state;
+    private volatile long writes;  // Odd while a write is in progress
+
+    record Scored(String postId, double score) {
+    }
+
+    // The saved form: scores relative to epoch, highest first
+    record Snapshot(long epoch, Map<String, Double> scores) {
+    }
+
+    private record Entry(String postId, double raw) {
+    }
+
+    // Replaced as a whole on rebase, so a reader always pairs an order with its epoch
+    private record State(long epoch, NavigableSet<Entry> order) {
+    }
+
+    HotnessRanking(long halfLifeMillis, int maxTracked, long epoch) {
+        this.halfLifeMillis = halfLifeMillis;
+        this.maxTracked = maxTracked;
+        this.state = new State(epoch, new ConcurrentSkipListSet<>(ORDER));
+    }
+
+    long halfLifeMillis() {
+        return halfLifeMillis;
+    }
+
+    // Add a weight as of the given time, at the latest now; a negative weight takes one
+    // back. A post whose score reaches zero leaves the ranking.
+    synchronized void add(String postId, double weight, long at) {
+        at = Math.min(at, System.currentTimeMillis());
+        writes++;
+        try {
+            if (at - state.epoch() > REBASE_HALF_LIVES * halfLifeMillis) {
+                rebase(at);
+            }
+            put(postId, weight * scale(at - state.epoch()));
+        } finally {
+            writes++;
+        }
+    }
+
+    synchronized void remove(String postId) {
+        writes++;
+        try {
+            Double previous = raw.remove(postId);
+            if (previous != null) {
+                state.order().remove(new Entry(postId, previous));
+            }
+        } finally {
+            writes++;
+        }
+    }
+
+    // The highest scored posts, with their scores as of now
+    List<Scored> top(int limit, long now) {
+        for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+            long seen = writes;
+            if ((seen & 1) == 0) {
+                List<Scored> top = read(limit, now);
+                if (writes == seen) {
+                    return top;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        synchronized (this) {
+            return read(limit, now);
+        }
+    }
+
+    private List<Scored> read(int limit, long now) {
+        State current = state;
+        double decay = scale(current.epoch() - now);
+        List<Scored> top = new ArrayList<>(limit);
+        for (Entry entry : current.order()) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(new Scored(entry.postId(), entry.raw() * decay));
+        }
+        return top;
+    }
+
+    synchronized Snapshot snapshot(int limit) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (Entry entry : state.order()) {
+            if (scores.size() == limit) {
+                break;
+            }
+            scores.put(entry.postId(), entry.raw());
+        }
+        return new Snapshot(state.epoch(), scores);
+    }
+
+    // Add saved scores to what is already ranked
+    synchronized void merge(Snapshot snapshot) {
+        writes++;
+        try {
+            double rescale = scale(snapshot.epoch() - state.epoch());
+            snapshot.scores().forEach((postId, score) -> put(postId, score * rescale));
+        } finally {
+            writes++;
+        }
+    }
+
+    int size() {
+        return state.order().size();
+    }
+
+    private void put(String postId, double delta) {
+        Double previous = raw.get(postId);
+        if (previous != null) {
+            state.order().remove(new Entry(postId, previous));
+        }
+        double value = (previous != null ? previous : 0) + delta;
+        if (value <= 0) {
+            raw.remove(postId);
+            return;
+        }
+        raw.put(postId, value);
+        state.order().add(new Entry(postId, value));
+        while (raw.size() > maxTracked) {
+            Entry lowest = state.order().pollLast();
+            raw.remove(lowest.postId());
+        }
+    }
+
+    private void rebase(long epoch) {
+        double rescale = scale(state.epoch() - epoch);
+        NavigableSet<Entry> order = new ConcurrentSkipListSet<>(ORDER);
+        raw.replaceAll((postId, value) -> value * rescale);
+        raw.values().removeIf(value -> value <= 0);
+        raw.forEach((postId, value) -> order.add(new Entry(postId, value)));
+        state = new State(epoch, order);
+    }
+
+    private double scale(long millis) {
+        return Math.pow(2, (double) millis / halfLifeMillis);
+    }
+}
@@ -0,0 +1,80 @@
+package com.backend.backend.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.backend.backend.Model.LikeResult;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Repository.LikeRepository;
+
+@Service
+public class LikeService {
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    // Like/Unlike a post. A null liked flag toggles the current state.
+    public LikeResult like(String postId, String userId, Boolean liked) {
+        return likeRepository.like(postId, userId, liked);
+    }
+
+    public CompletableFuture<LikeResult> likeAsync(String postId, String userId, Boolean liked) {
+        return likeRepository.likeAsync(postId, userId, liked);
+    }
+
+    // Return copies of the posts with likeCount and likedByMe filled in for the given viewer.
+    // Copies keep cached posts free of per-viewer state. When the engine doesn't keep
+    // likers on the post, the likes list is dropped from the response.
+    public List<Post> decorate(List<Post> posts, String viewerId) {
+        if (posts.isEmpty()) {
+            return posts;
+        }
+        Map<String, Long> counts = likeRepository.countLikes(posts);
+        Set<String> likedPostIds = viewerId != null ? likeRepository.findLikedPostIds(posts, viewerId) : Set.of();
+        return decorate(posts, viewerId, counts, likedPostIds);
+    }
+
+    // Counts and the viewer's likes are fetched concurrently
+    public CompletableFuture<List<Post>> decorateAsync(List<Post> posts, String viewerId) {
+        if (posts.isEmpty()) {
+            return CompletableFuture.completedFuture(posts);
+        }
+        CompletableFuture<Map<String, Long>> counts = likeRepository.countLikesAsync(posts);
+        CompletableFuture<Set<String>> likedPostIds = viewerId != null
+                ? likeRepository.findLikedPostIdsAsync(posts, viewerId)
+                : CompletableFuture.completedFuture(Set.of());
+        return counts.thenCombine(likedPostIds, (postCounts, liked) -> decorate(posts, viewerId, postCounts, liked));
+    }
+
+    // Remove like data stored outside a deleted post
+    public void deleteLikes(String postId) {
+        likeRepository.deleteLikes(postId);
+    }
+
+    public CompletableFuture<Void> deleteLikesAsync(String postId) {
+        return likeRepository.deleteLikesAsync(postId);
+    }
+
+    private List<Post> decorate(List<Post> posts, String viewerId, Map<String, Long> counts, Set<String> likedPostIds) {
+        boolean keepsLikes = likeRepository.keepsLikesOnPost();
+        List<Post> decorated = new ArrayList<>(posts.size());
+        for (Post original : posts) {
+            Post post = new Post(original);
+            if (!keepsLikes) {
+                post.setLikes(null);
+            }
+            post.setLikeCount(counts.getOrDefault(post.getPostId(), 0L));
+            if (viewerId != null) {
+                post.setLikedByMe(likedPostIds.contains(post.getPostId()));
+            }
+            decorated.add(post);
+        }
+        return decorated;
+    }
+}
@@ -3,161 +3,315 @@ package com.backend.backend.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+import com.backend.backend.Model.LikeResult;
+import com.backend.backend.Model.MultiGetResult;
+import com.backend.backend.Model.Page;
 import com.backend.backend.Model.Post;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
+import com.backend.backend.Repository.PageCursor;
+import com.backend.backend.Repository.PostRepository;
+import com.backend.backend.config.CacheConfig;
 
+// The ...Async methods never block on Firestore; they complete on the gRPC callback
+// thread, so the request thread is free while the RPC is in flight. Concurrent identical
+// reads share one query (see SingleFlight), so results handed out must not be mutated.
 @Service
 public class PostService {
 
-    private static final String COLLECTION_NAME = "posts";
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private FeedService feedService;
 
     @Autowired
-    private Firestore firestore;
+    private SearchService searchService;
 
-    // Create a new post
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private SingleFlight singleFlight;
+
+    @PostConstruct
+    void init() {
+        singleFlight = new SingleFlight("posts", registry);
+    }
+
+    // Create a new post and start fanning it out to home feeds
     public Post createPost(Post post) {
+        prepareNewPost(post);
+        Post created = postRepository.create(post);
+        forgetListings();
+        searchService.postWritten(created);
+        rankingService.postCreated(created);
+        feedService.publish(created);
+        return created;
+    }
+
+    public CompletableFuture<Post> createPostAsync(Post post) {
         try {
-            if (post.getUsername() == null || post.getDescription() == null) {
-                throw new IllegalArgumentException("Missing required fields");
-            }
-            if (post.getLikes() == null) {
-                post.setLikes(new ArrayList<>());
-            }
-            if (post.getCreatedAt() == null) {
-                post.setCreatedAt(LocalDateTime.now());
-            }
-            
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document();
-            post.setPostId(docRef.getId());
-            docRef.set(post.toMap()).get();
-            return post;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error creating post", e);
+            prepareNewPost(post);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return postRepository.createAsync(post).thenApply(created -> {
+            forgetListings();
+            searchService.postWritten(created);
+            rankingService.postCreated(created);
+            feedService.publish(created);
+            return created;
+        });
     }
 
-    // Get a post by ID
-    public Post getPostById(String postId) {
+    // Look up many posts by id, serving what the single-document cache holds
+    public MultiGetResult<Post> getPostsByIds(List<String> ids) {
+        return CachedMultiGet.get(cacheManager.getCache(CacheConfig.POSTS), Post.class, BulkRequests.checkIds(ids),
+                Post::getPostId, misses -> CompletableFuture.completedFuture(postRepository.findAllById(misses))).join();
+    }
+
+    public CompletableFuture<MultiGetResult<Post>> getPostsByIdsAsync(List<String> ids) {
+        List<String> distinct;
         try {
-            DocumentSnapshot document = firestore.collection(COLLECTION_NAME)
-                    .document(postId).get().get();
-            if (document.exists()) {
-                return Post.fromMap(document.getId(), document.getData());
-            }
-            return null;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting post", e);
+            distinct = BulkRequests.checkIds(ids);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return CachedMultiGet.get(cacheManager.getCache(CacheConfig.POSTS), Post.class, distinct,
+                Post::getPostId, postRepository::findAllByIdAsync);
+    }
+
+    // Get a post by ID
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "#postId", unless = "#result == null")
+    public Post getPostById(String postId) {
+        return postRepository.findById(postId).orElse(null);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "#postId", unless = "#result == null")
+    public CompletableFuture<Post> getPostByIdAsync(String postId) {
+        return singleFlight.load(new ById(postId),
+                () -> postRepository.findByIdAsync(postId).thenApply(post -> post.orElse(null)));
     }
 
-    // Update an existing post
+    // Update an existing post with one field-masked write, then read it back so the response
+    // and the search index get the whole post. Null when the post doesn't exist.
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public Post updatePost(String postId, Post updatedPost) {
+        updatedPost.setSkills(SkillTags.normalize(updatedPost.getSkills()));
+        boolean updated = postRepository.update(postId, updatedPost.toUpdateMap());
+        forgetPost(postId);
+        return updated ? indexed(postRepository.findById(postId).orElse(null)) : null;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public CompletableFuture<Post> updatePostAsync(String postId, Post updatedPost) {
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(postId);
-            DocumentSnapshot document = docRef.get().get();
-            
-            if (!document.exists()) {
-                return null;
-            }
-            
-            Post existingPost = Post.fromMap(document.getId(), document.getData());
-            existingPost.setDescription(updatedPost.getDescription());
-            existingPost.setUserImage(updatedPost.getUserImage());
-            
-            docRef.set(existingPost.toMap()).get();
-            return existingPost;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error updating post", e);
+            updatedPost.setSkills(SkillTags.normalize(updatedPost.getSkills()));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return postRepository.updateAsync(postId, updatedPost.toUpdateMap()).thenCompose(updated -> {
+            forgetPost(postId);
+            return updated
+                    ? postRepository.findByIdAsync(postId).thenApply(post -> indexed(post.orElse(null)))
+                    : CompletableFuture.completedFuture(null);
+        });
     }
 
     // Delete a post by ID
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public boolean deletePost(String postId) {
-        try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(postId);
-            DocumentSnapshot document = docRef.get().get();
-            
-            if (!document.exists()) {
-                return false;
-            }
-            
-            docRef.delete().get();
-            return true;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error deleting post", e);
+        boolean deleted = postRepository.deleteById(postId);
+        forgetPost(postId);
+        if (!deleted) {
+            return false;
         }
+        searchService.postDeleted(postId);
+        rankingService.postDeleted(postId);
+        likeService.deleteLikes(postId);
+        return true;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public CompletableFuture<Boolean> deletePostAsync(String postId) {
+        return postRepository.deleteByIdAsync(postId).thenCompose(deleted -> {
+            forgetPost(postId);
+            if (deleted) {
+                searchService.postDeleted(postId);
+                rankingService.postDeleted(postId);
+            }
+            return deleted
+                    ? likeService.deleteLikesAsync(postId).thenApply(done -> true)
+                    : CompletableFuture.completedFuture(false);
+        });
     }
 
     // Get all posts
     public List<Post> getAllPosts() {
+        return postRepository.findAll();
+    }
+
+    public CompletableFuture<List<Post>> getAllPostsAsync() {
+        return singleFlight.load(new Listing(null, null, null), postRepository::findAllAsync);
+    }
+
+    // Get a page of posts, newest first
+    public Page<Post> getPostsPage(Integer limit, String cursor) {
+        return postRepository.findAll(PageCursor.clampPageSize(limit), cursor);
+    }
+
+    public CompletableFuture<Page<Post>> getPostsPageAsync(Integer limit, String cursor) {
+        int pageSize = PageCursor.clampPageSize(limit);
+        return singleFlight.load(new Listing(null, pageSize, cursor),
+                () -> postRepository.findAllAsync(pageSize, cursor));
+    }
+
+    // Get a page of the posts tagged with any of the comma-separated skills, newest first
+    public Page<Post> getPostsBySkillsPage(String skills, Integer limit, String cursor) {
+        return postRepository.findBySkills(SkillTags.parse(skills), PageCursor.clampPageSize(limit), cursor);
+    }
+
+    public CompletableFuture<Page<Post>> getPostsBySkillsPageAsync(String skills, Integer limit, String cursor) {
+        List<String> tags;
         try {
-            List<Post> posts = new ArrayList<>();
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .orderBy("createdAt", Query.Direction.DESCENDING)
-                    .get();
-            
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot document : documents) {
-                posts.add(Post.fromMap(document.getId(), document.getData()));
-            }
-            return posts;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting all posts", e);
+            tags = SkillTags.parse(skills);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        int pageSize = PageCursor.clampPageSize(limit);
+        return singleFlight.load(new BySkills(tags, pageSize, cursor),
+                () -> postRepository.findBySkillsAsync(tags, pageSize, cursor));
     }
 
-    // Like/Unlike a post
-    public Post likePost(String postId, String userId) {
+    // Like/Unlike a post. A null liked flag toggles the current state.
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public LikeResult likePost(String postId, String userId, Boolean liked) {
+        LikeResult result = likeService.like(postId, userId, liked);
+        forgetPost(postId);
+        return ranked(result);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public CompletableFuture<LikeResult> likePostAsync(String postId, String userId, Boolean liked) {
+        return likeService.likeAsync(postId, userId, liked).thenApply(result -> {
+            forgetPost(postId);
+            return ranked(result);
+        });
+    }
+
+    // The hottest posts in a trending window, best first. Ids come from the in-memory ranking
+    // and posts from the single-document cache; posts that no longer exist are dropped from it.
+    public CompletableFuture<List<Post>> getTrendingPostsAsync(String window, Integer limit) {
+        List<String> postIds;
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(postId);
-            DocumentSnapshot document = docRef.get().get();
-            
-            if (!document.exists()) {
-                return null;
-            }
-            
-            Post post = Post.fromMap(document.getId(), document.getData());
-            if (post.getLikes() == null) {
-                post.setLikes(new ArrayList<>());
-            }
-            
-            // Toggle like
-            if (post.getLikes().contains(userId)) {
-                post.getLikes().remove(userId);
-            } else {
-                post.getLikes().add(userId);
-            }
-            
-            docRef.set(post.toMap()).get();
-            return post;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error liking post", e);
+            postIds = rankingService.getTrendingPostIds(window != null ? window : rankingService.defaultWindow(), limit);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (postIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
         }
+        return getPostsByIdsAsync(postIds).thenApply(result -> {
+            List<Post> posts = new ArrayList<>(postIds.size());
+            for (String postId : postIds) {
+                Post post = result.getItems().get(postId);
+                if (post != null) {
+                    posts.add(post);
+                } else {
+                    rankingService.postDeleted(postId);
+                }
+            }
+            return posts;
+        });
     }
 
     // Get posts by user ID
     public List<Post> getPostsByUser(String userId) {
-        try {
-            List<Post> posts = new ArrayList<>();
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("userId", userId)
-                    .orderBy("createdAt", Query.Direction.DESCENDING)
-                    .get();
-            
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot document : documents) {
-                posts.add(Post.fromMap(document.getId(), document.getData()));
-            }
-            return posts;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting posts by user", e);
+        return postRepository.findByUserId(userId);
+    }
+
+    public CompletableFuture<List<Post>> getPostsByUserAsync(String userId) {
+        return singleFlight.load(new Listing(userId, null, null), () -> postRepository.findByUserIdAsync(userId));
+    }
+
+    // Get a page of a user's posts, newest first
+    public Page<Post> getPostsByUserPage(String userId, Integer limit, String cursor) {
+        return postRepository.findByUserId(userId, PageCursor.clampPageSize(limit), cursor);
+    }
+
+    public CompletableFuture<Page<Post>> getPostsByUserPageAsync(String userId, Integer limit, String cursor) {
+        int pageSize = PageCursor.clampPageSize(limit);
+        return singleFlight.load(new Listing(userId, pageSize, cursor),
+                () -> postRepository.findByUserIdAsync(userId, pageSize, cursor));
+    }
+
+    // After a write to the post: reads of it or of any listing start afresh instead of
+    // joining one that may have been issued before the write
+    public void forgetPost(String postId) {
+        singleFlight.forget(new ById(postId));
+        forgetListings();
+    }
+
+    private void forgetListings() {
+        singleFlight.forgetIf(key -> key instanceof Listing || key instanceof BySkills);
+    }
+
+    private void prepareNewPost(Post post) {
+        if (post.getUsername() == null || post.getDescription() == null) {
+            throw new IllegalArgumentException("Missing required fields");
+        }
+        if (post.getLikes() == null) {
+            post.setLikes(new ArrayList<>());
+        }
+        post.setLikeCount(post.getLikes().size());
+        post.setSkills(SkillTags.normalize(post.getSkills()));
+        if (post.getCreatedAt() == null) {
+            post.setCreatedAt(LocalDateTime.now());
+        }
+    }
+
+    private LikeResult ranked(LikeResult result) {
+        if (result != null && result.isChanged()) {
+            rankingService.liked(result.getPostId(), result.isLiked());
+        }
+        return result;
+    }
+
+    // Null when the post was deleted right after the write
+    private Post indexed(Post updated) {
+        if (updated != null) {
+            searchService.postWritten(updated);
         }
+        return updated;
+    }
+
+    // Single-flight keys: one post, or a listing of all posts or one user's (userId null
+    // for all; pageSize null for the unpaged list)
+    private record ById(String postId) {
+    }
+
+    private record Listing(String userId, Integer pageSize, String cursor) {
+    }
+
+    private record BySkills(List<String> skills, int pageSize, String cursor) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,237 @@
+package com.backend.backend.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.backend.backend.Model.Post;
+import com.backend.backend.Model.RankingCheckpoint;
+import com.backend.backend.Repository.PageCursor;
+import com.backend.backend.Repository.PostRepository;
+import com.backend.backend.Repository.RankingRepository;
+import com.backend.backend.Service.HotnessRanking.Scored;
+import com.backend.backend.Service.HotnessRanking.Snapshot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Trending posts per window, answered from in-memory {@link HotnessRanking}s that the
+ * post, like and comment services update as their writes complete. Each window is a
+ * name and a half-life (ranking.windows, name:hours pairs): a short half-life follows
+ * what is active right now, a long one what has held attention over days.
+ *
+ * Every ranking.checkpoint.interval-ms the top ranking.checkpoint.size posts of each
+ * window are saved to rankings/{window} if anything changed, and merged back on start.
+ * A window without a usable checkpoint is seeded from the newest ranking.seed-size
+ * posts, scored as if their likes and comments had arrived when they were created.
+ * Likes and comments written straight to Firestore by the web app are not counted.
+ */
+@Service
+public class RankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingService.class);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private RankingRepository rankingRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${ranking.windows:day:6,week:48}")
+    private String windows;
+
+    @Value("${ranking.weights.post:1}")
+    private double postWeight;
+
+    @Value("${ranking.weights.like:1}")
+    private double likeWeight;
+
+    @Value("${ranking.weights.comment:3}")
+    private double commentWeight;
+
+    @Value("${ranking.max-tracked:10000}")
+    private int maxTracked;
+
+    @Value("${ranking.checkpoint.size:1000}")
+    private int checkpointSize;
+
+    @Value("${ranking.checkpoint.interval-ms:60000}")
+    private long checkpointIntervalMs;
+
+    @Value("${ranking.seed-size:500}")
+    private int seedSize;
+
+    private final Map<String, HotnessRanking> rankings = new LinkedHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ranking-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        long now = System.currentTimeMillis();
+        for (String window : windows.split(",")) {
+            String[] parts = window.trim().split(":");
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalStateException("ranking.windows must be name:hours pairs, got " + window);
+            }
+            long halfLifeMillis = (long) (Double.parseDouble(parts[1]) * TimeUnit.HOURS.toMillis(1));
+            HotnessRanking ranking = new HotnessRanking(halfLifeMillis, maxTracked, now);
+            rankings.put(parts[0].trim(), ranking);
+            Gauge.builder("ranking.tracked", ranking, HotnessRanking::size).tag("window", parts[0].trim())
+                    .description("Posts held in a trending ranking").register(registry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<CompletableFuture<String>> restored = new ArrayList<>(rankings.size());
+        rankings.forEach((window, ranking) -> restored.add(rankingRepository.findAsync(window)
+                .thenApply(checkpoint -> {
+                    if (checkpoint.isEmpty() || checkpoint.get().getHalfLifeMillis() != ranking.halfLifeMillis()) {
+                        return window;
+                    }
+                    ranking.merge(new Snapshot(checkpoint.get().getEpoch(), checkpoint.get().getScores()));
+                    log.info("Trending window {} restored: {} posts", window, checkpoint.get().getScores().size());
+                    return null;
+                })
+                // Unreadable checkpoints are seeded like missing ones
+                .exceptionally(error -> {
+                    log.warn("Could not read the {} ranking checkpoint", window, error);
+                    return window;
+                })));
+        CompletableFuture.allOf(restored.toArray(new CompletableFuture<?>[0]))
+                .thenCompose(done -> {
+                    List<String> unseeded = restored.stream().map(CompletableFuture::join)
+                            .filter(window -> window != null).toList();
+                    return unseeded.isEmpty() ? CompletableFuture.completedFuture(null) : seed(unseeded);
+                })
+                .whenComplete((done, error) -> {
+                    if (error != null) {
+                        log.warn("Trending rankings could not be seeded, they start from new activity", error);
+                    }
+                    scheduler.scheduleWithFixedDelay(this::checkpoint, checkpointIntervalMs, checkpointIntervalMs,
+                            TimeUnit.MILLISECONDS);
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        checkpoint();
+    }
+
+    // Ids of the highest scored posts in a window, best first; an unknown window is an IllegalArgumentException
+    public List<String> getTrendingPostIds(String window, Integer limit) {
+        HotnessRanking ranking = rankings.get(window);
+        if (ranking == null) {
+            throw new IllegalArgumentException("Unknown trending window: " + window + ", expected one of " + rankings.keySet());
+        }
+        List<String> postIds = new ArrayList<>();
+        for (Scored scored : ranking.top(PageCursor.clampPageSize(limit), System.currentTimeMillis())) {
+            postIds.add(scored.postId());
+        }
+        return postIds;
+    }
+
+    // The window used when a request names none
+    public String defaultWindow() {
+        return rankings.keySet().iterator().next();
+    }
+
+    // createdAt comes from the client, so it counts at most as now
+    public void postCreated(Post post) {
+        long now = System.currentTimeMillis();
+        long createdAt = post.getCreatedAt() != null ? Math.min(epochMillis(post.getCreatedAt()), now) : now;
+        add(post.getPostId(), postWeight, createdAt);
+    }
+
+    public void postDeleted(String postId) {
+        rankings.values().forEach(ranking -> ranking.remove(postId));
+        dirty.set(true);
+    }
+
+    // An unlike takes back a like's weight as of now, so like/unlike cycles never raise a score
+    public void liked(String postId, boolean liked) {
+        add(postId, liked ? likeWeight : -likeWeight, System.currentTimeMillis());
+    }
+
+    public void commentsAdded(String postId, int count) {
+        add(postId, commentWeight * count, System.currentTimeMillis());
+    }
+
+    public void commentRemoved(String postId) {
+        add(postId, -commentWeight, System.currentTimeMillis());
+    }
+
+    private void add(String postId, double weight, long at) {
+        if (postId == null) {
+            return;
+        }
+        rankings.values().forEach(ranking -> ranking.add(postId, weight, at));
+        dirty.set(true);
+    }
+
+    private CompletableFuture<Void> seed(List<String> windows) {
+        return postRepository.findAllAsync(seedSize, null).thenAccept(page -> {
+            for (Post post : page.getItems()) {
+                if (post.getCreatedAt() == null) {
+                    continue;
+                }
+                double weight = postWeight + likeWeight * post.getLikeCount() + commentWeight * post.getCommentCount();
+                long createdAt = epochMillis(post.getCreatedAt());
+                windows.forEach(window -> rankings.get(window).add(post.getPostId(), weight, createdAt));
+            }
+            dirty.set(true);
+            log.info("Trending windows {} seeded from {} recent posts", windows, page.getItems().size());
+        });
+    }
+
+    private void checkpoint() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        long savedAt = System.currentTimeMillis();
+        rankings.forEach((window, ranking) -> {
+            Snapshot snapshot = ranking.snapshot(checkpointSize);
+            RankingCheckpoint checkpoint = new RankingCheckpoint(window, ranking.halfLifeMillis(), snapshot.epoch(),
+                    savedAt, snapshot.scores());
+            try {
+                rankingRepository.save(checkpoint);
+            } catch (RuntimeException e) {
+                dirty.set(true);
+                log.warn("Could not save the {} ranking checkpoint", window, e);
+            }
+        });
+    }
+
+    private static long epochMillis(LocalDateTime createdAt) {
+        return createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,288 @@
+package com.backend.backend.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index ranked with BM25. Each document is a title and a body; title terms
+ * count twice. Terms are kept sorted, so a query term also matches every indexed term
+ * it is a prefix of ("learn" finds "learning"), at a lower weight than an exact match.
+ *
+ * Postings and documents are guarded by one read-write lock: queries run in parallel
+ * and a write holds the index only for the terms of one document.
+ */
+final class SearchIndex {
+
+    // BM25 parameters, the usual defaults
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final double PREFIX_WEIGHT = 0.6;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int MAX_LABEL_LENGTH = 140;
+
+    // Best score first, then newest, then by key so the order is total
+    static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(Comparator.comparingLong((Hit hit) -> hit.document().createdAt()).reversed())
+            .thenComparing(hit -> hit.document().key());
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final Map<String, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    // An indexed document with the term frequencies it was indexed with; label is the
+    // text shown for it in results
+    record Document(String type, String id, String userId, String label, long createdAt,
+                    int length, Map<String, Integer> terms) {
+
+        String key() {
+            return key(type, id);
+        }
+
+        static String key(String type, String id) {
+            return type + "/" + id;
+        }
+    }
+
+    record Hit(Document document, double score) {
+    }
+
+    // Tokenize a title and body into a document
+    static Document document(String type, String id, String userId, String title, String body, long createdAt) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        int length = 0;
+        for (String term : tokenize(title)) {
+            terms.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String term : tokenize(body)) {
+            terms.merge(term, 1, Integer::sum);
+            length++;
+        }
+        return new Document(type, id, userId, label(title != null && !title.isBlank() ? title : body),
+                createdAt, length, terms);
+    }
+
+    private static String label(String text) {
+        if (text == null) {
+            return null;
+        }
+        String label = text.strip();
+        return label.length() <= MAX_LABEL_LENGTH ? label : label.substring(0, MAX_LABEL_LENGTH - 1).strip() + "\u2026";
+    }
+
+    // Position of the last hit on a page: its score, createdAt and key
+    static String encodeCursor(Hit hit) {
+        String raw = Long.toHexString(Double.doubleToLongBits(hit.score())) + "|" + hit.document().createdAt()
+                + "|" + hit.document().type() + "|" + hit.document().id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Hit decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            double score = Double.longBitsToDouble(Long.parseUnsignedLong(parts[0], 16));
+            Document position = new Document(parts[2], parts[3], null, null, Long.parseLong(parts[1]), 0, Map.of());
+            return new Hit(position, score);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Index of the first hit ranked after a cursor position, which need not be among the
+    // hits any more (the document may have changed or gone since the previous page)
+    static int startAfter(List<Hit> hits, Hit after) {
+        int found = Collections.binarySearch(hits, after, RANKING);
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    // Lower-cased letter and digit runs with accents folded, minus stop words
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = folded.substring(start, Math.min(i, start + MAX_TERM_LENGTH));
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Add a document, replacing any with the same key
+    void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.key());
+            documents.put(document.key(), document);
+            totalLength += document.length();
+            document.terms().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.key(), frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Document get(String key) {
+        lock.readLock().lock();
+        try {
+            return documents.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every matching document, in RANKING order
+    List<Hit> search(String query, Set<String> types) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<String, Double> scores = new HashMap<>();
+            for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+                // A document matching the term several ways scores its best match only
+                Map<String, Double> termScores = new HashMap<>();
+                for (Map.Entry<String, Map<String, Integer>> posting : matches(queryTerm).entrySet()) {
+                    double weight = posting.getKey().equals(queryTerm) ? 1 : PREFIX_WEIGHT;
+                    Map<String, Integer> docs = posting.getValue();
+                    double idf = Math.log(1 + (documents.size() - docs.size() + 0.5) / (docs.size() + 0.5));
+                    docs.forEach((key, frequency) -> {
+                        Document document = documents.get(key);
+                        if (types.isEmpty() || types.contains(document.type())) {
+                            double norm = K1 * (1 - B + B * document.length() / averageLength);
+                            double score = weight * idf * frequency * (K1 + 1) / (frequency + norm);
+                            termScores.merge(key, score, Math::max);
+                        }
+                    });
+                }
+                termScores.forEach((key, score) -> scores.merge(key, score, Double::sum));
+            }
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((key, score) -> hits.add(new Hit(documents.get(key), score)));
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Copy of every document, for writing a segment
+    List<Document> documents() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(documents.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void putAll(Collection<Document> loaded) {
+        loaded.forEach(this::put);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The term itself, plus the terms it prefixes once it is long enough
+    private Map<String, Map<String, Integer>> matches(String queryTerm) {
+        if (queryTerm.length() < MIN_PREFIX_LENGTH) {
+            Map<String, Integer> exact = postings.get(queryTerm);
+            return exact != null ? Map.of(queryTerm, exact) : Map.of();
+        }
+        Map<String, Map<String, Integer>> matches = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> entry
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            matches.put(entry.getKey(), entry.getValue());
+            if (matches.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private void removeLocked(String key) {
+        Document previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.terms().keySet()) {
+            Map<String, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(key);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.backend.backend.Service;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.backend.backend.Service.SearchIndex.Document;
+
+/**
+ * The search index saved as one memory-mapped file: a header, then every document with
+ * the term frequencies it was indexed with, so loading rebuilds the postings without
+ * tokenizing anything or reading Firestore.
+ *
+ * header    magic, version, builtAt, postsSince, document count
+ * document  type, id, userId, label, createdAt, length, term count, (term, frequency)*
+ *
+ * Strings are a length and UTF-8 bytes, -1 for null. A segment is written to a temporary
+ * file and moved over the old one, so a crash mid-write leaves the previous segment whole.
+ */
+final class SearchSegment {
+
+    private static final int MAGIC = 0x534B5347; // "SKSG"
+    private static final int VERSION = 1;
+
+    // builtAt: when the documents were last read in full from Firestore.
+    // postsSince: posts created from then on may be missing and are read again on load.
+    record Contents(long builtAt, long postsSince, List<Document> documents) {
+    }
+
+    private SearchSegment() {
+    }
+
+    static void write(Path path, Contents contents) throws IOException {
+        List<byte[][]> encoded = new ArrayList<>(contents.documents().size());
+        long size = 4 + 4 + 8 + 8 + 4;
+        for (Document document : contents.documents()) {
+            byte[][] strings = new byte[4 + document.terms().size()][];
+            strings[0] = utf8(document.type());
+            strings[1] = utf8(document.id());
+            strings[2] = utf8(document.userId());
+            strings[3] = utf8(document.label());
+            int i = 4;
+            for (String term : document.terms().keySet()) {
+                strings[i++] = utf8(term);
+            }
+            for (byte[] string : strings) {
+                size += 4 + (string != null ? string.length : 0);
+            }
+            size += 8 + 4 + 4 + 4L * document.terms().size();
+            encoded.add(strings);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Search segment too large: " + size + " bytes");
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(VERSION)
+                        .putLong(contents.builtAt()).putLong(contents.postsSince())
+                        .putInt(contents.documents().size());
+                for (int d = 0; d < encoded.size(); d++) {
+                    Document document = contents.documents().get(d);
+                    byte[][] strings = encoded.get(d);
+                    for (int i = 0; i < 4; i++) {
+                        putString(buffer, strings[i]);
+                    }
+                    buffer.putLong(document.createdAt()).putInt(document.length()).putInt(document.terms().size());
+                    int i = 4;
+                    for (int frequency : document.terms().values()) {
+                        putString(buffer, strings[i++]);
+                        buffer.putInt(frequency);
+                    }
+                }
+                buffer.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Null when there is no segment, or it was written by another version
+    static Contents read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Search segment too large: " + channel.size() + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            long builtAt = buffer.getLong();
+            long postsSince = buffer.getLong();
+            int count = buffer.getInt();
+            List<Document> documents = new ArrayList<>();
+            for (int d = 0; d < count; d++) {
+                String type = getString(buffer);
+                String id = getString(buffer);
+                String userId = getString(buffer);
+                String label = getString(buffer);
+                long createdAt = buffer.getLong();
+                int length = buffer.getInt();
+                int termCount = buffer.getInt();
+                Map<String, Integer> terms = new LinkedHashMap<>();
+                for (int t = 0; t < termCount; t++) {
+                    terms.put(getString(buffer), buffer.getInt());
+                }
+                documents.add(new Document(type, id, userId, label, createdAt, length, terms));
+            }
+            return new Contents(builtAt, postsSince, documents);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Search segment " + path + " is truncated or corrupt", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
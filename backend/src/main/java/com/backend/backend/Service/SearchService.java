@@ -0,0 +1,421 @@
+package com.backend.backend.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.ChangeEvent;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Model.SearchHit;
+import com.backend.backend.Model.Subtopic;
+import com.backend.backend.Model.Topic;
+import com.backend.backend.Model.UserStatus;
+import com.backend.backend.Repository.ChangeStreamRepository;
+import com.backend.backend.Repository.ChangeStreamRepository.ChangeSink;
+import com.backend.backend.Repository.PageCursor;
+import com.backend.backend.Repository.PostRepository;
+import com.backend.backend.Repository.TopicRepository;
+import com.backend.backend.Repository.UserStatusRepository;
+import com.backend.backend.Service.SearchIndex.Document;
+import com.backend.backend.Service.SearchIndex.Hit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Full-text search over post descriptions, topic titles and descriptions, and user
+ * status descriptions, answered from an in-process {@link SearchIndex}.
+ *
+ * The index follows the services' writes as they complete. The web app also creates
+ * posts straight in Firestore, so a listener adds posts created since the index was
+ * last saved. Every search.segment.flush-interval-ms a changed index is saved to the
+ * segment file and loaded from it on start; only a missing segment, or one older than
+ * search.segment.max-age-hours, rebuilds the index by reading the three collections in
+ * full, which also drops posts deleted outside the API. The in-memory profile never
+ * saves a segment, as its data is gone after a restart.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final String POST = "post";
+    public static final String TOPIC = "topic";
+    public static final String STATUS = "status";
+
+    private static final Set<String> TYPES = Set.of(POST, TOPIC, STATUS);
+
+    // Posts created this long before the index was saved are read again by the listener,
+    // covering clock skew between servers and the web app's server timestamps
+    private static final Duration LISTEN_OVERLAP = Duration.ofMinutes(5);
+    private static final long LISTEN_RETRY_SECONDS = 30;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private UserStatusRepository userStatusRepository;
+
+    @Autowired
+    private ChangeStreamRepository changeStreamRepository;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${search.segment.path:}")
+    private String segmentPath;
+
+    @Value("${search.segment.flush-interval-ms:30000}")
+    private long flushIntervalMs;
+
+    @Value("${search.segment.max-age-hours:24}")
+    private long maxAgeHours;
+
+    @Value("${search.posts.listen:true}")
+    private boolean listenToPosts;
+
+    private final SearchIndex index = new SearchIndex();
+
+    // While the index is being filled from a segment or a rebuild, keys written by the
+    // services are recorded here so the older copy being loaded doesn't overwrite them
+    private final Lock writes = new ReentrantLock();
+    private final Set<String> written = ConcurrentHashMap.newKeySet();
+    private volatile boolean filling;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile long builtAt;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Runnable stopListening = () -> { };
+
+    private Timer queries;
+
+    @PostConstruct
+    void init() {
+        queries = Timer.builder("search.query").description("Time to rank and page a search").register(registry);
+        Gauge.builder("search.documents", index, SearchIndex::size)
+                .description("Documents in the search index").register(registry);
+        Gauge.builder("search.terms", index, SearchIndex::termCount)
+                .description("Distinct terms in the search index").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        filling = true;
+        Path path = segment();
+        SearchSegment.Contents saved = null;
+        if (path != null) {
+            try {
+                saved = SearchSegment.read(path);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable search segment {}", path, e);
+            }
+        }
+        CompletableFuture<Long> filled;
+        if (saved != null && System.currentTimeMillis() - saved.builtAt() < TimeUnit.HOURS.toMillis(maxAgeHours)) {
+            saved.documents().forEach(document -> fill(document.key(), () -> index.put(document)));
+            builtAt = saved.builtAt();
+            log.info("Search index loaded from {}: {} documents", path, saved.documents().size());
+            filled = CompletableFuture.completedFuture(saved.postsSince());
+        } else {
+            filled = rebuildAsync();
+        }
+        filled.whenComplete((postsSince, error) -> {
+            finishFilling();
+            if (error != null) {
+                log.warn("Search index rebuild failed, only new writes are searchable until the next start", error);
+                return;
+            }
+            if (listenToPosts) {
+                listen(postsSince);
+            }
+            if (path != null) {
+                scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stopListening.run();
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    // A page of hits, best first. types is a comma-separated subset of post, topic and
+    // status, all of them when empty; an empty query or unknown type is an IllegalArgumentException.
+    public Page<SearchHit> search(String query, String types, Integer limit, String cursor) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Missing search query");
+        }
+        Set<String> typeSet = parseTypes(types);
+        Hit after = cursor != null ? SearchIndex.decodeCursor(cursor) : null;
+        int pageSize = PageCursor.clampPageSize(limit);
+        return queries.record(() -> {
+            List<Hit> hits = index.search(query, typeSet);
+            int start = after != null ? SearchIndex.startAfter(hits, after) : 0;
+            int end = Math.min(start + pageSize, hits.size());
+            List<SearchHit> items = new ArrayList<>(Math.max(0, end - start));
+            for (Hit hit : hits.subList(Math.min(start, end), end)) {
+                items.add(toSearchHit(hit));
+            }
+            return new Page<>(items, end < hits.size() ? SearchIndex.encodeCursor(hits.get(end - 1)) : null);
+        });
+    }
+
+    // Post writes; fields the write didn't carry (e.g. after a partial update) are kept
+    public void postWritten(Post post) {
+        Document previous = index.get(Document.key(POST, post.getPostId()));
+        String userId = post.getUserId() != null ? post.getUserId() : previous != null ? previous.userId() : null;
+        long createdAt = post.getCreatedAt() != null ? epochMillis(post.getCreatedAt())
+                : previous != null ? previous.createdAt() : 0;
+        put(SearchIndex.document(POST, post.getPostId(), userId, null, post.getDescription(), createdAt));
+    }
+
+    public void postDeleted(String postId) {
+        remove(Document.key(POST, postId));
+    }
+
+    // Topic writes; a PUT without subtopics keeps the indexed plan
+    public void topicWritten(Topic topic) {
+        Document previous = index.get(Document.key(TOPIC, topic.getId()));
+        String userId = topic.getUserId() != null ? topic.getUserId() : previous != null ? previous.userId() : null;
+        long createdAt = topic.getCreatedAt() != null ? topic.getCreatedAt().getTime()
+                : previous != null ? previous.createdAt() : 0;
+        List<Subtopic> subtopics = topic.getSubtopics() != null ? topic.getSubtopics() : List.of();
+        if (topic.getSubtopics() == null && previous != null) {
+            put(new Document(TOPIC, topic.getId(), userId, previous.label(), createdAt, previous.length(), previous.terms()));
+            return;
+        }
+        put(SearchIndex.document(TOPIC, topic.getId(), userId,
+                join(" \u00b7 ", subtopics.stream().map(Subtopic::getTitle).toArray(String[]::new)),
+                join("\n", subtopics.stream().map(Subtopic::getDescription).toArray(String[]::new)),
+                createdAt));
+    }
+
+    public void topicsCreated(List<Topic> topics, List<BulkItemResult> results) {
+        for (BulkItemResult result : results) {
+            if (result.isSuccess()) {
+                Topic topic = topics.get(result.getIndex());
+                topic.setId(result.getId());
+                topicWritten(topic);
+            }
+        }
+    }
+
+    public void topicDeleted(String id) {
+        remove(Document.key(TOPIC, id));
+    }
+
+    public void statusWritten(UserStatus status) {
+        Document previous = index.get(Document.key(STATUS, status.getId()));
+        String userId = status.getUserId() != null ? status.getUserId() : previous != null ? previous.userId() : null;
+        long createdAt = status.getCreatedAt() != null ? status.getCreatedAt().getTime()
+                : previous != null ? previous.createdAt() : 0;
+        put(SearchIndex.document(STATUS, status.getId(), userId, null, status.getDescription(), createdAt));
+    }
+
+    public void statusesCreated(List<UserStatus> statuses, List<BulkItemResult> results) {
+        for (BulkItemResult result : results) {
+            if (result.isSuccess()) {
+                UserStatus status = statuses.get(result.getIndex());
+                status.setId(result.getId());
+                statusWritten(status);
+            }
+        }
+    }
+
+    public void statusDeleted(String id) {
+        remove(Document.key(STATUS, id));
+    }
+
+    // Read every post, topic and status; completes with the time the read started
+    private CompletableFuture<Long> rebuildAsync() {
+        long startedAt = System.currentTimeMillis();
+        log.info("Rebuilding the search index from Firestore");
+        CompletableFuture<List<Post>> posts = postRepository.findAllAsync();
+        CompletableFuture<List<Topic>> topics = topicRepository.findAllAsync();
+        CompletableFuture<List<UserStatus>> statuses = userStatusRepository.findAllAsync();
+        return CompletableFuture.allOf(posts, topics, statuses).thenApply(done -> {
+            posts.join().forEach(post -> fill(Document.key(POST, post.getPostId()), () -> postWritten(post)));
+            topics.join().forEach(topic -> fill(Document.key(TOPIC, topic.getId()), () -> topicWritten(topic)));
+            statuses.join().forEach(status -> fill(Document.key(STATUS, status.getId()), () -> statusWritten(status)));
+            builtAt = startedAt;
+            dirty.set(true);
+            log.info("Search index rebuilt: {} documents", index.size());
+            return startedAt;
+        });
+    }
+
+    // Index a document from a segment or a rebuild, unless a service wrote it meanwhile
+    private void fill(String key, Runnable write) {
+        writes.lock();
+        try {
+            if (!written.contains(key)) {
+                write.run();
+            }
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    private void finishFilling() {
+        writes.lock();
+        try {
+            filling = false;
+            written.clear();
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    private void put(Document document) {
+        writes.lock();
+        try {
+            if (filling) {
+                written.add(document.key());
+            }
+            index.put(document);
+        } finally {
+            writes.unlock();
+        }
+        dirty.set(true);
+    }
+
+    private void remove(String key) {
+        writes.lock();
+        try {
+            if (filling) {
+                written.add(key);
+            }
+            index.remove(key);
+        } finally {
+            writes.unlock();
+        }
+        dirty.set(true);
+    }
+
+    // Follow posts created from postsSince on; a failed listener is started again
+    private void listen(long postsSince) {
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(postsSince).minus(LISTEN_OVERLAP),
+                ZoneId.systemDefault());
+        stopListening = changeStreamRepository.listenToPostsSince(since, new ChangeSink<Post>() {
+            @Override
+            public void onChanges(List<ChangeEvent<Post>> changes) {
+                for (ChangeEvent<Post> change : changes) {
+                    if (change.getData() == null) {
+                        postDeleted(change.getId());
+                    } else {
+                        postWritten(change.getData());
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                long failedAt = System.currentTimeMillis();
+                log.warn("Search post listener failed, restarting in {}s", LISTEN_RETRY_SECONDS, error);
+                scheduler.schedule(() -> listen(failedAt), LISTEN_RETRY_SECONDS, TimeUnit.SECONDS);
+            }
+        });
+    }
+
+    private void flush() {
+        Path path = segment();
+        if (path == null || !dirty.getAndSet(false)) {
+            return;
+        }
+        // The listener has indexed every post created before now, give or take LISTEN_OVERLAP
+        long savedAt = listenToPosts ? System.currentTimeMillis() : builtAt;
+        try {
+            SearchSegment.write(path, new SearchSegment.Contents(builtAt, savedAt, index.documents()));
+        } catch (IOException | RuntimeException e) {
+            dirty.set(true);
+            log.warn("Could not save the search segment to {}", path, e);
+        }
+    }
+
+    private Path segment() {
+        if (segmentPath == null || segmentPath.isBlank() || environment.matchesProfiles("inmemory")) {
+            return null;
+        }
+        return Path.of(segmentPath);
+    }
+
+    private static Set<String> parseTypes(String types) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (types == null || types.isBlank()) {
+            return parsed;
+        }
+        for (String type : types.split(",")) {
+            String trimmed = type.trim();
+            if (!TYPES.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown search type: " + trimmed);
+            }
+            parsed.add(trimmed);
+        }
+        return parsed;
+    }
+
+    private static SearchHit toSearchHit(Hit hit) {
+        Document document = hit.document();
+        return new SearchHit(document.type(), document.id(), document.userId(), document.label(),
+                document.createdAt() > 0 ? new Date(document.createdAt()) : null, hit.score());
+    }
+
+    private static long epochMillis(LocalDateTime createdAt) {
+        return createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String join(String separator, String... parts) {
+        StringJoiner joiner = new StringJoiner(separator);
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                joiner.add(part.strip());
+            }
+        }
+        return joiner.toString();
+    }
+}
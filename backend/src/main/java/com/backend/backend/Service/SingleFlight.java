@@ -0,0 +1,82 @@
+package com.backend.backend.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent identical reads. While a load for a key is in flight, callers
+ * asking for the same key are handed that load's result instead of issuing their own
+ * Firestore query. A key is dropped the moment its load completes, and writes forget
+ * the keys they affect, so a caller never joins a read that started before a write it
+ * has already seen finish. Results are shared between callers and must not be mutated.
+ *
+ * Meters, tagged by name: singleflight.calls (result=issued|coalesced),
+ * singleflight.coalescing.ratio and singleflight.in-flight.
+ */
+final class SingleFlight {
+
+    private final Map<Object, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter issued;
+    private final Counter coalesced;
+
+    SingleFlight(String name, MeterRegistry registry) {
+        this.issued = Counter.builder("singleflight.calls").tags("name", name, "result", "issued")
+                .description("Reads that issued their own query").register(registry);
+        this.coalesced = Counter.builder("singleflight.calls").tags("name", name, "result", "coalesced")
+                .description("Reads that shared a query already in flight").register(registry);
+        Gauge.builder("singleflight.coalescing.ratio", this, SingleFlight::coalescingRatio).tag("name", name)
+                .description("Share of reads served by a query already in flight").register(registry);
+        Gauge.builder("singleflight.in-flight", inFlight, Map::size).tag("name", name)
+                .description("Distinct reads currently in flight").register(registry);
+    }
+
+    // Share the load already in flight for the key, or start one
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> load(Object key, Supplier<CompletableFuture<T>> loader) {
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        issued.increment();
+        CompletableFuture<T> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((value, error) -> {
+            // Leave the map first so callers reacting to the result start a fresh read
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error);
+            } else {
+                flight.complete(value);
+            }
+        });
+        // Each caller gets its own copy, so one cancelling it can't fail the others
+        return flight.copy();
+    }
+
+    // After a write: later readers of these keys start a new read instead of joining an older one
+    void forget(Object key) {
+        inFlight.remove(key);
+    }
+
+    void forgetIf(Predicate<Object> affected) {
+        inFlight.keySet().removeIf(affected);
+    }
+
+    private double coalescingRatio() {
+        double total = issued.count() + coalesced.count();
+        return total > 0 ? coalesced.count() / total : 0;
+    }
+}
@@ -0,0 +1,50 @@
+package com.backend.backend.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+import com.backend.backend.Model.SkillCount;
+import com.backend.backend.Repository.PageCursor;
+import com.backend.backend.Repository.SkillTagRepository;
+
+// Trending skills come straight from the counters post and topic writes maintain, so a
+// read is one query whatever the number of tagged documents
+@Service
+public class SkillService {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    @Autowired
+    private SkillTagRepository skillTagRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private SingleFlight singleFlight;
+
+    @PostConstruct
+    void init() {
+        singleFlight = new SingleFlight("skills", registry);
+    }
+
+    // The most used skills across posts and topics
+    public List<SkillCount> getTrendingSkills(Integer limit) {
+        return skillTagRepository.findTrending(clampLimit(limit));
+    }
+
+    public CompletableFuture<List<SkillCount>> getTrendingSkillsAsync(Integer limit) {
+        int clamped = clampLimit(limit);
+        return singleFlight.load(clamped, () -> skillTagRepository.findTrendingAsync(clamped));
+    }
+
+    private static int clampLimit(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, PageCursor.MAX_PAGE_SIZE);
+    }
+}
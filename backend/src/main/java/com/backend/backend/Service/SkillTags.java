@@ -0,0 +1,70 @@
+package com.backend.backend.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Skill tags are lower-case words joined by "-", keeping the characters of names like
+// "c++", "c#" and "node.js". The normalized tag is also its counter's document id.
+public final class SkillTags {
+
+    // Most skills on one post or topic, and in one feed query
+    public static final int MAX_SKILLS = 10;
+
+    private static final int MAX_LENGTH = 40;
+
+    private SkillTags() {
+    }
+
+    // Null stays null, so an update that doesn't name skills leaves them alone
+    public static List<String> normalize(Collection<String> skills) {
+        if (skills == null) {
+            return null;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String skill : skills) {
+            String tag = normalize(skill);
+            if (tag != null) {
+                normalized.add(tag);
+            }
+        }
+        if (normalized.size() > MAX_SKILLS) {
+            throw new IllegalArgumentException("At most " + MAX_SKILLS + " skills are allowed");
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    // A comma-separated query parameter
+    public static List<String> parse(String skills) {
+        List<String> parsed = normalize(skills == null ? List.of() : List.of(skills.split(",")));
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Missing skills");
+        }
+        return parsed;
+    }
+
+    private static String normalize(String skill) {
+        if (skill == null) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder();
+        for (String word : skill.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            String kept = word.replaceAll("[^\\p{L}\\p{N}+#.-]", "");
+            if (!kept.isEmpty()) {
+                if (tag.length() > 0) {
+                    tag.append('-');
+                }
+                tag.append(kept);
+            }
+        }
+        String normalized = tag.length() > MAX_LENGTH ? tag.substring(0, MAX_LENGTH) : tag.toString();
+        // Not valid as Firestore document ids
+        if (normalized.isEmpty() || normalized.matches("\\.+") || normalized.matches("__.*__")) {
+            return null;
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,93 @@
+package com.backend.backend.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.backend.backend.Model.Subtopic;
+import com.backend.backend.Model.Topic;
+
+// Checks for the subtopics a request sends. Ids become Firestore field path segments
+// (subtopics.{id}.progress), so they are limited to letters, digits, "_" and "-".
+public final class Subtopics {
+
+    private static final String ID_PATTERN = "[A-Za-z0-9_-]{1,40}";
+
+    private Subtopics() {
+    }
+
+    // Bring a create or PUT body to subtopics: pairs in the old layout become subtopics "1"
+    // to "5", missing ids are assigned and positions follow the list order. Null stays null,
+    // so a PUT that sends no plan keeps the stored one.
+    public static void prepare(Topic topic) {
+        topic.movePairsToSubtopics();
+        List<Subtopic> subtopics = topic.getSubtopics();
+        if (subtopics == null) {
+            return;
+        }
+        if (subtopics.size() > Topic.MAX_SUBTOPICS) {
+            throw new IllegalArgumentException("A topic can have at most " + Topic.MAX_SUBTOPICS + " subtopics");
+        }
+        Set<String> ids = new HashSet<>();
+        List<Subtopic> prepared = new ArrayList<>(subtopics.size());
+        for (Subtopic subtopic : subtopics) {
+            if (subtopic == null) {
+                throw new IllegalArgumentException("Missing subtopic");
+            }
+            if (subtopic.getId() != null && !ids.add(checkId(subtopic.getId()))) {
+                throw new IllegalArgumentException("Duplicate subtopic id: " + subtopic.getId());
+            }
+            checkProgress(subtopic.getProgress());
+        }
+        for (Subtopic subtopic : subtopics) {
+            if (subtopic.getId() == null) {
+                subtopic.setId(Topic.nextSubtopicId(subtopics));
+            }
+            subtopic.setPosition(prepared.size() + 1);
+            if (subtopic.getProgress() == null) {
+                subtopic.setProgress(0);
+            }
+            prepared.add(subtopic);
+        }
+        topic.setSubtopics(prepared);
+    }
+
+    // A subtopic to append; its id and position are assigned when it is written
+    public static Subtopic checkNew(Subtopic subtopic) {
+        if (subtopic == null) {
+            throw new IllegalArgumentException("Missing subtopic");
+        }
+        checkProgress(subtopic.getProgress());
+        subtopic.setId(null);
+        subtopic.setPosition(null);
+        return subtopic;
+    }
+
+    // The values a PATCH sets: title, description, progress and position, those that are sent
+    public static Map<String, Object> values(Subtopic changes) {
+        if (changes == null) {
+            throw new IllegalArgumentException("Missing subtopic");
+        }
+        checkProgress(changes.getProgress());
+        Map<String, Object> values = changes.toPatchMap();
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        return values;
+    }
+
+    public static String checkId(String subtopicId) {
+        if (subtopicId == null || !subtopicId.matches(ID_PATTERN)) {
+            throw new IllegalArgumentException("Invalid subtopic id: " + subtopicId);
+        }
+        return subtopicId;
+    }
+
+    private static void checkProgress(Integer progress) {
+        if (progress != null && (progress < 0 || progress > 100)) {
+            throw new IllegalArgumentException("Subtopic progress must be between 0 and 100");
+        }
+    }
+}
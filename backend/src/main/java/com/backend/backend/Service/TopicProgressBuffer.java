@@ -0,0 +1,169 @@
+package com.backend.backend.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import com.backend.backend.Model.Topic;
+import com.backend.backend.Repository.TopicRepository;
+import com.backend.backend.config.CacheConfig;
+
+/**
+ * Write-behind buffer for topic progress, which the learning-plan slider sends on every
+ * move. Each topic keeps only its latest value, and every topics.progress.flush-interval-ms
+ * the buffered values are written as one field update per topic through a BulkWriter.
+ * Shutdown waits for a last flush.
+ *
+ * The first update of a topic that isn't already buffered checks it exists, from the
+ * topics cache when it's there, so a missing topic still gets a 404. Updates coalesced
+ * into it answer with that same check, and a miss drops whatever is buffered for the id.
+ * Reads see the new progress once it is flushed; the cached topic is evicted at that point.
+ *
+ * Meters: topics.progress.updates (result=buffered|coalesced|missing),
+ * topics.progress.writes and topics.progress.pending.
+ */
+@Service
+public class TopicProgressBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(TopicProgressBuffer.class);
+
+    private static final long SHUTDOWN_FLUSH_SECONDS = 10;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${topics.progress.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "topic-progress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The latest progress of a topic and the lookup of its first buffered update
+    private record Pending(Integer progress, CompletableFuture<Topic> topic) {
+    }
+
+    private Counter buffered;
+    private Counter coalesced;
+    private Counter missing;
+    private Counter writes;
+
+    @PostConstruct
+    void init() {
+        buffered = updates("buffered");
+        coalesced = updates("coalesced");
+        missing = updates("missing");
+        writes = Counter.builder("topics.progress.writes")
+                .description("Progress values written to Firestore").register(registry);
+        Gauge.builder("topics.progress.pending", pending, Map::size)
+                .description("Topics with progress waiting to be written").register(registry);
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(SHUTDOWN_FLUSH_SECONDS, TimeUnit.SECONDS);
+        flush();
+    }
+
+    // Buffer a topic's progress. Completes with the topic as it was found, shared with the
+    // updates coalesced into this one and not to be modified, or null when it doesn't exist.
+    public CompletableFuture<Topic> update(String id, Integer progress) {
+        CompletableFuture<Topic> found = new CompletableFuture<>();
+        Pending entry = pending.merge(id, new Pending(progress, found),
+                (previous, latest) -> new Pending(progress, previous.topic()));
+        if (entry.topic() != found) {
+            coalesced.increment();
+            return entry.topic();
+        }
+        Cache topics = cacheManager.getCache(CacheConfig.TOPICS);
+        Topic cached = topics != null ? topics.get(id, Topic.class) : null;
+        if (cached != null) {
+            buffered.increment();
+            found.complete(cached);
+            return found;
+        }
+        topicRepository.findByIdAsync(id).whenComplete((topic, error) -> {
+            if (error != null || topic.isEmpty()) {
+                // Drop the buffered value whichever update last set it
+                pending.computeIfPresent(id, (key, current) -> current.topic() == found ? null : current);
+            }
+            if (error != null) {
+                found.completeExceptionally(error);
+            } else if (topic.isEmpty()) {
+                missing.increment();
+                found.complete(null);
+            } else {
+                buffered.increment();
+                found.complete(topic.get());
+            }
+        });
+        return found;
+    }
+
+    // Write everything buffered. Runs on one thread at a time, so a value taken by a later
+    // flush is always written after the one taken by an earlier flush.
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Pending> taken = new HashMap<>();
+        Map<String, Map<String, Object>> updates = new HashMap<>();
+        for (String id : pending.keySet()) {
+            Pending entry = pending.remove(id);
+            if (entry != null) {
+                Map<String, Object> fields = new HashMap<>();
+                fields.put("progress", entry.progress());
+                taken.put(id, entry);
+                updates.put(id, fields);
+            }
+        }
+        try {
+            Map<String, Boolean> existed = topicRepository.updateAll(updates);
+            writes.increment(updates.size());
+            Cache topics = cacheManager.getCache(CacheConfig.TOPICS);
+            if (topics != null) {
+                existed.keySet().forEach(topics::evict);
+            }
+        } catch (RuntimeException e) {
+            // Keep the values for the next flush unless newer ones arrived meanwhile
+            taken.forEach(pending::putIfAbsent);
+            log.warn("Could not write progress for {} topics, retrying", updates.size(), e);
+        }
+    }
+
+    private Counter updates(String result) {
+        return Counter.builder("topics.progress.updates").tag("result", result)
+                .description("Progress updates by how the buffer handled them").register(registry);
+    }
+}
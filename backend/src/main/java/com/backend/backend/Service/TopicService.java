@@ -2,145 +2,297 @@ package com.backend.backend.Service;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.MultiGetResult;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Subtopic;
 import com.backend.backend.Model.Topic;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
+import com.backend.backend.Repository.PageCursor;
+import com.backend.backend.Repository.TopicRepository;
+import com.backend.backend.config.CacheConfig;
 
 @Service
 public class TopicService {
 
-    private static final String COLLECTION_NAME = "topics";
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
 
     @Autowired
-    private Firestore firestore;
+    private SearchService searchService;
+
+    @Autowired
+    private TopicProgressBuffer progressBuffer;
+
+    @Value("${topics.progress.write-behind:true}")
+    private boolean progressWriteBehind;
 
     // Create
     public Topic createTopic(Topic topic) {
+        prepareNewTopics(List.of(topic));
+        return indexed(topicRepository.create(topic));
+    }
+
+    public CompletableFuture<Topic> createTopicAsync(Topic topic) {
         try {
-            if (topic.getCreatedAt() == null) {
-                topic.setCreatedAt(new Date());
-            }
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document();
-            topic.setId(docRef.getId());
-            docRef.set(topic.toMap()).get();
-            return topic;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error creating topic", e);
+            prepareNewTopics(List.of(topic));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return topicRepository.createAsync(topic).thenApply(this::indexed);
+    }
+
+    // Create many topics in one request; each item gets its own result
+    public List<BulkItemResult> createTopics(List<Topic> topics) {
+        BulkRequests.check(topics);
+        prepareNewTopics(topics);
+        List<BulkItemResult> results = topicRepository.createAll(topics);
+        searchService.topicsCreated(topics, results);
+        return results;
+    }
+
+    public CompletableFuture<List<BulkItemResult>> createTopicsAsync(List<Topic> topics) {
+        try {
+            BulkRequests.check(topics);
+            prepareNewTopics(topics);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return topicRepository.createAllAsync(topics).thenApply(results -> {
+            searchService.topicsCreated(topics, results);
+            return results;
+        });
     }
 
     // Read (all)
     public List<Topic> getAllTopics() {
+        return topicRepository.findAll();
+    }
+
+    public CompletableFuture<List<Topic>> getAllTopicsAsync() {
+        return topicRepository.findAllAsync();
+    }
+
+    // Read (page)
+    public Page<Topic> getTopicsPage(Integer limit, String cursor) {
+        return topicRepository.findAll(PageCursor.clampPageSize(limit), cursor);
+    }
+
+    public CompletableFuture<Page<Topic>> getTopicsPageAsync(Integer limit, String cursor) {
+        return topicRepository.findAllAsync(PageCursor.clampPageSize(limit), cursor);
+    }
+
+    // Look up many topics by id, serving what the single-document cache holds
+    public MultiGetResult<Topic> getTopicsByIds(List<String> ids) {
+        return CachedMultiGet.get(cacheManager.getCache(CacheConfig.TOPICS), Topic.class, BulkRequests.checkIds(ids),
+                Topic::getId, misses -> CompletableFuture.completedFuture(topicRepository.findAllById(misses))).join();
+    }
+
+    public CompletableFuture<MultiGetResult<Topic>> getTopicsByIdsAsync(List<String> ids) {
+        List<String> distinct;
         try {
-            List<Topic> topics = new ArrayList<>();
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .orderBy("createdAt", Query.Direction.DESCENDING)
-                    .get();
-            
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot document : documents) {
-                topics.add(Topic.fromMap(document.getId(), document.getData()));
-            }
-            return topics;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting all topics", e);
+            distinct = BulkRequests.checkIds(ids);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return CachedMultiGet.get(cacheManager.getCache(CacheConfig.TOPICS), Topic.class, distinct,
+                Topic::getId, topicRepository::findAllByIdAsync);
     }
 
     // Read (by id)
+    @Cacheable(cacheNames = CacheConfig.TOPICS, key = "#id", unless = "#result == null")
     public Optional<Topic> getTopicById(String id) {
-        try {
-            DocumentSnapshot document = firestore.collection(COLLECTION_NAME)
-                    .document(id).get().get();
-            if (document.exists()) {
-                return Optional.of(Topic.fromMap(document.getId(), document.getData()));
-            }
-            return Optional.empty();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting topic", e);
-        }
+        return topicRepository.findById(id);
+    }
+
+    // Completes with null when missing; the cache holds the bare topic for both variants
+    @Cacheable(cacheNames = CacheConfig.TOPICS, key = "#id", unless = "#result == null")
+    public CompletableFuture<Topic> getTopicByIdAsync(String id) {
+        return topicRepository.findByIdAsync(id).thenApply(topic -> topic.orElse(null));
     }
 
     // Read (by userId)
     public List<Topic> getTopicsByUser(String userId) {
-        try {
-            List<Topic> topics = new ArrayList<>();
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("userId", userId)
-                    .orderBy("createdAt", Query.Direction.DESCENDING)
-                    .get();
-            
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot document : documents) {
-                topics.add(Topic.fromMap(document.getId(), document.getData()));
-            }
-            return topics;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting topics by user", e);
-        }
+        return topicRepository.findByUserId(userId);
+    }
+
+    public CompletableFuture<List<Topic>> getTopicsByUserAsync(String userId) {
+        return topicRepository.findByUserIdAsync(userId);
     }
 
-    // Update
+    // Update with one field-masked write, then read the topic back so the response and the
+    // search index get all of it. Null when the topic doesn't exist.
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
     public Topic updateTopic(String id, Topic topicDetails) {
+        topicDetails.setSkills(SkillTags.normalize(topicDetails.getSkills()));
+        Subtopics.prepare(topicDetails);
+        return topicRepository.update(id, topicDetails.toUpdateMap())
+                ? topicRepository.findById(id).map(this::indexed).orElse(null)
+                : null;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public CompletableFuture<Topic> updateTopicAsync(String id, Topic topicDetails) {
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-            DocumentSnapshot document = docRef.get().get();
-            
-            if (document.exists()) {
-                Topic existingTopic = Topic.fromMap(document.getId(), document.getData());
-                existingTopic.setUserId(topicDetails.getUserId());
-                existingTopic.setProgress(topicDetails.getProgress());
-                existingTopic.setTopicOne(topicDetails.getTopicOne());
-                existingTopic.setTopicOneDescription(topicDetails.getTopicOneDescription());
-                existingTopic.setTopicTwo(topicDetails.getTopicTwo());
-                existingTopic.setTopicTwoDescription(topicDetails.getTopicTwoDescription());
-                existingTopic.setTopicThree(topicDetails.getTopicThree());
-                existingTopic.setTopicThreeDescription(topicDetails.getTopicThreeDescription());
-                existingTopic.setTopicFour(topicDetails.getTopicFour());
-                existingTopic.setTopicFourDescription(topicDetails.getTopicFourDescription());
-                existingTopic.setTopicFive(topicDetails.getTopicFive());
-                existingTopic.setTopicFiveDescription(topicDetails.getTopicFiveDescription());
-                
-                docRef.set(existingTopic.toMap()).get();
-                return existingTopic;
-            }
-            return null;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error updating topic", e);
+            topicDetails.setSkills(SkillTags.normalize(topicDetails.getSkills()));
+            Subtopics.prepare(topicDetails);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return topicRepository.updateAsync(id, topicDetails.toUpdateMap()).thenCompose(updated -> updated
+                ? topicRepository.findByIdAsync(id).thenApply(topic -> topic.map(this::indexed).orElse(null))
+                : CompletableFuture.completedFuture(null));
     }
 
-    // Update progress
+    // Update progress and return the whole topic with it, or null when the topic doesn't
+    // exist. With topics.progress.write-behind the value is buffered and written within the
+    // flush interval, coalesced with later updates to the same topic; the rest of the topic
+    // is then the one the buffer looked up, possibly from the topics cache.
     public Topic updateProgress(String id, Integer progress) {
+        return updateProgressAsync(id, progress).join();
+    }
+
+    public CompletableFuture<Topic> updateProgressAsync(String id, Integer progress) {
+        CompletableFuture<Topic> topic = progressWriteBehind
+                ? progressBuffer.update(id, progress)
+                : topicRepository.updateAsync(id, progressFields(progress)).thenCompose(written -> evicted(id, written)
+                        ? topicRepository.findByIdAsync(id).thenApply(found -> found.orElse(null))
+                        : CompletableFuture.completedFuture(null));
+        return topic.thenApply(found -> withProgress(found, progress));
+    }
+
+    // Subtopic writes touch only the subtopic they name. Each returns the subtopic as
+    // written, or null when the topic or the subtopic doesn't exist.
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public Subtopic addSubtopic(String id, Subtopic subtopic) {
+        Subtopics.checkNew(subtopic);
+        Optional<Topic> topic = topicRepository.addSubtopic(id, subtopic);
+        return written(topic, subtopic.getId());
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public CompletableFuture<Subtopic> addSubtopicAsync(String id, Subtopic subtopic) {
         try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-            DocumentSnapshot document = docRef.get().get();
-            
-            if (document.exists()) {
-                Topic existingTopic = Topic.fromMap(document.getId(), document.getData());
-                existingTopic.setProgress(progress);
-                docRef.set(existingTopic.toMap()).get();
-                return existingTopic;
-            }
-            return null;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error updating progress", e);
+            Subtopics.checkNew(subtopic);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return topicRepository.addSubtopicAsync(id, subtopic).thenApply(topic -> written(topic, subtopic.getId()));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public Subtopic updateSubtopic(String id, String subtopicId, Subtopic changes) {
+        Subtopics.checkId(subtopicId);
+        return written(topicRepository.updateSubtopic(id, subtopicId, Subtopics.values(changes)), subtopicId);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public CompletableFuture<Subtopic> updateSubtopicAsync(String id, String subtopicId, Subtopic changes) {
+        Map<String, Object> values;
+        try {
+            Subtopics.checkId(subtopicId);
+            values = Subtopics.values(changes);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return topicRepository.updateSubtopicAsync(id, subtopicId, values).thenApply(topic -> written(topic, subtopicId));
+    }
+
+    // False when the topic or the subtopic doesn't exist
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public boolean removeSubtopic(String id, String subtopicId) {
+        Subtopics.checkId(subtopicId);
+        return topicRepository.removeSubtopic(id, subtopicId).map(this::indexed).isPresent();
     }
 
-    // Delete
-    public void deleteTopic(String id) {
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public CompletableFuture<Boolean> removeSubtopicAsync(String id, String subtopicId) {
         try {
-            firestore.collection(COLLECTION_NAME).document(id).delete().get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error deleting topic", e);
+            Subtopics.checkId(subtopicId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return topicRepository.removeSubtopicAsync(id, subtopicId).thenApply(topic -> topic.map(this::indexed).isPresent());
+    }
+
+    // Delete; false when the topic doesn't exist
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public boolean deleteTopic(String id) {
+        return deindexed(id, topicRepository.deleteById(id));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.TOPICS, key = "#id")
+    public CompletableFuture<Boolean> deleteTopicAsync(String id) {
+        return topicRepository.deleteByIdAsync(id).thenApply(deleted -> deindexed(id, deleted));
+    }
+
+    private Topic indexed(Topic topic) {
+        searchService.topicWritten(topic);
+        return topic;
+    }
+
+    private boolean deindexed(String id, boolean deleted) {
+        if (deleted) {
+            searchService.topicDeleted(id);
+        }
+        return deleted;
+    }
+
+    private Subtopic written(Optional<Topic> topic, String subtopicId) {
+        return topic.map(this::indexed).map(saved -> saved.findSubtopic(subtopicId)).orElse(null);
+    }
+
+    private boolean evicted(String id, boolean written) {
+        Cache topics = cacheManager.getCache(CacheConfig.TOPICS);
+        if (topics != null) {
+            topics.evict(id);
+        }
+        return written;
+    }
+
+    private Map<String, Object> progressFields(Integer progress) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("progress", progress);
+        return fields;
+    }
+
+    // A copy, since a buffered lookup may be the cached topic or shared between updates
+    private Topic withProgress(Topic topic, Integer progress) {
+        if (topic == null) {
+            return null;
+        }
+        Topic copy = Topic.fromMap(topic.getId(), topic.toMap());
+        copy.setProgress(progress);
+        return copy;
+    }
+
+    private void prepareNewTopics(List<Topic> topics) {
+        Date now = new Date();
+        for (Topic item : topics) {
+            if (item.getCreatedAt() == null) {
+                item.setCreatedAt(now);
+            }
+            item.setSkills(SkillTags.normalize(item.getSkills()));
+            Subtopics.prepare(item);
+            if (item.getSubtopics() == null) {
+                item.setSubtopics(new ArrayList<>());
+            }
         }
     }
-}
\ No newline at end of file
+}
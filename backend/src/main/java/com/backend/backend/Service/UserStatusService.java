@@ -1,121 +1,174 @@
 package com.backend.backend.Service;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import com.backend.backend.Model.BulkItemResult;
+import com.backend.backend.Model.MultiGetResult;
+import com.backend.backend.Model.Page;
 import com.backend.backend.Model.UserStatus;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
+import com.backend.backend.Repository.PageCursor;
+import com.backend.backend.Repository.UserStatusRepository;
+import com.backend.backend.config.CacheConfig;
 
 @Service
 public class UserStatusService {
 
-    private static final String COLLECTION_NAME = "userStatuses";
+    @Autowired
+    private UserStatusRepository userStatusRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
 
     @Autowired
-    private Firestore firestore;
+    private SearchService searchService;
 
     // Fetch and return all user statuses
     public List<UserStatus> getAllUserStatuses() {
+        return userStatusRepository.findAll();
+    }
+
+    public CompletableFuture<List<UserStatus>> getAllUserStatusesAsync() {
+        return userStatusRepository.findAllAsync();
+    }
+
+    // Fetch a page of user statuses, newest first
+    public Page<UserStatus> getUserStatusesPage(Integer limit, String cursor) {
+        return userStatusRepository.findAll(PageCursor.clampPageSize(limit), cursor);
+    }
+
+    public CompletableFuture<Page<UserStatus>> getUserStatusesPageAsync(Integer limit, String cursor) {
+        return userStatusRepository.findAllAsync(PageCursor.clampPageSize(limit), cursor);
+    }
+
+    // Look up many statuses by id, serving what the single-document cache holds
+    public MultiGetResult<UserStatus> getUserStatusesByIds(List<String> ids) {
+        return CachedMultiGet.get(cacheManager.getCache(CacheConfig.USER_STATUSES), UserStatus.class, BulkRequests.checkIds(ids),
+                UserStatus::getId, misses -> CompletableFuture.completedFuture(userStatusRepository.findAllById(misses))).join();
+    }
+
+    public CompletableFuture<MultiGetResult<UserStatus>> getUserStatusesByIdsAsync(List<String> ids) {
+        List<String> distinct;
         try {
-            List<UserStatus> statuses = new ArrayList<>();
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .orderBy("createdAt", Query.Direction.DESCENDING)
-                    .get();
-            
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot document : documents) {
-                statuses.add(UserStatus.fromMap(document.getId(), document.getData()));
-            }
-            return statuses;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting all user statuses", e);
+            distinct = BulkRequests.checkIds(ids);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return CachedMultiGet.get(cacheManager.getCache(CacheConfig.USER_STATUSES), UserStatus.class, distinct,
+                UserStatus::getId, userStatusRepository::findAllByIdAsync);
     }
 
     // Fetch a specific user status by its ID
+    @Cacheable(cacheNames = CacheConfig.USER_STATUSES, key = "#id", unless = "#result == null")
     public Optional<UserStatus> getUserStatusById(String id) {
-        try {
-            DocumentSnapshot document = firestore.collection(COLLECTION_NAME)
-                    .document(id).get().get();
-            if (document.exists()) {
-                return Optional.of(UserStatus.fromMap(document.getId(), document.getData()));
-            }
-            return Optional.empty();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting user status", e);
-        }
+        return userStatusRepository.findById(id);
+    }
+
+    // Completes with null when missing; the cache holds the bare status for both variants
+    @Cacheable(cacheNames = CacheConfig.USER_STATUSES, key = "#id", unless = "#result == null")
+    public CompletableFuture<UserStatus> getUserStatusByIdAsync(String id) {
+        return userStatusRepository.findByIdAsync(id).thenApply(status -> status.orElse(null));
     }
 
     // Fetch statuses by user ID
     public List<UserStatus> getStatusesByUser(String userId) {
-        try {
-            List<UserStatus> statuses = new ArrayList<>();
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("userId", userId)
-                    .orderBy("createdAt", Query.Direction.DESCENDING)
-                    .get();
-            
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot document : documents) {
-                statuses.add(UserStatus.fromMap(document.getId(), document.getData()));
-            }
-            return statuses;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error getting statuses by user", e);
-        }
+        return userStatusRepository.findByUserId(userId);
+    }
+
+    public CompletableFuture<List<UserStatus>> getStatusesByUserAsync(String userId) {
+        return userStatusRepository.findByUserIdAsync(userId);
     }
 
     // Create a new user status entry
     public UserStatus createUserStatus(UserStatus userStatus) {
+        if (userStatus.getCreatedAt() == null) {
+            userStatus.setCreatedAt(new Date());
+        }
+        return indexed(userStatusRepository.create(userStatus));
+    }
+
+    public CompletableFuture<UserStatus> createUserStatusAsync(UserStatus userStatus) {
+        if (userStatus.getCreatedAt() == null) {
+            userStatus.setCreatedAt(new Date());
+        }
+        return userStatusRepository.createAsync(userStatus).thenApply(this::indexed);
+    }
+
+    // Create many user statuses in one request; each item gets its own result
+    public List<BulkItemResult> createUserStatuses(List<UserStatus> userStatuses) {
+        BulkRequests.check(userStatuses);
+        stampCreatedAt(userStatuses);
+        List<BulkItemResult> results = userStatusRepository.createAll(userStatuses);
+        searchService.statusesCreated(userStatuses, results);
+        return results;
+    }
+
+    public CompletableFuture<List<BulkItemResult>> createUserStatusesAsync(List<UserStatus> userStatuses) {
         try {
-            if (userStatus.getCreatedAt() == null) {
-                userStatus.setCreatedAt(new Date());
-            }
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document();
-            userStatus.setId(docRef.getId());
-            docRef.set(userStatus.toMap()).get();
-            return userStatus;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error creating user status", e);
+            BulkRequests.check(userStatuses);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        stampCreatedAt(userStatuses);
+        return userStatusRepository.createAllAsync(userStatuses).thenApply(results -> {
+            searchService.statusesCreated(userStatuses, results);
+            return results;
+        });
     }
 
-    // Update an existing user status by ID
+    // Update an existing user status with one field-masked write, then read it back so the
+    // response and the search index get all of it. Null when the status doesn't exist.
+    @CacheEvict(cacheNames = CacheConfig.USER_STATUSES, key = "#id")
     public UserStatus updateUserStatus(String id, UserStatus updatedStatus) {
-        try {
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-            DocumentSnapshot document = docRef.get().get();
-            
-            if (document.exists()) {
-                UserStatus existingStatus = UserStatus.fromMap(document.getId(), document.getData());
-                existingStatus.setUserId(updatedStatus.getUserId());
-                existingStatus.setUsername(updatedStatus.getUsername());
-                existingStatus.setDescription(updatedStatus.getDescription());
-                existingStatus.setImageUrl(updatedStatus.getImageUrl());
-                
-                docRef.set(existingStatus.toMap()).get();
-                return existingStatus;
-            } else {
-                throw new RuntimeException("User status not found with id: " + id);
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error updating user status", e);
+        return userStatusRepository.update(id, updatedStatus.toUpdateMap())
+                ? userStatusRepository.findById(id).map(this::indexed).orElse(null)
+                : null;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.USER_STATUSES, key = "#id")
+    public CompletableFuture<UserStatus> updateUserStatusAsync(String id, UserStatus updatedStatus) {
+        return userStatusRepository.updateAsync(id, updatedStatus.toUpdateMap()).thenCompose(updated -> updated
+                ? userStatusRepository.findByIdAsync(id).thenApply(status -> status.map(this::indexed).orElse(null))
+                : CompletableFuture.completedFuture(null));
+    }
+
+    // Delete a user status entry by ID; false when it doesn't exist
+    @CacheEvict(cacheNames = CacheConfig.USER_STATUSES, key = "#id")
+    public boolean deleteUserStatus(String id) {
+        return deindexed(id, userStatusRepository.deleteById(id));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.USER_STATUSES, key = "#id")
+    public CompletableFuture<Boolean> deleteUserStatusAsync(String id) {
+        return userStatusRepository.deleteByIdAsync(id).thenApply(deleted -> deindexed(id, deleted));
+    }
+
+    private UserStatus indexed(UserStatus status) {
+        searchService.statusWritten(status);
+        return status;
+    }
+
+    private boolean deindexed(String id, boolean deleted) {
+        if (deleted) {
+            searchService.statusDeleted(id);
         }
+        return deleted;
     }
 
-    // Delete a user status entry by ID
-    public void deleteUserStatus(String id) {
-        try {
-            firestore.collection(COLLECTION_NAME).document(id).delete().get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Error deleting user status", e);
+    private void stampCreatedAt(List<UserStatus> userStatuses) {
+        Date now = new Date();
+        for (UserStatus item : userStatuses) {
+            if (item.getCreatedAt() == null) {
+                item.setCreatedAt(now);
+            }
         }
     }
-}
\ No newline at end of file
+}
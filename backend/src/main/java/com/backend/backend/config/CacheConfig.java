@@ -0,0 +1,60 @@
+package com.backend.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Size-bounded Caffeine caches with a TTL per collection. Stats are recorded so
+// Actuator publishes cache.gets (hit/miss), cache.puts and cache.evictions per cache.
+// The caches are async so @Cacheable also works on the CompletableFuture service methods.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String POSTS = "posts";
+    public static final String COMMENTS = "comments";
+    public static final String TOPICS = "topics";
+    public static final String USER_STATUSES = "userStatuses";
+
+    @Value("${cache.documents.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${cache.posts.ttl-seconds:30}")
+    private long postsTtlSeconds;
+
+    @Value("${cache.comments.ttl-seconds:60}")
+    private long commentsTtlSeconds;
+
+    @Value("${cache.topics.ttl-seconds:60}")
+    private long topicsTtlSeconds;
+
+    @Value("${cache.user-statuses.ttl-seconds:30}")
+    private long userStatusesTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.registerCustomCache(POSTS, build(postsTtlSeconds));
+        cacheManager.registerCustomCache(COMMENTS, build(commentsTtlSeconds));
+        cacheManager.registerCustomCache(TOPICS, build(topicsTtlSeconds));
+        cacheManager.registerCustomCache(USER_STATUSES, build(userStatusesTtlSeconds));
+        return cacheManager;
+    }
+
+    private AsyncCache<Object, Object> build(long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+}
@@ -0,0 +1,77 @@
+package com.backend.backend.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.backend.backend.Repository.CostContext;
+import com.backend.backend.Service.CostBudgetService;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Refuses requests from callers whose Firestore budget is spent with 429 and Retry-After,
+// and makes the request's cost account current while the handler issues its Firestore calls.
+// Callers are told apart by client address (the proxy's X-Forwarded-For on Render).
+@Configuration
+public class CostBudgetConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CostBudgetService costBudgetService;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CostBudgetInterceptor());
+    }
+
+    private final class CostBudgetInterceptor implements AsyncHandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                throws IOException {
+            // An async result being written out was admitted and charged on its first dispatch
+            if (request.getDispatcherType() != DispatcherType.REQUEST) {
+                return true;
+            }
+            String endpoint = endpoint(request);
+            String caller = request.getRemoteAddr();
+            long retryAfter = costBudgetService.retryAfterSeconds(endpoint, caller);
+            if (retryAfter > 0) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.getWriter().write("Error: Firestore budget exhausted, retry in " + retryAfter + " seconds");
+                return false;
+            }
+            CostContext.set(costBudgetService.account(endpoint, caller));
+            return true;
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                   Object handler) {
+            CostContext.clear();
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                    Exception ex) {
+            CostContext.clear();
+        }
+
+        // Route pattern rather than the raw path, so ids don't make every request its own endpoint
+        private String endpoint(HttpServletRequest request) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+        }
+    }
+}
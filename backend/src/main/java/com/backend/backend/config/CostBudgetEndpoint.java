@@ -0,0 +1,26 @@
+package com.backend.backend.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.backend.backend.Service.CostBudgetService;
+
+// GET /actuator/costs - billed Firestore reads and writes per endpoint and for the top callers
+@Component
+@Endpoint(id = "costs")
+public class CostBudgetEndpoint {
+
+    private static final int TOP_CALLERS = 50;
+
+    @Autowired
+    private CostBudgetService costBudgetService;
+
+    @ReadOperation
+    public Map<String, Object> costs() {
+        return costBudgetService.snapshot(TOP_CALLERS);
+    }
+}
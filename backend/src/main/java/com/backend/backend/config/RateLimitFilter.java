@@ -0,0 +1,277 @@
+package com.backend.backend.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for write routes, configured per route under rate-limit.{name}.*
+ * and listed in rate-limit.routes. Each client address, and each user (the X-User-Id
+ * header, else the userId of the JSON body), may make ip-limit and user-limit requests
+ * per period-seconds on a route; beyond that the request gets 429 with Retry-After.
+ *
+ * Only ip-limit is enforceable. The user is whatever the client claims, so a client
+ * that sends a different X-User-Id or userId on every request is never held back by
+ * user-limit; it only spreads a well-behaved client's budget fairly across users behind
+ * one address. Looking for the userId reads at most rate-limit.body-peek-bytes of the
+ * body; the handler gets the rest straight from the request, so the filter never holds
+ * a whole body of unbounded size.
+ *
+ * A bucket is a single theoretical arrival time (GCRA), so taking a token is one
+ * compare-and-set. Buckets live in a size-bounded Caffeine map, whose hash table is
+ * striped, and expire once idle long enough to be full again.
+ * Meters: rate-limit.requests by route and outcome, rate-limit.buckets for occupancy.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String USER_HEADER = "X-User-Id";
+    private static final String USER_FIELD = "userId";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final List<Route> routes = new ArrayList<>();
+
+    private Cache<BucketKey, Bucket> buckets;
+
+    private int bodyPeekBytes;
+
+    @PostConstruct
+    void init() {
+        PathPatternParser parser = new PathPatternParser();
+        long longestPeriod = 1;
+        for (String name : environment.getProperty("rate-limit.routes", String[].class, new String[0])) {
+            String prefix = "rate-limit." + name.trim() + ".";
+            String[] route = environment.getRequiredProperty(prefix + "route").trim().split("\\s+", 2);
+            long periodSeconds = environment.getProperty(prefix + "period-seconds", Long.class, 60L);
+            routes.add(new Route(name.trim(), route[0], parser.parse(route[1]),
+                    environment.getProperty(prefix + "user-limit", Integer.class, 0),
+                    environment.getProperty(prefix + "ip-limit", Integer.class, 0),
+                    TimeUnit.SECONDS.toNanos(periodSeconds)));
+            longestPeriod = Math.max(longestPeriod, periodSeconds);
+        }
+        bodyPeekBytes = environment.getProperty("rate-limit.body-peek-bytes", Integer.class, 8192);
+        long maxBuckets = environment.getProperty("rate-limit.max-buckets", Long.class, 100_000L);
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofSeconds(longestPeriod))
+                .build();
+        Gauge.builder("rate-limit.buckets", buckets, Cache::estimatedSize)
+                .description("Rate limit buckets currently held")
+                .register(registry);
+        Gauge.builder("rate-limit.buckets.max", () -> maxBuckets)
+                .description("Most rate limit buckets held before the least recently used are dropped")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return route(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = route(request);
+        long now = System.nanoTime();
+        if (route.ipLimit > 0) {
+            long wait = take(route, route.ipLimit, "ip:" + request.getRemoteAddr(), now);
+            if (wait > 0) {
+                reject(route, "ip", wait, response);
+                return;
+            }
+        }
+        if (route.userLimit > 0) {
+            PeekedBodyRequest peeked = new PeekedBodyRequest(request, bodyPeekBytes);
+            request = peeked;
+            String userId = userId(peeked);
+            if (userId != null) {
+                long wait = take(route, route.userLimit, "user:" + userId, now);
+                if (wait > 0) {
+                    reject(route, "user", wait, response);
+                    return;
+                }
+            }
+        }
+        registry.counter("rate-limit.requests", "route", route.name, "outcome", "allowed", "limit", "none").increment();
+        chain.doFilter(request, response);
+    }
+
+    // Nanos until the bucket has a token, 0 when one was taken
+    private long take(Route route, int limit, String caller, long now) {
+        long interval = route.periodNanos / limit;
+        Bucket bucket = buckets.get(new BucketKey(route.name, caller), key -> new Bucket(now));
+        return bucket.tryTake(now, interval, interval * limit);
+    }
+
+    private void reject(Route route, String limit, long waitNanos, HttpServletResponse response) throws IOException {
+        registry.counter("rate-limit.requests", "route", route.name, "outcome", "rejected", "limit", limit).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Error: Too many requests, retry in " + retryAfter + " seconds");
+    }
+
+    private Route route(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Route route : routes) {
+            if (route.method.equalsIgnoreCase(request.getMethod()) && route.pattern.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    // Write requests name their user in the body. Only the peeked prefix is parsed, so a
+    // userId after it, or a body that isn't a JSON object, names none.
+    private String userId(PeekedBodyRequest request) {
+        String header = request.getHeader(USER_HEADER);
+        if (header != null && !header.isBlank()) {
+            return header;
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.prefix)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                boolean isUser = USER_FIELD.equals(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (isUser) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            // Not JSON, or the userId lies past the peeked prefix
+            return null;
+        }
+    }
+
+    private record Route(String name, String method, PathPattern pattern, int userLimit, int ipLimit, long periodNanos) {
+    }
+
+    private record BucketKey(String route, String caller) {
+    }
+
+    // Allows `limit` requests at once and one more every interval after that
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival;
+
+        private Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        long tryTake(long now, long interval, long tolerance) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + interval;
+                long wait = next - tolerance - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    // Reads up to maxBytes of the body ahead so the user can be looked up; the handler
+    // reads that prefix and then the rest of the original stream
+    private static final class PeekedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] prefix;
+        private final ServletInputStream input;
+
+        private PeekedBodyRequest(HttpServletRequest request, int maxBytes) throws IOException {
+            super(request);
+            ServletInputStream original = request.getInputStream();
+            this.prefix = original.readNBytes(maxBytes);
+            ByteArrayInputStream peeked = new ByteArrayInputStream(prefix);
+            this.input = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return peeked.available() > 0 ? peeked.read() : original.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return peeked.available() > 0 ? peeked.read(buffer, offset, length) : original.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return peeked.available() == 0 && original.isFinished();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return peeked.available() > 0 || original.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return input;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -39,7 +40,9 @@ public class StartupInfoConfig {
         }
 
         String corsOrigins = environment.getProperty("cors.allowed-origins", "*");
-        boolean firebaseConfigured = !firebaseProjectId.equals("not-configured") && !firebaseProjectId.isEmpty();
+        boolean inMemory = environment.acceptsProfiles(Profiles.of("inmemory"));
+        boolean firebaseConfigured = inMemory
+                || (!firebaseProjectId.equals("not-configured") && !firebaseProjectId.isEmpty());
 
         System.out.println();
         System.out.println("╔══════════════════════════════════════════════════════════════════════════════╗");
@@ -68,9 +71,15 @@ public class StartupInfoConfig {
         System.out.println("╠══════════════════════════════════════════════════════════════════════════════╣");
         System.out.println("║  ⚙️  CONFIGURATION                                                           ║");
         System.out.println("╠══════════════════════════════════════════════════════════════════════════════╣");
-        System.out.printf("║  Firebase Project:   %-55s ║%n", firebaseConfigured ? firebaseProjectId : "❌ Not configured");
-        System.out.printf("║  Firebase Status:    %-55s ║%n", firebaseConfigured ? "✅ Connected" : "⚠️  Check configuration");
+        if (inMemory) {
+            System.out.printf("║  Storage:            %-55s ║%n", "In-memory repositories (no Firestore)");
+        } else {
+            System.out.printf("║  Firebase Project:   %-55s ║%n", firebaseConfigured ? firebaseProjectId : "❌ Not configured");
+            System.out.printf("║  Firebase Status:    %-55s ║%n", firebaseConfigured ? "✅ Connected" : "⚠️  Check configuration");
+        }
         System.out.printf("║  CORS Origins:       %-55s ║%n", truncate(corsOrigins, 55));
+        System.out.printf("║  Request Threads:    %-55s ║%n",
+                environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false) ? "Virtual" : "Platform pool");
         System.out.println("║                                                                              ║");
         System.out.println("╚══════════════════════════════════════════════════════════════════════════════╝");
         System.out.println();
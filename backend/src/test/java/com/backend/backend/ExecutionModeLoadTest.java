@@ -0,0 +1,111 @@
+package com.backend.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.backend.backend.Model.Topic;
+import com.backend.backend.Repository.InMemoryTopicRepository;
+
+/**
+ * Fires a burst of concurrent requests whose storage call takes SLOW_CALL_MS against
+ * the app started once per execution mode, with the Tomcat pool capped at POOL_SIZE.
+ * Run with ./mvnw test -Pload-test.
+ */
+@Tag("load")
+class ExecutionModeLoadTest {
+
+    private static final int POOL_SIZE = 20;
+    private static final int REQUESTS = 1000;
+    private static final long SLOW_CALL_MS = 200;
+    private static final String PASSWORD = "load-test";
+
+    @Test
+    void virtualThreadsServeMoreSlowRequestsThanThePlatformPool() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("platform pool:   %d ok in %d ms (%.0f req/s)%n", platform.ok, platform.millis, platform.throughput());
+        System.out.printf("virtual threads: %d ok in %d ms (%.0f req/s)%n", virtual.ok, virtual.millis, virtual.throughput());
+
+        assertEquals(REQUESTS, platform.ok);
+        assertEquals(REQUESTS, virtual.ok);
+        assertTrue(virtual.throughput() > platform.throughput(),
+                "virtual threads should not be limited by the " + POOL_SIZE + "-thread pool");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("inmemory")
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + POOL_SIZE,
+                        "server.tomcat.accept-count=" + REQUESTS,
+                        "server.tomcat.max-connections=" + (REQUESTS * 2),
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.security.user.password=" + PASSWORD)
+                .initializers(context -> ((GenericApplicationContext) context).registerBean(
+                        SlowTopicRepository.class, definition -> definition.setPrimary(true)))
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+            return fire(URI.create("http://localhost:" + port + "/api/v1/topics/user/load"));
+        }
+    }
+
+    private Result fire(URI uri) {
+        String auth = "Basic " + Base64.getEncoder()
+                .encodeToString(("user:" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", auth)
+                .timeout(Duration.ofMinutes(2)).GET().build();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        return new Result(ok, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private record Result(int ok, long millis) {
+        double throughput() {
+            return ok * 1000.0 / Math.max(1, millis);
+        }
+    }
+
+    // Stands in for a Firestore query that spends SLOW_CALL_MS waiting on the network
+    static class SlowTopicRepository extends InMemoryTopicRepository {
+        @Override
+        public List<Topic> findByUserId(String userId) {
+            try {
+                Thread.sleep(SLOW_CALL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.findByUserId(userId);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.backend.backend.Model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ModelMappingTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_000);
+
+    @Test
+    void postRoundTripsThroughItsFirestoreMap() {
+        Post post = new Post("u1", "Ada", "a post", "ada.png");
+        post.setPostId("p1");
+        post.setCreatedAt(NOON);
+        post.setSkills(List.of("java"));
+        post.setLikes(List.of("u2", "u3"));
+        post.setLikeCount(2);
+        post.setCommentCount(1);
+        post.setLatestComments(List.of(new Comment("c1", "p1", "u2", "Grace", "nice", new Date(1_000L))));
+
+        Post read = Post.fromMap("p1", post.toMap());
+
+        assertEquals(post.toMap(), read.toMap());
+        assertEquals(NOON, read.getCreatedAt());
+        assertEquals("c1", read.getLatestComments().get(0).getId());
+    }
+
+    @Test
+    void postReadsEveryLegacyEncoding() {
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("username", "Ada");
+        legacy.put("createdAt", NOON.toString());
+        legacy.put("likes", List.of("u2", "u3"));
+
+        Post post = Post.fromMap("p1", legacy);
+
+        assertEquals(NOON, post.getCreatedAt());
+        assertEquals(2, post.getLikeCount());
+        assertEquals(List.of(), post.getSkills());
+        assertEquals(List.of(), post.getLatestComments());
+        assertEquals(NOON.withNano(123_000_000), Post.readCreatedAt(Post.toTimestamp(NOON).toDate().getTime()));
+    }
+
+    @Test
+    void commentAndUserStatusRoundTrip() {
+        Comment comment = new Comment("c1", "p1", "u2", "Grace", "nice", new Date(1_000L));
+        UserStatus status = new UserStatus("s1", "u1", "Ada", "learning", "ada.png", new Date(2_000L));
+
+        assertEquals(comment.toPreviewMap(), Comment.fromMap("c1", comment.toMap()).toPreviewMap());
+        assertEquals(status, UserStatus.fromMap("s1", status.toMap()));
+    }
+}
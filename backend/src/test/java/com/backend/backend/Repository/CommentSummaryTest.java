@@ -0,0 +1,88 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.backend.Model.Comment;
+
+class CommentSummaryTest {
+
+    private static final int PREVIEW_SIZE = 2;
+
+    @Test
+    void addCountsAndKeepsTheNewestInThePreview() {
+        Map<String, Object> post = CommentSummary.afterAdd(Map.of(), List.of(comment("a", 1), comment("b", 2)), PREVIEW_SIZE);
+
+        Map<String, Object> after = CommentSummary.afterAdd(post, List.of(comment("c", 3)), PREVIEW_SIZE);
+
+        assertEquals(3L, after.get(CommentSummary.COUNT_FIELD));
+        assertEquals(List.of("c", "b"), previewIds(after));
+    }
+
+    @Test
+    void rebuildCountsStoredAndAddedCommentsOnce() {
+        assertFalse(CommentSummary.isSummarized(Map.of()));
+
+        Map<String, Object> rebuilt = CommentSummary.rebuilt(List.of(comment("a", 1), comment("b", 2), comment("c", 3)),
+                List.of(comment("c", 3), comment("d", 4)), "b", PREVIEW_SIZE);
+
+        assertTrue(CommentSummary.isSummarized(rebuilt));
+        assertEquals(3L, rebuilt.get(CommentSummary.COUNT_FIELD));
+        assertEquals(List.of("d", "c"), previewIds(rebuilt));
+    }
+
+    @Test
+    void removeRefillsThePreviewFromTheLatestComments() {
+        Map<String, Object> post = CommentSummary.rebuilt(List.of(comment("a", 1), comment("b", 2), comment("c", 3)),
+                List.of(), null, PREVIEW_SIZE);
+        assertTrue(CommentSummary.inPreview(post, "c"));
+
+        Map<String, Object> after = CommentSummary.afterRemove(post, "c",
+                List.of(comment("c", 3), comment("b", 2), comment("a", 1)), PREVIEW_SIZE);
+
+        assertEquals(2L, after.get(CommentSummary.COUNT_FIELD));
+        assertEquals(List.of("b", "a"), previewIds(after));
+    }
+
+    @Test
+    void removeOutsideThePreviewKeepsIt() {
+        Map<String, Object> post = CommentSummary.rebuilt(List.of(comment("a", 1), comment("b", 2), comment("c", 3)),
+                List.of(), null, PREVIEW_SIZE);
+        assertFalse(CommentSummary.inPreview(post, "a"));
+
+        Map<String, Object> after = CommentSummary.afterRemove(post, "a", null, PREVIEW_SIZE);
+
+        assertEquals(2L, after.get(CommentSummary.COUNT_FIELD));
+        assertEquals(List.of("c", "b"), previewIds(after));
+    }
+
+    @Test
+    void editChangesOnlyThePreviewEntry() {
+        Map<String, Object> post = CommentSummary.afterAdd(Map.of(), List.of(comment("a", 1), comment("b", 2)), PREVIEW_SIZE);
+
+        Map<String, Object> after = CommentSummary.afterEdit(post, "a", Map.of("comment", "edited"));
+
+        assertFalse(after.containsKey(CommentSummary.COUNT_FIELD));
+        assertEquals(List.of("text b", "edited"), previews(after).stream().map(entry -> entry.get("comment")).toList());
+    }
+
+    private static Comment comment(String id, long createdAt) {
+        return new Comment(id, "p1", "u1", "Ada", "text " + id, new Date(createdAt));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> previews(Map<String, Object> post) {
+        return (List<Map<String, Object>>) post.get(CommentSummary.PREVIEW_FIELD);
+    }
+
+    private static List<Object> previewIds(Map<String, Object> post) {
+        return previews(post).stream().map(entry -> entry.get("id")).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class CostContextTest {
+
+    private final CostAccount account = (reads, writes) -> { };
+
+    @Test
+    void stagesChainedOnAPropagatedResultSeeItsAccount() throws Exception {
+        CompletableFuture<String> rpc = new CompletableFuture<>();
+        AtomicReference<CostAccount> seen = new AtomicReference<>();
+        CompletableFuture<String> chained = CostContext.propagate(rpc, account).thenApply(value -> {
+            seen.set(CostContext.current());
+            return value;
+        });
+
+        // Completed from a thread that has no account of its own
+        Thread completer = new Thread(() -> rpc.complete("done"));
+        completer.start();
+        completer.join();
+
+        assertEquals("done", chained.join());
+        assertSame(account, seen.get());
+    }
+
+    @Test
+    void callWithRestoresTheAccountThatWasCurrent() {
+        CostAccount outer = (reads, writes) -> { };
+        CostContext.set(outer);
+        try {
+            assertSame(account, CostContext.callWith(account, CostContext::current));
+            assertSame(outer, CostContext.current());
+        } finally {
+            CostContext.clear();
+        }
+        assertNull(CostContext.current());
+    }
+
+    @Test
+    void cancellingThePropagatedResultCancelsTheOriginal() {
+        CompletableFuture<String> rpc = new CompletableFuture<>();
+
+        CostContext.propagate(rpc, account).cancel(true);
+
+        assertTrue(rpc.isCancelled());
+    }
+}
@@ -0,0 +1,156 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FirestoreBulkheadTest {
+
+    private static final String COLLECTION = "posts";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final List<SettableApiFuture<String>> pending = new ArrayList<>();
+
+    private final AtomicInteger issued = new AtomicInteger();
+
+    private FirestoreBulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        pending.forEach(rpc -> rpc.set("done"));
+        if (bulkhead != null) {
+            bulkhead.shutdown();
+        }
+    }
+
+    @Test
+    void callsOverTheLimitFailOnceTheWaitRunsOut() {
+        bulkhead = bulkhead(2, 50, false);
+        bulkhead.call(COLLECTION, FirestoreOperation.GET, this::slowRpc);
+        bulkhead.call(COLLECTION, FirestoreOperation.GET, this::slowRpc);
+
+        CompletableFuture<String> rejected = bulkhead.call(COLLECTION, FirestoreOperation.GET, this::slowRpc);
+
+        assertRejected(rejected);
+        assertEquals(2, issued.get());
+        assertEquals(1, registry.get("firestore.bulkhead.wait").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void aReleasedSlotGoesToTheNextWaiter() throws Exception {
+        bulkhead = bulkhead(1, 5_000, false);
+        bulkhead.call(COLLECTION, FirestoreOperation.GET, this::slowRpc);
+        CompletableFuture<String> waiting = bulkhead.call(COLLECTION, FirestoreOperation.GET, () -> rpc("next"));
+        assertFalse(waiting.isDone());
+        assertEquals(1, issued.get());
+
+        pending.get(0).set("first");
+
+        assertEquals("next", waiting.get(1, TimeUnit.SECONDS));
+        assertEquals(2, issued.get());
+    }
+
+    @Test
+    void aFailedCallReleasesItsSlot() throws Exception {
+        bulkhead = bulkhead(1, 50, false);
+        SettableApiFuture<String> failing = SettableApiFuture.create();
+        CompletableFuture<String> failed = bulkhead.call(COLLECTION, FirestoreOperation.GET, () -> failing);
+        failing.setException(new IllegalStateException("unavailable"));
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, failed::get).getCause());
+
+        assertEquals("ok", bulkhead.call(COLLECTION, FirestoreOperation.GET, () -> rpc("ok")).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void collectionsHaveSeparateSlots() throws Exception {
+        bulkhead = bulkhead(1, 50, false);
+        bulkhead.call(COLLECTION, FirestoreOperation.GET, this::slowRpc);
+
+        assertEquals("ok", bulkhead.call("comments", FirestoreOperation.GET, () -> rpc("ok")).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void virtualThreadsIssueEachCallOnItsOwnVirtualThread() throws Exception {
+        bulkhead = bulkhead(2, 5_000, true);
+        AtomicBoolean virtual = new AtomicBoolean();
+
+        String result = bulkhead.call(COLLECTION, FirestoreOperation.GET, () -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            return rpc("ok");
+        }).get(1, TimeUnit.SECONDS);
+
+        assertEquals("ok", result);
+        assertTrue(virtual.get());
+    }
+
+    @Test
+    void virtualThreadsAreRejectedOnceTheWaitRunsOut() throws Exception {
+        bulkhead = bulkhead(1, 50, true);
+        bulkhead.call(COLLECTION, FirestoreOperation.GET, this::slowRpc);
+        awaitIssued(1);
+
+        assertRejected(bulkhead.call(COLLECTION, FirestoreOperation.GET, this::slowRpc));
+        assertEquals(1, issued.get());
+    }
+
+    private FirestoreBulkhead bulkhead(int maxConcurrent, long maxWaitMs, boolean virtualThreads) {
+        FirestoreMetrics metrics = new FirestoreMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", registry);
+        FirestoreBulkhead created = new FirestoreBulkhead();
+        ReflectionTestUtils.setField(created, "maxConcurrent", maxConcurrent);
+        ReflectionTestUtils.setField(created, "maxWaitMs", maxWaitMs);
+        ReflectionTestUtils.setField(created, "virtualThreads", virtualThreads);
+        ReflectionTestUtils.setField(created, "metrics", metrics);
+        return created;
+    }
+
+    // A Firestore call that stays in flight until the test completes it
+    private ApiFuture<String> slowRpc() {
+        SettableApiFuture<String> rpc = SettableApiFuture.create();
+        synchronized (pending) {
+            pending.add(rpc);
+        }
+        issued.incrementAndGet();
+        return rpc;
+    }
+
+    private ApiFuture<String> rpc(String result) {
+        SettableApiFuture<String> rpc = SettableApiFuture.create();
+        rpc.set(result);
+        issued.incrementAndGet();
+        return rpc;
+    }
+
+    private void awaitIssued(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (issued.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, issued.get());
+    }
+
+    private static void assertRejected(CompletableFuture<?> call) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BulkheadFullException.class, error.getCause());
+    }
+}
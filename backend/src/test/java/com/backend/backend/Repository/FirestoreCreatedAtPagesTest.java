@@ -0,0 +1,70 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+
+class FirestoreCreatedAtPagesTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 3, 1, 12, 0, 0);
+
+    @Test
+    void mergeOrdersTimestampsAndLegacyStringsByInstant() {
+        List<QueryDocumentSnapshot> timestamps = List.of(
+                document("t3", Post.toTimestamp(NOON.plusHours(3))),
+                document("t1", Post.toTimestamp(NOON.plusHours(1))));
+        List<QueryDocumentSnapshot> strings = List.of(
+                document("s2", NOON.plusHours(2).toString()),
+                document("s0", NOON.toString()));
+
+        Page<String> page = FirestoreCreatedAtPages.merge(timestamps, strings, 10, (id, data) -> id);
+
+        assertEquals(List.of("t3", "s2", "t1", "s0"), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void mergeCursorPointsAtTheLastItemOfAFullPage() {
+        List<QueryDocumentSnapshot> timestamps = List.of(
+                document("t3", Post.toTimestamp(NOON.plusHours(3))),
+                document("t1", Post.toTimestamp(NOON.plusHours(1))));
+        List<QueryDocumentSnapshot> strings = List.of(document("s2", NOON.plusHours(2).toString()));
+
+        Page<String> page = FirestoreCreatedAtPages.merge(timestamps, strings, 2, (id, data) -> id);
+
+        assertEquals(List.of("t3", "s2"), page.getItems());
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertEquals("s2", next.getId());
+        assertEquals(NOON.plusHours(2), Post.readCreatedAt(next.getCreatedAt()));
+    }
+
+    @Test
+    void convertMovesACursorBetweenTypes() {
+        PageCursor fromString = new PageCursor(NOON.toString(), "a");
+        PageCursor fromTimestamp = new PageCursor(Post.toTimestamp(NOON), "b");
+
+        assertEquals(Post.toTimestamp(NOON), FirestoreCreatedAtPages.convert(fromString, Post::toTimestamp).getCreatedAt());
+        assertEquals(NOON.toString(), FirestoreCreatedAtPages.convert(fromTimestamp, LocalDateTime::toString).getCreatedAt());
+        assertEquals("b", FirestoreCreatedAtPages.convert(fromTimestamp, LocalDateTime::toString).getId());
+        assertNull(FirestoreCreatedAtPages.convert(null, Post::toTimestamp));
+    }
+
+    private static QueryDocumentSnapshot document(String id, Object createdAt) {
+        QueryDocumentSnapshot document = mock(QueryDocumentSnapshot.class);
+        when(document.getId()).thenReturn(id);
+        when(document.get("createdAt")).thenReturn(createdAt);
+        when(document.getData()).thenReturn(Map.of("createdAt", createdAt));
+        return document;
+    }
+}
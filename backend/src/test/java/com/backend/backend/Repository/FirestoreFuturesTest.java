@@ -0,0 +1,82 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.api.core.SettableApiFuture;
+
+class FirestoreFuturesTest {
+
+    @Test
+    void completesWhenTheApiFutureDoes() {
+        SettableApiFuture<String> rpc = SettableApiFuture.create();
+        CompletableFuture<String> result = FirestoreFutures.toCompletableFuture(rpc);
+        assertFalse(result.isDone());
+
+        rpc.set("done");
+
+        assertEquals("done", result.join());
+    }
+
+    @Test
+    void failsWithTheApiFutureError() {
+        SettableApiFuture<String> rpc = SettableApiFuture.create();
+        CompletableFuture<String> result = FirestoreFutures.toCompletableFuture(rpc);
+        IllegalStateException error = new IllegalStateException("unavailable");
+
+        rpc.setException(error);
+
+        assertSame(error, assertThrows(CompletionException.class, result::join).getCause());
+    }
+
+    @Test
+    void cancellingTheResultCancelsTheRpc() {
+        SettableApiFuture<String> rpc = SettableApiFuture.create();
+
+        FirestoreFutures.toCompletableFuture(rpc).cancel(true);
+
+        assertTrue(rpc.isCancelled());
+    }
+
+    @Test
+    void errorsBuildingTheRequestBecomeAFailedFuture() {
+        IllegalArgumentException error = new IllegalArgumentException("bad path");
+
+        CompletableFuture<String> result = FirestoreFutures.call(() -> {
+            throw error;
+        });
+
+        assertSame(error, assertThrows(CompletionException.class, result::join).getCause());
+    }
+
+    @Test
+    void awaitKeepsIllegalArgumentsAndWrapsOtherErrors() {
+        IllegalArgumentException invalid = new IllegalArgumentException("bad cursor");
+        IllegalStateException failed = new IllegalStateException("unavailable");
+
+        assertEquals("ok", FirestoreFutures.await(CompletableFuture.completedFuture("ok"), "Error"));
+        assertSame(invalid, assertThrows(IllegalArgumentException.class,
+                () -> FirestoreFutures.await(CompletableFuture.failedFuture(invalid), "Error")));
+        RuntimeException wrapped = assertThrows(RuntimeException.class,
+                () -> FirestoreFutures.await(CompletableFuture.failedFuture(failed), "Error getting post"));
+        assertEquals("Error getting post", wrapped.getMessage());
+        assertSame(failed, wrapped.getCause());
+    }
+
+    @Test
+    void unwrapFindsTheRootOfCompletionAndExecutionExceptions() {
+        IllegalStateException cause = new IllegalStateException("unavailable");
+
+        assertSame(cause, FirestoreFutures.unwrap(new CompletionException(new ExecutionException(cause))));
+        assertSame(cause, FirestoreFutures.unwrap(cause));
+    }
+}
@@ -0,0 +1,95 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.DocumentSnapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FirestoreMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final List<long[]> charges = new ArrayList<>();
+
+    private final CostAccount account = (reads, writes) -> charges.add(new long[] {reads, writes});
+
+    @Test
+    void writesAreTimedCountedSizedAndCharged() {
+        List<Map<String, Object>> written = List.of(Map.of("a", "xy"), Map.of("a", 1L));
+
+        metrics().instrument("topics", FirestoreOperation.BATCH, written, account,
+                () -> ApiFutures.immediateFuture("done")).get();
+
+        assertEquals(1, registry.get("firestore.operation")
+                .tags("collection", "topics", "operation", "batch", "status", "OK").timer().count());
+        assertEquals(2.0, registry.get("firestore.documents.written").tags("collection", "topics").counter().count());
+        assertEquals(37.0 + 42.0, registry.get("firestore.payload.bytes").tags("direction", "write").summary().totalAmount());
+        assertEquals(1, charges.size());
+        assertEquals(0, charges.get(0)[0]);
+        assertEquals(2, charges.get(0)[1]);
+    }
+
+    @Test
+    void readsAreCountedAndCharged() {
+        DocumentSnapshot document = mock(DocumentSnapshot.class);
+        when(document.exists()).thenReturn(true);
+        when(document.getData()).thenReturn(Map.of("a", "xy"));
+
+        metrics().instrument("posts", FirestoreOperation.GET, null, account,
+                () -> ApiFutures.immediateFuture(document)).get();
+
+        assertEquals(1.0, registry.get("firestore.documents.read").tags("collection", "posts", "operation", "get").counter().count());
+        assertEquals(37.0, registry.get("firestore.payload.bytes").tags("direction", "read").summary().totalAmount());
+        assertEquals(1, charges.get(0)[0]);
+        assertEquals(0, charges.get(0)[1]);
+    }
+
+    @Test
+    void failuresAreTaggedWithTheErrorAndNotCharged() {
+        ApiFuture<String> failed = ApiFutures.immediateFailedFuture(new IllegalStateException("unavailable"));
+
+        metrics().instrument("posts", FirestoreOperation.QUERY, null, account, () -> failed).get();
+
+        assertEquals(1, registry.get("firestore.operation")
+                .tags("operation", "query", "status", "IllegalStateException").timer().count());
+        assertEquals(List.of(), charges);
+    }
+
+    @Test
+    void errorsBuildingTheRequestAreTimedAndRethrown() {
+        assertThrows(IllegalArgumentException.class, () -> metrics().instrument("posts", FirestoreOperation.GET, null, account,
+                () -> {
+                    throw new IllegalArgumentException("bad path");
+                }).get());
+
+        assertEquals(1, registry.get("firestore.operation").tags("status", "IllegalArgumentException").timer().count());
+    }
+
+    @Test
+    void documentSizeFollowsFirestoreStorageRules() {
+        assertEquals(32, FirestoreMetrics.documentSize(null));
+        assertEquals(32 + 2 + 3, FirestoreMetrics.documentSize(Map.of("a", "xy")));
+        assertEquals(32 + 2 + 3, FirestoreMetrics.documentSize(Map.of("a", List.of("\u00e9"))));
+        assertEquals(32 + 2 + 2 + 8, FirestoreMetrics.documentSize(Map.of("a", Map.of("b", 1L))));
+    }
+
+    private FirestoreMetrics metrics() {
+        FirestoreMetrics metrics = new FirestoreMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", registry);
+        ReflectionTestUtils.setField(metrics, "payloadBytes", true);
+        return metrics;
+    }
+}
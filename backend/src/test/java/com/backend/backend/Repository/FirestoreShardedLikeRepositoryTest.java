@@ -0,0 +1,95 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.Model.Post;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+
+class FirestoreShardedLikeRepositoryTest {
+
+    private final Firestore firestore = mock(Firestore.class, RETURNS_DEEP_STUBS);
+
+    @Test
+    void shardCountsAreSummedPerPost() {
+        FirestoreShardedLikeRepository likes = repository(60_000);
+        shards(shard("a", 3L), shard("a", 4L), shard("b", 2L), shard("b", null));
+
+        Map<String, Long> counts = likes.countLikesAsync(List.of(post("a"), post("b"), post("c"))).join();
+
+        assertEquals(Map.of("a", 7L, "b", 2L, "c", 0L), counts);
+    }
+
+    @Test
+    void cachedCountsSkipTheShardRead() {
+        FirestoreShardedLikeRepository likes = repository(60_000);
+        shards(shard("a", 5L));
+
+        likes.countLikesAsync(List.of(post("a"))).join();
+        Map<String, Long> counts = likes.countLikesAsync(List.of(post("a"))).join();
+
+        assertEquals(Map.of("a", 5L), counts);
+        verify(firestore, times(1)).getAll(any(DocumentReference[].class));
+    }
+
+    @Test
+    void expiredCountsAreReadAgain() {
+        FirestoreShardedLikeRepository likes = repository(-1);
+        shards(shard("a", 5L));
+
+        likes.countLikesAsync(List.of(post("a"))).join();
+        likes.countLikesAsync(List.of(post("a"))).join();
+
+        verify(firestore, times(2)).getAll(any(DocumentReference[].class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private FirestoreShardedLikeRepository repository(long countCacheTtlMs) {
+        FirestoreBulkhead bulkhead = mock(FirestoreBulkhead.class);
+        when(bulkhead.call(anyString(), any(FirestoreOperation.class), any(Supplier.class)))
+                .thenAnswer(call -> FirestoreFutures.call(call.<Supplier<ApiFuture<Object>>>getArgument(2)));
+        FirestoreShardedLikeRepository likes = new FirestoreShardedLikeRepository();
+        ReflectionTestUtils.setField(likes, "firestore", firestore);
+        ReflectionTestUtils.setField(likes, "bulkhead", bulkhead);
+        ReflectionTestUtils.setField(likes, "shardCount", 2);
+        ReflectionTestUtils.setField(likes, "countCacheTtlMs", countCacheTtlMs);
+        ReflectionTestUtils.setField(likes, "countCacheSize", 100);
+        return likes;
+    }
+
+    private void shards(DocumentSnapshot... shards) {
+        when(firestore.getAll(any(DocumentReference[].class))).thenReturn(ApiFutures.immediateFuture(List.of(shards)));
+    }
+
+    // A shard of posts/{postId}/likeShards; a null count is a shard never written
+    private static DocumentSnapshot shard(String postId, Long count) {
+        DocumentSnapshot shard = mock(DocumentSnapshot.class, RETURNS_DEEP_STUBS);
+        when(shard.getReference().getParent().getParent().getId()).thenReturn(postId);
+        when(shard.exists()).thenReturn(count != null);
+        when(shard.getLong("count")).thenReturn(count);
+        return shard;
+    }
+
+    private static Post post(String postId) {
+        Post post = new Post();
+        post.setPostId(postId);
+        return post;
+    }
+}
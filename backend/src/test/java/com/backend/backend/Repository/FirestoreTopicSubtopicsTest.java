@@ -0,0 +1,139 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.Model.Subtopic;
+import com.backend.backend.Model.Topic;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Transaction;
+
+class FirestoreTopicSubtopicsTest {
+
+    private final Firestore firestore = mock(Firestore.class, RETURNS_DEEP_STUBS);
+
+    private final DocumentReference docRef = mock(DocumentReference.class);
+
+    private final Transaction transaction = mock(Transaction.class);
+
+    private final FirestoreTopicRepository topics = repository();
+
+    @Test
+    void aSubtopicUpdateWritesOnlyTheFieldsItSets() {
+        stored(Map.of(Topic.SUBTOPICS, Map.of(
+                "1", subtopic("Basics", 10, 1),
+                "2", subtopic("Loops", 0, 2))));
+
+        Topic topic = topics.updateSubtopic("t1", "2", Map.of("progress", 50)).orElseThrow();
+
+        assertEquals(Map.of("subtopics.2.progress", 50), written());
+        assertEquals(50, topic.findSubtopic("2").getProgress());
+        assertEquals("Loops", topic.findSubtopic("2").getTitle());
+    }
+
+    @Test
+    void anAddedSubtopicIsWrittenUnderItsNewId() {
+        stored(Map.of(Topic.SUBTOPICS, Map.of("1", subtopic("Basics", 10, 1))));
+
+        topics.addSubtopic("t1", new Subtopic(null, "Loops", "for and while", null, null)).orElseThrow();
+
+        assertEquals(Map.of("subtopics.2", Map.of("title", "Loops", "description", "for and while", "progress", 0, "position", 2)),
+                written());
+    }
+
+    @Test
+    void aRemovedSubtopicIsDeletedByItsPath() {
+        stored(Map.of(Topic.SUBTOPICS, Map.of(
+                "1", subtopic("Basics", 10, 1),
+                "2", subtopic("Loops", 0, 2))));
+
+        Topic topic = topics.removeSubtopic("t1", "1").orElseThrow();
+
+        assertEquals(Map.of("subtopics.1", FieldValue.delete()), written());
+        assertEquals(List.of("2"), topic.getSubtopics().stream().map(Subtopic::getId).toList());
+    }
+
+    @Test
+    void aDocumentInThePairLayoutIsRewrittenAsSubtopics() {
+        stored(Map.of("topicOne", "Basics", "topicOneDescription", "syntax", "topicTwo", "Loops"));
+
+        topics.updateSubtopic("t1", "2", Map.of("progress", 30)).orElseThrow();
+
+        Map<String, Object> fields = written();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> subtopics = (Map<String, Object>) fields.get(Topic.SUBTOPICS);
+        assertEquals(Map.of("title", "Basics", "description", "syntax", "progress", 0, "position", 1), subtopics.get("1"));
+        assertEquals(30, ((Map<?, ?>) subtopics.get("2")).get("progress"));
+        assertNull(fields.get("topicOne"));
+        assertFalse(fields.containsKey("subtopics.2.progress"));
+    }
+
+    @Test
+    void missingSubtopicsWriteNothing() {
+        stored(Map.of(Topic.SUBTOPICS, Map.of("1", subtopic("Basics", 10, 1))));
+
+        assertEquals(Optional.empty(), topics.updateSubtopic("t1", "9", Map.of("progress", 50)));
+        assertEquals(Optional.empty(), topics.removeSubtopic("t1", "9"));
+        verify(transaction, never()).update(any(DocumentReference.class), anyMap());
+    }
+
+    @SuppressWarnings("unchecked")
+    private FirestoreTopicRepository repository() {
+        FirestoreBulkhead bulkhead = mock(FirestoreBulkhead.class);
+        when(bulkhead.call(anyString(), any(FirestoreOperation.class), any(Supplier.class)))
+                .thenAnswer(call -> FirestoreFutures.call(call.<Supplier<ApiFuture<Object>>>getArgument(2)));
+        when(firestore.collection("topics").document("t1")).thenReturn(docRef);
+        when(firestore.runAsyncTransaction(any(Transaction.AsyncFunction.class)))
+                .thenAnswer(call -> call.<Transaction.AsyncFunction<Object>>getArgument(0).updateCallback(transaction));
+        FirestoreTopicRepository created = new FirestoreTopicRepository();
+        ReflectionTestUtils.setField(created, "firestore", firestore);
+        ReflectionTestUtils.setField(created, "bulkhead", bulkhead);
+        return created;
+    }
+
+    // The topic document t1 as the transaction reads it
+    private void stored(Map<String, Object> data) {
+        DocumentSnapshot document = mock(DocumentSnapshot.class);
+        when(document.exists()).thenReturn(true);
+        when(document.getId()).thenReturn("t1");
+        when(document.getData()).thenReturn(new HashMap<>(data));
+        when(document.get(anyString())).thenAnswer(call -> data.get(call.<String>getArgument(0)));
+        when(transaction.get(docRef)).thenReturn(ApiFutures.immediateFuture(document));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> written() {
+        ArgumentCaptor<Map<String, Object>> fields = ArgumentCaptor.forClass(Map.class);
+        verify(transaction).update(eq(docRef), fields.capture());
+        return fields.getValue();
+    }
+
+    private static Map<String, Object> subtopic(String title, int progress, int position) {
+        return Map.of("title", title, "description", "", "progress", (long) progress, "position", (long) position);
+    }
+}
@@ -0,0 +1,106 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.backend.Model.Page;
+import com.google.cloud.Timestamp;
+
+class InMemoryCollectionTest {
+
+    @Test
+    void documentsAreCopiedInAndOut() {
+        InMemoryCollection collection = new InMemoryCollection();
+        List<String> tags = new ArrayList<>(List.of("java"));
+        Map<String, Object> document = new HashMap<>(Map.of("createdAt", 1L, "tags", tags));
+        collection.put("a", document);
+
+        tags.add("kotlin");
+        collection.get("a").put("createdAt", 2L);
+
+        assertEquals(Map.of("createdAt", 1L, "tags", List.of("java")), collection.get("a"));
+    }
+
+    @Test
+    void updateMergesFieldsOnlyIntoExistingDocuments() {
+        InMemoryCollection collection = new InMemoryCollection();
+        collection.put("a", Map.of("createdAt", 1L, "title", "old", "body", "kept"));
+
+        assertTrue(collection.update("a", Map.of("title", "new")));
+        assertFalse(collection.update("missing", Map.of("title", "new")));
+
+        assertEquals(Map.of("createdAt", 1L, "title", "new", "body", "kept"), collection.get("a"));
+        assertFalse(collection.exists("missing"));
+    }
+
+    @Test
+    void fieldScansFollowUpdatesAndMatchListElements() {
+        InMemoryCollection collection = new InMemoryCollection("userId", "skills");
+        collection.put("a", Map.of("createdAt", 1L, "userId", "u1", "skills", List.of("java", "go")));
+        collection.put("b", Map.of("createdAt", 2L, "userId", "u1", "skills", List.of("java")));
+        collection.put("c", Map.of("createdAt", 3L, "userId", "u2", "skills", List.of("go")));
+
+        collection.update("b", Map.of("userId", "u2"));
+
+        assertEquals(List.of("a"), idsOf(collection, "userId", "u1"));
+        assertEquals(List.of("c", "b"), idsOf(collection, "userId", "u2"));
+        assertEquals(List.of("c", "a"), idsOf(collection, "skills", "go"));
+    }
+
+    @Test
+    void pagesContinueAfterTheirCursor() {
+        InMemoryCollection collection = new InMemoryCollection();
+        for (long i = 1; i <= 5; i++) {
+            collection.put("d" + i, Map.of("createdAt", i));
+        }
+
+        Page<String> first = collection.page(null, null, null, 2, (id, data) -> id);
+        Page<String> second = collection.page(null, null, first.getNextCursor(), 2, (id, data) -> id);
+        Page<String> last = collection.page(null, null, second.getNextCursor(), 2, (id, data) -> id);
+
+        assertEquals(List.of("d5", "d4"), first.getItems());
+        assertEquals(List.of("d3", "d2"), second.getItems());
+        assertEquals(List.of("d1"), last.getItems());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void trimDropsTheOldestDocuments() {
+        InMemoryCollection collection = new InMemoryCollection();
+        for (long i = 1; i <= 4; i++) {
+            collection.put("d" + i, Map.of("createdAt", i));
+        }
+
+        collection.trim(2);
+
+        assertEquals(List.of("d4", "d3"), idsOf(collection, null, null));
+        assertNull(collection.take("d1"));
+        assertEquals(Map.of("createdAt", 4L), collection.take("d4"));
+    }
+
+    @Test
+    void valuesOrderByTypeLikeFirestore() {
+        Timestamp timestamp = Timestamp.ofTimeSecondsAndNanos(0, 0);
+
+        assertTrue(InMemoryCollection.compareValues(null, false) < 0);
+        assertTrue(InMemoryCollection.compareValues(true, 1L) < 0);
+        assertTrue(InMemoryCollection.compareValues(2, 10L) < 0);
+        assertTrue(InMemoryCollection.compareValues(Long.MAX_VALUE, timestamp) < 0);
+        assertTrue(InMemoryCollection.compareValues(timestamp, "") < 0);
+        assertEquals(0, InMemoryCollection.compareValues(3, 3.0));
+    }
+
+    // Every id in a scan, in index order
+    private static List<String> idsOf(InMemoryCollection collection, String field, String value) {
+        return collection.scan(field, value, null, -1, (id, data) -> id);
+    }
+}
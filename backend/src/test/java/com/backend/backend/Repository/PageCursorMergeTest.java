@@ -0,0 +1,90 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+
+class PageCursorMergeTest {
+
+    private record Item(long createdAt, String id) {
+    }
+
+    @Test
+    void mergeOrdersNewestFirstAndDropsDuplicates() {
+        Page<Item> java = new Page<>(List.of(new Item(50, "b"), new Item(30, "d"), new Item(10, "f")), null);
+        Page<Item> kotlin = new Page<>(List.of(new Item(50, "b"), new Item(40, "c"), new Item(10, "e")), null);
+
+        Page<Item> merged = merge(List.of(java, kotlin), 10);
+
+        assertEquals(List.of(new Item(50, "b"), new Item(40, "c"), new Item(30, "d"), new Item(10, "f"),
+                new Item(10, "e")), merged.getItems());
+        assertNull(merged.getNextCursor());
+    }
+
+    @Test
+    void mergeCursorContinuesAfterTheLastItemReturned() {
+        Page<Item> java = new Page<>(List.of(new Item(50, "b"), new Item(30, "d")), null);
+        Page<Item> kotlin = new Page<>(List.of(new Item(50, "b"), new Item(40, "c")), null);
+
+        Page<Item> merged = merge(List.of(java, kotlin), 2);
+
+        assertEquals(List.of(new Item(50, "b"), new Item(40, "c")), merged.getItems());
+        PageCursor next = PageCursor.decode(merged.getNextCursor());
+        assertEquals(40L, next.getCreatedAt());
+        assertEquals("c", next.getId());
+    }
+
+    @Test
+    void mergeHasMoreWhenAnyInputHasMore() {
+        Page<Item> java = new Page<>(List.of(new Item(50, "b")), PageCursor.encode(50L, "b"));
+        Page<Item> kotlin = new Page<>(List.of(new Item(40, "c")), null);
+
+        Page<Item> merged = merge(List.of(java, kotlin), 5);
+
+        assertEquals(2, merged.getItems().size());
+        PageCursor next = PageCursor.decode(merged.getNextCursor());
+        assertEquals(40L, next.getCreatedAt());
+        assertEquals("c", next.getId());
+    }
+
+    @Test
+    void mergeOfEmptyPagesKeepsAnInputCursor() {
+        String cursor = PageCursor.encode(20L, "x");
+        Page<Item> merged = merge(List.of(new Page<>(List.of(), cursor), new Page<>(List.of(), null)), 5);
+
+        assertEquals(List.of(), merged.getItems());
+        assertEquals(cursor, merged.getNextCursor());
+    }
+
+    @Test
+    void mergePagesOrdersChunksOfAFeedByCreatedAt() {
+        LocalDateTime noon = LocalDateTime.of(2025, 3, 1, 12, 0);
+        Page<Post> first = new Page<>(List.of(post("a", noon.plusHours(2)), post("c", noon)), null);
+        Page<Post> second = new Page<>(List.of(post("b", noon.plusHours(1))), null);
+
+        Page<Post> merged = PostRepository.mergePages(List.of(first, second), 2);
+
+        assertEquals(List.of("a", "b"), merged.getItems().stream().map(Post::getPostId).toList());
+        PageCursor next = PageCursor.decode(merged.getNextCursor());
+        assertEquals("b", next.getId());
+        assertEquals(noon.plusHours(1), Post.readCreatedAt(next.getCreatedAt()));
+    }
+
+    private static Post post(String postId, LocalDateTime createdAt) {
+        Post post = new Post("u1", "Ada", postId, "ada.png");
+        post.setPostId(postId);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+
+    private static Page<Item> merge(List<Page<Item>> pages, int pageSize) {
+        return PageCursor.merge(pages, pageSize, Item::createdAt, Item::id);
+    }
+}
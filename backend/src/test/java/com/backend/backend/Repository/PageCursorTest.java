@@ -0,0 +1,27 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class PageCursorTest {
+
+    @Test
+    void cursorRoundTripKeepsTheValueType() {
+        assertEquals(123L, PageCursor.decode(PageCursor.encode(123L, "a1")).getCreatedAt());
+        assertEquals("a1", PageCursor.decode(PageCursor.encode(123L, "a1")).getId());
+        assertEquals("2025", PageCursor.decode(PageCursor.encode("2025", "a")).getCreatedAt());
+        assertNull(PageCursor.decode(PageCursor.encode(null, "a")).getCreatedAt());
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("%%"));
+    }
+
+    @Test
+    void pageSizesAreClamped() {
+        assertEquals(PageCursor.DEFAULT_PAGE_SIZE, PageCursor.clampPageSize(null));
+        assertEquals(PageCursor.DEFAULT_PAGE_SIZE, PageCursor.clampPageSize(0));
+        assertEquals(7, PageCursor.clampPageSize(7));
+        assertEquals(PageCursor.MAX_PAGE_SIZE, PageCursor.clampPageSize(PageCursor.MAX_PAGE_SIZE + 1));
+    }
+}
@@ -0,0 +1,23 @@
+package com.backend.backend.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class SkillCountersTest {
+
+    @Test
+    void onlyAddedAndRemovedSkillsChangeTheirCounters() {
+        assertEquals(Map.of("go", -1L, "rust", 1L), SkillCounters.changes(List.of("java", "go"), List.of("rust", "java")));
+    }
+
+    @Test
+    void missingSkillListsCountAsEmpty() {
+        assertEquals(Map.of("java", 1L), SkillCounters.changes(null, List.of("java")));
+        assertEquals(Map.of("java", -1L), SkillCounters.changes(List.of("java"), null));
+        assertEquals(Map.of(), SkillCounters.changes(null, null));
+    }
+}
@@ -0,0 +1,45 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class BulkRequestsTest {
+
+    @Test
+    void checkAcceptsImmutableLists() {
+        assertDoesNotThrow(() -> BulkRequests.check(List.of("a", "b")));
+    }
+
+    @Test
+    void checkRejectsEmptyOversizedAndNullItems() {
+        assertThrows(IllegalArgumentException.class, () -> BulkRequests.check(null));
+        assertThrows(IllegalArgumentException.class, () -> BulkRequests.check(List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> BulkRequests.check(new ArrayList<>(Collections.nCopies(BulkRequests.MAX_ITEMS + 1, "a"))));
+        assertThrows(IllegalArgumentException.class, () -> BulkRequests.check(Arrays.asList("a", null)));
+    }
+
+    @Test
+    void checkIdsKeepsTheFirstOfEachIdInOrder() {
+        assertEquals(List.of("b", "a"), BulkRequests.checkIds(List.of("b", "a", "b")));
+    }
+
+    @Test
+    void checkIdsRejectsEmptyAndNullIds() {
+        assertThrows(IllegalArgumentException.class, () -> BulkRequests.checkIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> BulkRequests.checkIds(List.of("a", "")));
+        assertThrows(IllegalArgumentException.class, () -> BulkRequests.checkIds(Arrays.asList("a", null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> BulkRequests.checkIds(IntStream.rangeClosed(0, BulkRequests.MAX_IDS)
+                        .mapToObj(Integer::toString).toList()));
+    }
+}
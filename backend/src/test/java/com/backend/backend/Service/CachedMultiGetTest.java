@@ -0,0 +1,58 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.backend.backend.Model.MultiGetResult;
+
+class CachedMultiGetTest {
+
+    private record Doc(String id, String value) {
+    }
+
+    @Test
+    void onlyMissesAreLoadedAndTheyAreCachedAfterwards() {
+        ConcurrentMapCache cache = new ConcurrentMapCache("docs");
+        cache.put("a", new Doc("a", "cached"));
+        List<List<String>> loads = new ArrayList<>();
+
+        MultiGetResult<Doc> result = get(cache, List.of("b", "a", "c"), loads);
+
+        assertEquals(List.of(List.of("b", "c")), loads);
+        assertEquals(List.of("b", "a"), List.copyOf(result.getItems().keySet()));
+        assertEquals("cached", result.getItems().get("a").value());
+        assertEquals(List.of("c"), result.getMissing());
+        assertEquals(new Doc("b", "loaded"), cache.get("b", Doc.class));
+    }
+
+    @Test
+    void fullyCachedRequestsNeverLoad() {
+        ConcurrentMapCache cache = new ConcurrentMapCache("docs");
+        cache.put("a", new Doc("a", "cached"));
+        List<List<String>> loads = new ArrayList<>();
+
+        MultiGetResult<Doc> result = get(cache, List.of("a"), loads);
+
+        assertTrue(loads.isEmpty());
+        assertEquals(List.of("a"), List.copyOf(result.getItems().keySet()));
+        assertTrue(result.getMissing().isEmpty());
+    }
+
+    // The loader finds every requested id except "c"
+    private static MultiGetResult<Doc> get(ConcurrentMapCache cache, List<String> ids, List<List<String>> loads) {
+        return CachedMultiGet.get(cache, Doc.class, ids, Doc::id, misses -> {
+            loads.add(misses);
+            return CompletableFuture.completedFuture(misses.stream()
+                    .filter(id -> !id.equals("c"))
+                    .map(id -> new Doc(id, "loaded"))
+                    .toList());
+        }).join();
+    }
+}
@@ -0,0 +1,98 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.Model.ChangeEvent;
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Repository.ChangeStreamRepository;
+
+class ChangeStreamServiceTest {
+
+    private final FakeChangeStream changeStream = new FakeChangeStream();
+
+    private final ChangeStreamService service = new ChangeStreamService();
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void subscribersOfOneQueryShareItsListener() {
+        service(256);
+
+        service.subscribeToComments("p1");
+        service.subscribeToComments("p1");
+        service.subscribeToComments("p2");
+
+        assertEquals(2, changeStream.sinks.size());
+        assertEquals(2, service.listenerCount());
+    }
+
+    @Test
+    void aFailedListenerIsReplacedOnTheNextSubscribe() {
+        service(256);
+        service.subscribeToComments("p1");
+
+        changeStream.sinks.get(0).onError(new IllegalStateException("listener failed"));
+        assertEquals(0, service.listenerCount());
+
+        service.subscribeToComments("p1");
+        assertEquals(2, changeStream.sinks.size());
+        assertEquals(1, service.listenerCount());
+    }
+
+    @Test
+    void aSubscriberThatFallsBehindIsDroppedAndItsListenerStopped() {
+        service(1);
+        service.subscribeToComments("p1");
+
+        changeStream.sinks.get(0).onChanges(List.of(added("c1"), added("c2")));
+
+        assertEquals(1, changeStream.stopped.get());
+        assertEquals(0, service.listenerCount());
+    }
+
+    private void service(int bufferSize) {
+        ReflectionTestUtils.setField(service, "changeStreamRepository", changeStream);
+        ReflectionTestUtils.setField(service, "postsWindow", 50);
+        ReflectionTestUtils.setField(service, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+    }
+
+    private static ChangeEvent<Comment> added(String id) {
+        return new ChangeEvent<>("added", id, new Comment());
+    }
+
+    // Records the comment listeners opened and how many were stopped
+    private static final class FakeChangeStream implements ChangeStreamRepository {
+        private final List<ChangeSink<Comment>> sinks = new ArrayList<>();
+        private final AtomicInteger stopped = new AtomicInteger();
+
+        @Override
+        public Runnable listenToLatestPosts(int window, ChangeSink<Post> sink) {
+            return () -> { };
+        }
+
+        @Override
+        public Runnable listenToComments(String postId, ChangeSink<Comment> sink) {
+            sinks.add(sink);
+            return stopped::incrementAndGet;
+        }
+
+        @Override
+        public Runnable listenToPostsSince(LocalDateTime since, ChangeSink<Post> sink) {
+            return () -> { };
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.CommentDto;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class CommentServiceTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Test
+    void commentWritesEvictTheCachedPost() {
+        Post post = postService.createPost(new Post("u1", "Ada", "a post", "ada.png"));
+        String postId = post.getPostId();
+        assertEquals(0, postService.getPostByIdAsync(postId).join().getCommentCount());
+
+        Comment added = commentService.addNewCommentAsync(comment(postId, "first")).join();
+        Post afterAdd = postService.getPostByIdAsync(postId).join();
+        assertEquals(1, afterAdd.getCommentCount());
+        assertEquals(List.of("first"), previews(afterAdd));
+
+        assertTrue(commentService.updateCommentAsync(new CommentDto(added.getId(), "edited")).join());
+        assertEquals(List.of("edited"), previews(postService.getPostByIdAsync(postId).join()));
+
+        assertTrue(commentService.deleteCommentAsync(added.getId()).join());
+        Post afterDelete = postService.getPostByIdAsync(postId).join();
+        assertEquals(0, afterDelete.getCommentCount());
+        assertEquals(List.of(), previews(afterDelete));
+    }
+
+    @Test
+    void bulkCommentsEvictEachCachedPost() {
+        String first = postService.createPost(new Post("u1", "Ada", "first post", "ada.png")).getPostId();
+        String second = postService.createPost(new Post("u1", "Ada", "second post", "ada.png")).getPostId();
+        postService.getPostByIdAsync(first).join();
+        postService.getPostByIdAsync(second).join();
+
+        commentService.addNewCommentsAsync(List.of(comment(first, "a"), comment(second, "b"), comment(first, "c"))).join();
+
+        assertEquals(2, postService.getPostByIdAsync(first).join().getCommentCount());
+        assertEquals(1, postService.getPostByIdAsync(second).join().getCommentCount());
+    }
+
+    @Test
+    void pagesAndStreamsReturnEveryCommentNewestFirst() {
+        String postId = postService.createPost(new Post("u1", "Ada", "a busy post", "ada.png")).getPostId();
+        for (int i = 0; i < 5; i++) {
+            Comment comment = comment(postId, "comment " + i);
+            comment.setCreatedAt(new Date(1_000L * (i + 1)));
+            commentService.addNewComment(comment);
+        }
+        List<String> expected = List.of("comment 4", "comment 3", "comment 2", "comment 1", "comment 0");
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Comment> page = commentService.getCommentsPageAsync(postId, 2, cursor).join();
+            page.getItems().forEach(comment -> paged.add(comment.getComment()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<String> streamed = new ArrayList<>();
+        commentService.streamCommentsAsync(postId, comment -> streamed.add(comment.getComment())).join();
+
+        assertEquals(expected, paged);
+        assertEquals(expected, streamed);
+    }
+
+    private static Comment comment(String postId, String text) {
+        Comment comment = new Comment();
+        comment.setPostId(postId);
+        comment.setUserId("u2");
+        comment.setUsername("Grace");
+        comment.setComment(text);
+        return comment;
+    }
+
+    private static List<String> previews(Post post) {
+        return post.getLatestComments().stream().map(Comment::getComment).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.Repository.CostAccount;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CostBudgetServiceTest {
+
+    private static final String ENDPOINT = "GET /api/v1/posts";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void callersAreRefusedOnceInDebtUntilTheBucketRefills() {
+        CostBudgetService budgets = budgets(true);
+        assertEquals(0, budgets.retryAfterSeconds(ENDPOINT, "alice"));
+
+        // 6 reads and 2 writes at 3 units each leave the 10 unit bucket 2 units in debt
+        budgets.account(ENDPOINT, "alice").charge(6, 2);
+
+        assertEquals(3, budgets.retryAfterSeconds(ENDPOINT, "alice"));
+        assertEquals(0, budgets.retryAfterSeconds(ENDPOINT, "bob"));
+        assertEquals(1.0, registry.get("firestore.budget.throttled").counter().count());
+    }
+
+    @Test
+    void debtIsCappedAtTheCapacity() {
+        CostBudgetService budgets = budgets(true);
+
+        budgets.account(ENDPOINT, "alice").charge(1_000, 0);
+
+        assertEquals(11, budgets.retryAfterSeconds(ENDPOINT, "alice"));
+    }
+
+    @Test
+    void disabledBudgetsStillCountBilledOperations() {
+        CostBudgetService budgets = budgets(false);
+        CostAccount account = budgets.account(ENDPOINT, "alice");
+
+        account.charge(100, 1);
+        account.charge(5, 2);
+
+        assertEquals(0, budgets.retryAfterSeconds(ENDPOINT, "alice"));
+        assertEquals(105.0, registry.get("firestore.billed.reads").tag("endpoint", ENDPOINT).counter().count());
+        assertEquals(3.0, registry.get("firestore.billed.writes").tag("endpoint", ENDPOINT).counter().count());
+        assertEquals(Map.of("reads", 105L, "writes", 3L), endpoints(budgets.snapshot(10)).get(ENDPOINT));
+    }
+
+    private CostBudgetService budgets(boolean enabled) {
+        CostBudgetService budgets = new CostBudgetService();
+        ReflectionTestUtils.setField(budgets, "enabled", enabled);
+        ReflectionTestUtils.setField(budgets, "capacity", 10.0);
+        ReflectionTestUtils.setField(budgets, "refillPerSecond", 1.0);
+        ReflectionTestUtils.setField(budgets, "writeCost", 3L);
+        ReflectionTestUtils.setField(budgets, "maxCallers", 100L);
+        ReflectionTestUtils.setField(budgets, "registry", registry);
+        budgets.init();
+        return budgets;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> endpoints(Map<String, Object> snapshot) {
+        return (Map<String, Object>) snapshot.get("endpoints");
+    }
+}
@@ -0,0 +1,147 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.backend.Service.HotnessRanking.Scored;
+import com.backend.backend.Service.HotnessRanking.Snapshot;
+
+class HotnessRankingTest {
+
+    private static final long HALF_LIFE = 1_000;
+
+    @Test
+    void olderActivityDecaysBelowNewerActivity() {
+        long now = System.currentTimeMillis();
+        HotnessRanking ranking = new HotnessRanking(HALF_LIFE, 100, now - 10 * HALF_LIFE);
+        ranking.add("old", 4, now - 3 * HALF_LIFE);
+        ranking.add("new", 1, now);
+        ranking.add("older", 4, now - 2 * HALF_LIFE);
+
+        List<Scored> top = ranking.top(10, now);
+
+        assertEquals(List.of("new", "older", "old"), postIds(top));
+        assertEquals(1.0, top.get(0).score(), 1e-9);
+        assertEquals(1.0, top.get(1).score(), 1e-9);
+        assertEquals(0.5, top.get(2).score(), 1e-9);
+    }
+
+    @Test
+    void rebaseKeepsScoresAndOrder() {
+        long now = System.currentTimeMillis();
+        long epoch = now - 70 * HALF_LIFE;
+        HotnessRanking ranking = new HotnessRanking(HALF_LIFE, 100, epoch);
+        ranking.add("early", 1, epoch);
+        ranking.add("late", 1, epoch + HALF_LIFE);
+        List<Scored> before = ranking.top(10, now);
+
+        ranking.add("now", 1, now);
+
+        assertTrue(ranking.snapshot(10).epoch() > epoch);
+        List<Scored> after = ranking.top(10, now);
+        assertEquals(List.of("now", "late", "early"), postIds(after));
+        assertEquals(before.get(0).score(), after.get(1).score(), before.get(0).score() * 1e-9);
+        assertEquals(before.get(1).score(), after.get(2).score(), before.get(1).score() * 1e-9);
+    }
+
+    @Test
+    void unlikeToZeroLeavesTheRanking() {
+        long now = System.currentTimeMillis();
+        HotnessRanking ranking = new HotnessRanking(HALF_LIFE, 100, now);
+        ranking.add("liked", 1, now);
+        ranking.add("kept", 2, now);
+        ranking.add("liked", -1, now);
+
+        assertEquals(List.of("kept"), postIds(ranking.top(10, now)));
+        assertEquals(1, ranking.size());
+    }
+
+    @Test
+    void laterUnlikeNeverRaisesAScore() {
+        long now = System.currentTimeMillis();
+        HotnessRanking ranking = new HotnessRanking(HALF_LIFE, 100, now - 5 * HALF_LIFE);
+        ranking.add("post", 1, now - 2 * HALF_LIFE);
+        ranking.add("post", -1, now);
+
+        assertEquals(0, ranking.size());
+    }
+
+    @Test
+    void lowestScoredPostsAreEvictedBeyondMaxTracked() {
+        long now = System.currentTimeMillis();
+        HotnessRanking ranking = new HotnessRanking(HALF_LIFE, 2, now);
+        ranking.add("a", 3, now);
+        ranking.add("b", 1, now);
+        ranking.add("c", 2, now);
+
+        assertEquals(List.of("a", "c"), postIds(ranking.top(10, now)));
+        assertEquals(2, ranking.size());
+    }
+
+    @Test
+    void futureTimesCountAsNow() {
+        long now = System.currentTimeMillis();
+        HotnessRanking ranking = new HotnessRanking(HALF_LIFE, 100, now);
+        ranking.add("existing", 2, now);
+        ranking.add("future", 1, now + 1_000 * HALF_LIFE);
+
+        Snapshot snapshot = ranking.snapshot(10);
+        assertTrue(snapshot.epoch() <= System.currentTimeMillis());
+        assertEquals(List.of("existing", "future"), List.copyOf(snapshot.scores().keySet()));
+        assertEquals(2.0, ranking.top(10, now).get(0).score(), 1e-6);
+    }
+
+    @Test
+    void mergeAddsSavedScores() {
+        long now = System.currentTimeMillis();
+        HotnessRanking saved = new HotnessRanking(HALF_LIFE, 100, now - HALF_LIFE);
+        saved.add("a", 1, now);
+        saved.add("b", 3, now);
+        HotnessRanking ranking = new HotnessRanking(HALF_LIFE, 100, now);
+        ranking.add("a", 3, now);
+
+        ranking.merge(saved.snapshot(10));
+
+        List<Scored> top = ranking.top(10, now);
+        assertEquals(List.of("a", "b"), postIds(top));
+        assertEquals(4.0, top.get(0).score(), 1e-9);
+        assertEquals(3.0, top.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void topSeesEveryPostOnceWhileScoresChange() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        HotnessRanking ranking = new HotnessRanking(HALF_LIFE, 100, now);
+        for (int i = 0; i < 20; i++) {
+            ranking.add("p" + i, 1, now);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                ranking.add("p" + (i % 20), 5, now);
+                ranking.add("p" + (i % 20), -5, now);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                List<String> top = postIds(ranking.top(20, now));
+                assertEquals(20, top.size());
+                assertEquals(20, new HashSet<>(top).size());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    private static List<String> postIds(List<Scored> scored) {
+        return scored.stream().map(Scored::postId).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.backend.backend.Model.LikeResult;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class PostServiceTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Test
+    void updateRespondsWithTheWholeStoredPost() {
+        Post post = new Post("u1", "Ada", "first draft", "ada.png");
+        post.setSkills(List.of("Java"));
+        Post created = postService.createPost(post);
+
+        Post changes = new Post();
+        changes.setDescription("second draft");
+        Post updated = postService.updatePostAsync(created.getPostId(), changes).join();
+
+        assertEquals(created.getPostId(), updated.getPostId());
+        assertEquals("second draft", updated.getDescription());
+        assertEquals("u1", updated.getUserId());
+        assertEquals("Ada", updated.getUsername());
+        assertEquals(List.of("java"), updated.getSkills());
+        assertNotNull(updated.getCreatedAt());
+    }
+
+    @Test
+    void updateOfAMissingPostIsNull() {
+        Post changes = new Post();
+        changes.setDescription("nothing to change");
+
+        assertNull(postService.updatePostAsync("missing", changes).join());
+        assertNull(postService.updatePost("missing", changes));
+    }
+
+    @Test
+    void pagesWalkAUsersPostsNewestFirstOnce() {
+        LocalDateTime noon = LocalDateTime.of(2025, 3, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            Post post = new Post("pager", "Ada", "post " + i, "ada.png");
+            post.setCreatedAt(noon.plusMinutes(i));
+            postService.createPost(post);
+        }
+
+        List<String> descriptions = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<Post> page = postService.getPostsByUserPageAsync("pager", 2, cursor).join();
+            page.getItems().forEach(post -> descriptions.add(post.getDescription()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("post 4", "post 3", "post 2", "post 1", "post 0"), descriptions);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void likesAreSetOrToggledAndCounted() {
+        String postId = postService.createPost(new Post("u1", "Ada", "likeable", "ada.png")).getPostId();
+
+        LikeResult liked = postService.likePostAsync(postId, "u2", true).join();
+        assertTrue(liked.isLiked());
+        assertTrue(liked.isChanged());
+        assertEquals(1, liked.getLikeCount());
+
+        LikeResult again = postService.likePostAsync(postId, "u2", true).join();
+        assertTrue(again.isLiked());
+        assertFalse(again.isChanged());
+        assertEquals(1, again.getLikeCount());
+
+        LikeResult toggled = postService.likePostAsync(postId, "u2", null).join();
+        assertFalse(toggled.isLiked());
+        assertEquals(0, toggled.getLikeCount());
+        assertNull(postService.likePostAsync("missing", "u2", true).join());
+    }
+
+    @Test
+    void concurrentLikesAreAllCounted() {
+        String postId = postService.createPost(new Post("u1", "Ada", "popular", "ada.png")).getPostId();
+
+        List<CompletableFuture<LikeResult>> likes = IntStream.range(0, 50)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> postService.likePost(postId, "fan" + i, true)))
+                .toList();
+        likes.forEach(CompletableFuture::join);
+
+        assertEquals(50, postService.likePostAsync(postId, "fan0", true).join().getLikeCount());
+    }
+}
@@ -0,0 +1,128 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.backend.Service.SearchIndex.Hit;
+
+class SearchIndexTest {
+
+    @Test
+    void tokenizeFoldsCaseAndAccentsAndDropsStopWords() {
+        assertEquals(List.of("learning", "cafe", "java", "21"), SearchIndex.tokenize("Learning the Caf\u00e9 of Java-21"));
+    }
+
+    @Test
+    void titleMatchOutranksBodyMatch() {
+        SearchIndex index = new SearchIndex();
+        index.put(SearchIndex.document("post", "body", "u1", null, "notes about spring boot", 1));
+        index.put(SearchIndex.document("topic", "title", "u1", "Spring boot", "notes", 1));
+
+        assertEquals(List.of("topic/title", "post/body"), keys(index.search("spring", Set.of())));
+    }
+
+    @Test
+    void exactTermOutranksPrefixMatch() {
+        SearchIndex index = new SearchIndex();
+        index.put(SearchIndex.document("post", "prefix", "u1", null, "learning kotlin", 1));
+        index.put(SearchIndex.document("post", "exact", "u1", null, "learn kotlin", 1));
+
+        assertEquals(List.of("post/exact", "post/prefix"), keys(index.search("learn", Set.of())));
+    }
+
+    @Test
+    void documentsMatchingMoreQueryTermsRankFirst() {
+        SearchIndex index = new SearchIndex();
+        index.put(SearchIndex.document("post", "one", "u1", null, "java streams", 1));
+        index.put(SearchIndex.document("post", "both", "u1", null, "java and kotlin streams", 1));
+        index.put(SearchIndex.document("post", "none", "u1", null, "python", 1));
+
+        assertEquals(List.of("post/both", "post/one"), keys(index.search("java kotlin", Set.of())));
+    }
+
+    @Test
+    void equalScoresRankNewestFirst() {
+        SearchIndex index = new SearchIndex();
+        index.put(SearchIndex.document("post", "old", "u1", null, "react hooks", 1));
+        index.put(SearchIndex.document("post", "new", "u1", null, "react hooks", 2));
+
+        assertEquals(List.of("post/new", "post/old"), keys(index.search("react", Set.of())));
+    }
+
+    @Test
+    void typesFilterAndRemoveDropHits() {
+        SearchIndex index = new SearchIndex();
+        index.put(SearchIndex.document("post", "p", "u1", null, "docker", 1));
+        index.put(SearchIndex.document("status", "s", "u1", null, "docker", 1));
+
+        assertEquals(List.of("status/s"), keys(index.search("docker", Set.of("status"))));
+        index.remove("status/s");
+        assertEquals(List.of("post/p"), keys(index.search("docker", Set.of())));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void cursorPagesVisitEveryHitOnceInRankingOrder() {
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < 7; i++) {
+            String body = "graphql " + "schema ".repeat(i);
+            index.put(SearchIndex.document("post", "p" + i, "u1", null, body, i));
+        }
+        List<Hit> hits = index.search("graphql schema", Set.of());
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            int start = cursor != null ? SearchIndex.startAfter(hits, SearchIndex.decodeCursor(cursor)) : 0;
+            int end = Math.min(start + 3, hits.size());
+            paged.addAll(keys(hits.subList(start, end)));
+            cursor = end < hits.size() ? SearchIndex.encodeCursor(hits.get(end - 1)) : null;
+        } while (cursor != null);
+
+        assertEquals(keys(hits), paged);
+    }
+
+    @Test
+    void cursorContinuesFromAHitThatIsNoLongerListed() {
+        SearchIndex index = new SearchIndex();
+        index.put(SearchIndex.document("post", "p0", "u1", null, "redis", 0));
+        index.put(SearchIndex.document("post", "p1", "u1", null, "redis", 1));
+        index.put(SearchIndex.document("status", "s2", "u1", null, "redis", 2));
+        index.put(SearchIndex.document("post", "p3", "u1", null, "redis", 3));
+        List<Hit> all = index.search("redis", Set.of());
+        assertEquals(List.of("post/p3", "status/s2", "post/p1", "post/p0"), keys(all));
+
+        List<Hit> posts = index.search("redis", Set.of("post"));
+        int start = SearchIndex.startAfter(posts, SearchIndex.decodeCursor(SearchIndex.encodeCursor(all.get(1))));
+
+        assertEquals(List.of("post/p1", "post/p0"), keys(posts.subList(start, posts.size())));
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SearchIndex.decodeCursor("not-a-cursor"));
+    }
+
+    @Test
+    void scoresArePositiveAndSorted() {
+        SearchIndex index = new SearchIndex();
+        index.put(SearchIndex.document("post", "a", "u1", "Rust", "ownership and borrowing in rust", 1));
+        index.put(SearchIndex.document("post", "b", "u1", null, "rust", 1));
+        List<Hit> hits = index.search("rust", Set.of());
+
+        assertEquals(2, hits.size());
+        assertTrue(hits.get(1).score() > 0);
+        assertTrue(hits.get(0).score() >= hits.get(1).score());
+    }
+
+    private static List<String> keys(List<Hit> hits) {
+        return hits.stream().map(hit -> hit.document().key()).toList();
+    }
+}
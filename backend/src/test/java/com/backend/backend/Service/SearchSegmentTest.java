@@ -0,0 +1,81 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.backend.backend.Service.SearchIndex.Document;
+
+class SearchSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripKeepsHeaderAndDocuments() throws IOException {
+        Path path = directory.resolve("search.seg");
+        List<Document> documents = List.of(
+                SearchIndex.document("post", "p1", "u1", null, "Caf\u00e9 culture in Kotlin", 1_000),
+                SearchIndex.document("topic", "t1", null, "Spring", "beans and boot", 2_000));
+
+        SearchSegment.write(path, new SearchSegment.Contents(123, 456, documents));
+        SearchSegment.Contents read = SearchSegment.read(path);
+
+        assertEquals(123, read.builtAt());
+        assertEquals(456, read.postsSince());
+        assertEquals(documents, read.documents());
+    }
+
+    @Test
+    void loadedDocumentsSearchLikeTheOriginals() throws IOException {
+        Path path = directory.resolve("search.seg");
+        SearchIndex original = new SearchIndex();
+        original.put(SearchIndex.document("post", "p1", "u1", null, "react hooks", 1));
+        original.put(SearchIndex.document("post", "p2", "u1", "React", "state", 2));
+        SearchSegment.write(path, new SearchSegment.Contents(0, 0, original.documents()));
+
+        SearchIndex loaded = new SearchIndex();
+        loaded.putAll(SearchSegment.read(path).documents());
+
+        assertEquals(original.search("react", Set.of()), loaded.search("react", Set.of()));
+    }
+
+    @Test
+    void segmentOfAnotherVersionReadsAsMissing() throws IOException {
+        Path path = directory.resolve("search.seg");
+        SearchSegment.write(path, new SearchSegment.Contents(1, 1, List.of()));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(4);
+            file.writeInt(99);
+        }
+
+        assertNull(SearchSegment.read(path));
+    }
+
+    @Test
+    void missingSegmentReadsAsMissing() throws IOException {
+        assertNull(SearchSegment.read(directory.resolve("absent.seg")));
+    }
+
+    @Test
+    void truncatedSegmentIsAnError() throws IOException {
+        Path path = directory.resolve("search.seg");
+        SearchSegment.write(path, new SearchSegment.Contents(1, 1,
+                List.of(SearchIndex.document("post", "p1", "u1", null, "truncated body", 1))));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 6));
+
+        assertThrows(IOException.class, () -> SearchSegment.read(path));
+    }
+}
@@ -0,0 +1,102 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final SingleFlight singleFlight = new SingleFlight("test", registry);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentLoadsOfOneKeyShareAQuery() {
+        CompletableFuture<String> query = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.load("k", () -> counted(query));
+        CompletableFuture<String> second = singleFlight.load("k", () -> counted(new CompletableFuture<>()));
+        query.complete("result");
+
+        assertEquals("result", first.join());
+        assertEquals("result", second.join());
+        assertEquals(1, loads.get());
+        assertEquals(0.5, registry.get("singleflight.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void differentKeysLoadSeparately() {
+        singleFlight.load("a", () -> counted(new CompletableFuture<>()));
+        singleFlight.load("b", () -> counted(new CompletableFuture<>()));
+
+        assertEquals(2, loads.get());
+        assertEquals(2.0, registry.get("singleflight.in-flight").gauge().value());
+    }
+
+    @Test
+    void aCompletedLoadIsNotReused() {
+        singleFlight.load("k", () -> counted(CompletableFuture.completedFuture("old"))).join();
+
+        assertEquals("new", singleFlight.load("k", () -> counted(CompletableFuture.completedFuture("new"))).join());
+        assertEquals(2, loads.get());
+        assertEquals(0.0, registry.get("singleflight.in-flight").gauge().value());
+    }
+
+    @Test
+    void forgottenKeysStartAFreshLoad() {
+        CompletableFuture<String> stale = new CompletableFuture<>();
+        CompletableFuture<String> before = singleFlight.load("k", () -> counted(stale));
+
+        singleFlight.forgetIf(key -> key.equals("k"));
+        CompletableFuture<String> after = singleFlight.load("k", () -> counted(CompletableFuture.completedFuture("fresh")));
+        stale.complete("stale");
+
+        assertEquals("stale", before.join());
+        assertEquals("fresh", after.join());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failuresReachEveryWaiter() {
+        CompletableFuture<String> query = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.load("k", () -> counted(query));
+        CompletableFuture<String> second = singleFlight.load("k", () -> counted(query));
+        IllegalStateException error = new IllegalStateException("unavailable");
+
+        query.completeExceptionally(error);
+
+        assertSame(error, assertThrows(CompletionException.class, first::join).getCause());
+        assertSame(error, assertThrows(CompletionException.class, second::join).getCause());
+    }
+
+    @Test
+    void oneCallerCancellingLeavesTheOthersWaiting() {
+        CompletableFuture<String> query = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.load("k", () -> counted(query));
+        CompletableFuture<String> second = singleFlight.load("k", () -> counted(query));
+
+        first.cancel(true);
+        query.complete("result");
+
+        assertTrue(first.isCancelled());
+        assertFalse(second.isCancelled());
+        assertEquals("result", second.join());
+    }
+
+    private <T> CompletableFuture<T> counted(CompletableFuture<T> query) {
+        loads.incrementAndGet();
+        return query;
+    }
+}
@@ -0,0 +1,45 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class SkillTagsTest {
+
+    @Test
+    void tagsAreLowerCaseWordsJoinedByDashes() {
+        assertEquals(List.of("spring-boot", "c++", "c#", "node.js"),
+                SkillTags.normalize(List.of("  Spring   Boot ", "C++", "C#", "Node.js")));
+    }
+
+    @Test
+    void duplicatesAndUnusableTagsAreDropped() {
+        assertEquals(List.of("java"), SkillTags.normalize(Arrays.asList("Java", "java ", null, "", "...", "!?")));
+        assertEquals("a".repeat(40), SkillTags.normalize(List.of("a".repeat(50))).get(0));
+    }
+
+    @Test
+    void nullSkillsStayNullSoUpdatesKeepThem() {
+        assertNull(SkillTags.normalize(null));
+    }
+
+    @Test
+    void tooManySkillsAreRejected() {
+        List<String> skills = IntStream.rangeClosed(0, SkillTags.MAX_SKILLS).mapToObj(i -> "skill" + i).toList();
+
+        assertThrows(IllegalArgumentException.class, () -> SkillTags.normalize(skills));
+    }
+
+    @Test
+    void queryParametersAreSplitOnCommas() {
+        assertEquals(List.of("java", "go"), SkillTags.parse("Java, go,,java"));
+        assertThrows(IllegalArgumentException.class, () -> SkillTags.parse(" , "));
+        assertThrows(IllegalArgumentException.class, () -> SkillTags.parse(null));
+    }
+}
@@ -0,0 +1,119 @@
+package com.backend.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.Model.Topic;
+import com.backend.backend.Repository.TopicRepository;
+import com.backend.backend.config.CacheConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TopicProgressBufferTest {
+
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.TOPICS);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final TopicProgressBuffer buffer = buffer();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.shutdown();
+    }
+
+    @Test
+    void updatesToOneTopicCoalesceIntoItsLatestValue() {
+        Topic topic = topic("t1");
+        when(topicRepository.findByIdAsync("t1")).thenReturn(CompletableFuture.completedFuture(Optional.of(topic)));
+        when(topicRepository.updateAll(anyMap())).thenReturn(Map.of("t1", true));
+
+        assertSame(topic, buffer.update("t1", 10).join());
+        assertSame(topic, buffer.update("t1", 20).join());
+        assertSame(topic, buffer.update("t1", 30).join());
+        buffer.flush();
+
+        verify(topicRepository, times(1)).findByIdAsync("t1");
+        verify(topicRepository).updateAll(Map.of("t1", Map.of("progress", 30)));
+        assertEquals(2.0, registry.get("topics.progress.updates").tag("result", "coalesced").counter().count());
+        assertEquals(1.0, registry.get("topics.progress.writes").counter().count());
+    }
+
+    @Test
+    void aMissingTopicIsNeverWritten() {
+        when(topicRepository.findByIdAsync("gone")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        assertNull(buffer.update("gone", 10).join());
+        buffer.flush();
+
+        verify(topicRepository, never()).updateAll(anyMap());
+        assertEquals(1.0, registry.get("topics.progress.updates").tag("result", "missing").counter().count());
+    }
+
+    @Test
+    void aCachedTopicSkipsTheLookupAndIsEvictedOnFlush() {
+        Topic topic = topic("t1");
+        cacheManager.getCache(CacheConfig.TOPICS).put("t1", topic);
+        when(topicRepository.updateAll(anyMap())).thenReturn(Map.of("t1", true));
+
+        assertSame(topic, buffer.update("t1", 40).join());
+        buffer.flush();
+
+        verify(topicRepository, never()).findByIdAsync(any());
+        assertNull(cacheManager.getCache(CacheConfig.TOPICS).get("t1"));
+    }
+
+    @Test
+    void aFailedFlushIsRetriedWithTheNewestValue() {
+        when(topicRepository.findByIdAsync("t1")).thenReturn(CompletableFuture.completedFuture(Optional.of(topic("t1"))));
+        when(topicRepository.updateAll(anyMap()))
+                .thenThrow(new IllegalStateException("unavailable"))
+                .thenReturn(Map.of("t1", true));
+
+        buffer.update("t1", 10).join();
+        buffer.flush();
+        buffer.update("t1", 50).join();
+        buffer.flush();
+
+        verify(topicRepository).updateAll(Map.of("t1", Map.of("progress", 10)));
+        verify(topicRepository).updateAll(Map.of("t1", Map.of("progress", 50)));
+        assertEquals(1.0, registry.get("topics.progress.writes").counter().count());
+    }
+
+    private TopicProgressBuffer buffer() {
+        TopicProgressBuffer created = new TopicProgressBuffer();
+        ReflectionTestUtils.setField(created, "topicRepository", topicRepository);
+        ReflectionTestUtils.setField(created, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(created, "registry", registry);
+        // Flushed by the tests themselves
+        ReflectionTestUtils.setField(created, "flushIntervalMs", 3_600_000L);
+        created.init();
+        return created;
+    }
+
+    private static Topic topic(String id) {
+        Topic topic = new Topic();
+        topic.setId(id);
+        topic.setProgress(0);
+        return topic;
+    }
+}
@@ -0,0 +1,109 @@
+package com.backend.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitFilterTest {
+
+    private static final int PEEK_BYTES = 32;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final RateLimitFilter filter = filter();
+
+    @Test
+    void eachAddressGetsIpLimitRequestsPerPeriod() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, post("10.0.0.1", "user" + i, "{}").getStatus());
+        }
+
+        MockHttpServletResponse rejected = post("10.0.0.1", "user9", "{}");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("20", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getContentAsString().startsWith("Error: Too many requests"));
+        assertEquals(200, post("10.0.0.2", "user9", "{}").getStatus());
+        assertEquals(1.0, registry.get("rate-limit.requests").tags("outcome", "rejected", "limit", "ip").counter().count());
+    }
+
+    @Test
+    void eachUserGetsUserLimitRequestsFromAnyAddress() throws Exception {
+        assertEquals(200, post("10.0.0.1", null, "{\"userId\":\"ada\"}").getStatus());
+        assertEquals(200, post("10.0.0.2", "ada", "{}").getStatus());
+
+        assertEquals(429, post("10.0.0.3", null, "{\"comment\":\"hi\",\"userId\":\"ada\"}").getStatus());
+        assertEquals(200, post("10.0.0.3", "grace", "{}").getStatus());
+    }
+
+    @Test
+    void theHandlerReadsTheWholeBodyAfterThePeek() throws Exception {
+        String body = "{\"comment\":\"" + "x".repeat(PEEK_BYTES) + "\",\"userId\":\"ada\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("10.0.0.1", null, body), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(body, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void routesThatAreNotConfiguredPassThrough() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest read = request("10.0.0.1", "ada", "");
+            read.setMethod("GET");
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(read, new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest());
+        }
+        assertNull(registry.find("rate-limit.requests").counter());
+    }
+
+    private MockHttpServletResponse post(String address, String userHeader, String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(address, userHeader, body), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String address, String userHeader, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/comments");
+        request.setRemoteAddr(address);
+        if (userHeader != null) {
+            request.addHeader("X-User-Id", userHeader);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private RateLimitFilter filter() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.routes", "comments")
+                .withProperty("rate-limit.comments.route", "POST /api/v1/comments")
+                .withProperty("rate-limit.comments.user-limit", "2")
+                .withProperty("rate-limit.comments.ip-limit", "3")
+                .withProperty("rate-limit.comments.period-seconds", "60")
+                .withProperty("rate-limit.body-peek-bytes", String.valueOf(PEEK_BYTES));
+        RateLimitFilter created = new RateLimitFilter();
+        ReflectionTestUtils.setField(created, "environment", environment);
+        ReflectionTestUtils.setField(created, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(created, "registry", registry);
+        created.init();
+        return created;
+    }
+}
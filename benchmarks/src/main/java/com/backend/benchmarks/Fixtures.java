@@ -0,0 +1,109 @@
+package com.backend.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Model.Topic;
+import com.backend.backend.Model.UserStatus;
+
+// Deterministic documents shaped like production data, in both model and Firestore map form
+final class Fixtures {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private Fixtures() {
+    }
+
+    static List<Post> posts(int count) {
+        Random random = new Random(42);
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Post post = new Post("user-" + (i % 500), "User " + (i % 500),
+                    "Post body " + i + " about learning Spring Boot and Firestore", "https://example.com/u/" + (i % 500) + ".png");
+            post.setPostId(id("post", i));
+            post.setCreatedAt(EPOCH.plusSeconds(i * 37L).plusNanos(random.nextInt(1_000_000) * 1000L));
+            List<String> likes = new ArrayList<>();
+            for (int like = random.nextInt(20); like > 0; like--) {
+                likes.add("user-" + random.nextInt(500));
+            }
+            post.setLikes(likes);
+            post.setLikeCount(likes.size());
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    static List<Comment> comments(int count) {
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            comments.add(new Comment(id("comment", i), id("post", i / 10), "user-" + (i % 500), "User " + (i % 500),
+                    "Comment " + i + ", thanks for sharing", new Date(1_735_689_600_000L + i * 1000L)));
+        }
+        return comments;
+    }
+
+    static List<Topic> topics(int count) {
+        List<Topic> topics = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Topic topic = new Topic("Basics " + i, "Getting started", "Core concepts", "The main ideas",
+                    "Practice", "Exercises", "Projects", "Build something", "Review", "Recap");
+            topic.setId(id("topic", i));
+            topic.setUserId("user-" + (i % 500));
+            topic.setProgress(i % 101);
+            topic.setCreatedAt(new Date(1_735_689_600_000L + i * 1000L));
+            topics.add(topic);
+        }
+        return topics;
+    }
+
+    static List<UserStatus> userStatuses(int count) {
+        List<UserStatus> statuses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            statuses.add(new UserStatus(id("status", i), "user-" + (i % 500), "User " + (i % 500),
+                    "Status " + i, "https://example.com/s/" + i + ".png", new Date(1_735_689_600_000L + i * 1000L)));
+        }
+        return statuses;
+    }
+
+    static List<Map<String, Object>> postMaps(List<Post> posts) {
+        List<Map<String, Object>> maps = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            maps.add(post.toMap());
+        }
+        return maps;
+    }
+
+    static List<Map<String, Object>> commentMaps(List<Comment> comments) {
+        List<Map<String, Object>> maps = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            maps.add(comment.toMap());
+        }
+        return maps;
+    }
+
+    static List<Map<String, Object>> topicMaps(List<Topic> topics) {
+        List<Map<String, Object>> maps = new ArrayList<>(topics.size());
+        for (Topic topic : topics) {
+            maps.add(topic.toMap());
+        }
+        return maps;
+    }
+
+    static List<Map<String, Object>> userStatusMaps(List<UserStatus> statuses) {
+        List<Map<String, Object>> maps = new ArrayList<>(statuses.size());
+        for (UserStatus status : statuses) {
+            maps.add(status.toMap());
+        }
+        return maps;
+    }
+
+    private static String id(String prefix, int i) {
+        return prefix + "-" + String.format("%08d", i);
+    }
+}
@@ -0,0 +1,93 @@
+package com.backend.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Page;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Model.Topic;
+import com.backend.backend.Model.UserStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * JSON encoding of the list endpoints' response bodies, using the mapper settings
+ * Spring Boot applies (Java time module, ISO dates instead of timestamps).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonEncodingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int documentCount;
+
+    private ObjectMapper objectMapper;
+    private List<Post> posts;
+    private Page<Post> postPage;
+    private List<Comment> comments;
+    private List<Topic> topics;
+    private List<UserStatus> userStatuses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        posts = Fixtures.posts(documentCount);
+        postPage = new Page<>(posts, "cursor");
+        comments = Fixtures.comments(documentCount);
+        topics = Fixtures.topics(documentCount);
+        userStatuses = Fixtures.userStatuses(documentCount);
+    }
+
+    // GET /posts
+    @Benchmark
+    public byte[] posts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+
+    // GET /posts?limit=&cursor=
+    @Benchmark
+    public byte[] postPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(postPage);
+    }
+
+    // GET /api/v1/comments/getAllComments/{postId}
+    @Benchmark
+    public byte[] comments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(comments);
+    }
+
+    // GET /api/v1/topics/all
+    @Benchmark
+    public byte[] topics() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(topics);
+    }
+
+    // GET /api/v1/user-status/all
+    @Benchmark
+    public byte[] userStatuses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userStatuses);
+    }
+}
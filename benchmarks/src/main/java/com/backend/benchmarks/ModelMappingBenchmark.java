@@ -0,0 +1,116 @@
+package com.backend.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.backend.backend.Model.Comment;
+import com.backend.backend.Model.Post;
+import com.backend.backend.Model.Topic;
+import com.backend.backend.Model.UserStatus;
+
+/**
+ * Firestore map to model conversions (and back) as run for every document a query
+ * returns or a write sends. Each invocation converts a whole result set of documentCount.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelMappingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int documentCount;
+
+    private List<Post> posts;
+    private List<Map<String, Object>> postMaps;
+    private List<Map<String, Object>> commentMaps;
+    private List<Map<String, Object>> topicMaps;
+    private List<Map<String, Object>> userStatusMaps;
+    private List<String> createdAtStrings;
+    private List<Object> createdAtTimestamps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        posts = Fixtures.posts(documentCount);
+        postMaps = Fixtures.postMaps(posts);
+        commentMaps = Fixtures.commentMaps(Fixtures.comments(documentCount));
+        topicMaps = Fixtures.topicMaps(Fixtures.topics(documentCount));
+        userStatusMaps = Fixtures.userStatusMaps(Fixtures.userStatuses(documentCount));
+        createdAtStrings = new ArrayList<>(documentCount);
+        createdAtTimestamps = new ArrayList<>(documentCount);
+        for (int i = 0; i < documentCount; i++) {
+            createdAtStrings.add(posts.get(i).getCreatedAt().toString());
+            createdAtTimestamps.add(postMaps.get(i).get("createdAt"));
+        }
+    }
+
+    @Benchmark
+    public void postFromMap(Blackhole blackhole) {
+        for (int i = 0; i < postMaps.size(); i++) {
+            blackhole.consume(Post.fromMap(posts.get(i).getPostId(), postMaps.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void postToMap(Blackhole blackhole) {
+        for (Post post : posts) {
+            blackhole.consume(post.toMap());
+        }
+    }
+
+    // The LocalDateTime.parse that Post.fromMap does per legacy ISO string document, on its own
+    @Benchmark
+    public void postCreatedAtParse(Blackhole blackhole) {
+        for (String createdAt : createdAtStrings) {
+            blackhole.consume(LocalDateTime.parse(createdAt));
+        }
+    }
+
+    // The same conversion for documents that store a Timestamp
+    @Benchmark
+    public void postCreatedAtFromTimestamp(Blackhole blackhole) {
+        for (Object createdAt : createdAtTimestamps) {
+            blackhole.consume(Post.readCreatedAt(createdAt));
+        }
+    }
+
+    @Benchmark
+    public void commentFromMap(Blackhole blackhole) {
+        for (Map<String, Object> map : commentMaps) {
+            blackhole.consume(Comment.fromMap("comment", map));
+        }
+    }
+
+    @Benchmark
+    public void topicFromMap(Blackhole blackhole) {
+        for (Map<String, Object> map : topicMaps) {
+            blackhole.consume(Topic.fromMap("topic", map));
+        }
+    }
+
+    @Benchmark
+    public void userStatusFromMap(Blackhole blackhole) {
+        for (Map<String, Object> map : userStatusMaps) {
+            blackhole.consume(UserStatus.fromMap("status", map));
+        }
+    }
+}
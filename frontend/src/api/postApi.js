@@ -133,29 +133,25 @@ export const postApi = {
     },
 
     /**
-     * Like/Unlike post (toggle)
+     * Like/Unlike post (toggle, or set explicitly when liked is a boolean)
      * @param {string} postId - The post document ID
      * @param {string} userId - The user ID to like/unlike
-     * @returns {Promise<Object>} Updated post object
+     * @param {boolean} [liked] - Desired like state; omit to toggle
+     * @returns {Promise<Object>} Like state: { postId, liked, likeCount }
      */
-    likePost: async (postId, userId) => {
+    likePost: async (postId, userId, liked) => {
         try {
             const response = await fetch(`${API_URL}/posts/${postId}/like`, {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json',
                 },
-                body: JSON.stringify({ userId }),
+                body: JSON.stringify(typeof liked === 'boolean' ? { userId, liked } : { userId }),
             });
             if (!response.ok) {
                 throw new Error('Failed to like post');
             }
-            const post = await response.json();
-            return {
-                ...post,
-                id: post.postId,
-                createdAt: post.createdAt ? new Date(post.createdAt) : new Date()
-            };
+            return await response.json();
         } catch (error) {
             console.error('Error liking post:', error);
             throw error;
@@ -192,9 +188,16 @@ export const postApi = {
      */
     getRecentPosts: async (limitCount = 20) => {
         try {
-            // Since backend returns all posts sorted by createdAt desc, we limit client-side
-            const posts = await postApi.getAllPosts();
-            return posts.slice(0, limitCount);
+            const response = await fetch(`${API_URL}/posts?limit=${limitCount}`);
+            if (!response.ok) {
+                throw new Error('Failed to fetch recent posts');
+            }
+            const page = await response.json();
+            return page.items.map(post => ({
+                ...post,
+                id: post.postId,
+                createdAt: post.createdAt ? new Date(post.createdAt) : new Date()
+            }));
         } catch (error) {
             console.error('Error fetching recent posts:', error);
             throw error;